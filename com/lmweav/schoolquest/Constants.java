@@ -52,6 +52,45 @@ public class Constants {
     public static final int Y_PADDING = (VERTICAL_OFFSET / SCALED_TILE_SIZE) + 3;
 
     public static final int TARGET_FPS = 20;
+    public static final int RENDER_FPS = 60;
+    public static final int MAX_CATCH_UP_TICKS = 5;
+
+    public static final int LOOP_MODE_VARIABLE = 0;
+    public static final int LOOP_MODE_FIXED = 1;
+    public static final int LOOP_MODE = LOOP_MODE_VARIABLE;
+
+    public static final int RENDER_MODE_INVALIDATE = 0;
+    public static final int RENDER_MODE_SURFACE = 1;
+    public static final int DEFAULT_RENDER_MODE = RENDER_MODE_INVALIDATE;
+
+    public static final int PROFILER_HISTORY = 512;
+    public static final int PROFILER_REFRESH = 20;
+    public static final int PROFILER_TEXT_SIZE = 28;
+
+    public static final int HUD_STATE_NONE = 0;
+    public static final int HUD_STATE_BUTTONS_ENABLED = 1;
+    public static final int HUD_STATE_BUTTONS_DISABLED = 2;
+    public static final int HUD_STATE_LESSON_C_ENABLED = 3;
+    public static final int HUD_STATE_LESSON_C_DISABLED = 4;
+
+    public static final int MAX_PATH_SEARCH_DISTANCE = 30;
+    public static final boolean USE_JUMP_POINT_SEARCH = false;
+
+    public static final int MAP_CHUNK_SIZE = 8;
+    public static final int MAP_VIEW_CHUNKS_X =
+            ((CAMERA_WIDTH + (2 * X_PADDING) + MAP_CHUNK_SIZE) / MAP_CHUNK_SIZE) + 1;
+    public static final int MAP_VIEW_CHUNKS_Y =
+            ((CAMERA_HEIGHT + (2 * Y_PADDING) + MAP_CHUNK_SIZE) / MAP_CHUNK_SIZE) + 1;
+    public static final int MAP_CHUNK_CACHE_SIZE = (MAP_VIEW_CHUNKS_X + 1) * (MAP_VIEW_CHUNKS_Y + 1);
+    public static final int MAP_RESIDENCY_BUDGET = 8;
+
+    public static final int STARTUP_MAX_WORKERS = 4;
+    public static final int STARTUP_PROGRESS_INTERVAL = 50;
+    public static final int STARTUP_PROGRESS_MAX = 100;
+
+    public static final String RECORD_BUNDLE_DIR = "records";
+
+    public static final int CHARACTER_INDEX_CELL_SIZE = 4;
 
     public static final int OBJECT_TILESET_DOWN_INDEX = 0;
     public static final int OBJECT_TILESET_LEFT_INDEX = 8;
@@ -8,6 +8,7 @@ import android.graphics.BitmapFactory;
 import android.graphics.Canvas;
 import android.graphics.Paint;
 import android.graphics.Point;
+import android.graphics.Rect;
 import androidx.core.content.ContextCompat;
 
 import android.media.AudioManager;
@@ -18,25 +19,30 @@ import android.util.Pair;
 import android.view.View;
 import android.view.animation.Animation;
 
+import com.lmweav.schoolquest.characters.CharacterIndex;
 import com.lmweav.schoolquest.characters.GameCharacter;
 import com.lmweav.schoolquest.characters.NPC;
 import com.lmweav.schoolquest.items.Item;
 import com.lmweav.schoolquest.characters.Player;
+import com.lmweav.schoolquest.characters.RenderSnapshot;
 import com.lmweav.schoolquest.items.ItemComparator;
 import com.lmweav.schoolquest.minigames.Exam;
 import com.lmweav.schoolquest.minigames.MiniGame;
 import com.lmweav.schoolquest.scripting.Script;
 import com.lmweav.schoolquest.utilities.BGMFader;
 import com.lmweav.schoolquest.utilities.Camera;
+import com.lmweav.schoolquest.utilities.ConditionState;
+import com.lmweav.schoolquest.utilities.Profiler;
 import com.lmweav.schoolquest.tiles.TileMap;
 import com.lmweav.schoolquest.utilities.TextBoxRunnable;
 import com.lmweav.schoolquest.utilities.TextBoxStructure;
+import com.lmweav.schoolquest.utilities.pathfinding.Path;
+import com.lmweav.schoolquest.utilities.pathfinding.PortalGraph;
+import com.lmweav.schoolquest.utilities.pathfinding.PortalRoute;
 
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -103,7 +109,10 @@ public class Game implements Serializable {
 
     private TreeMap<Item, Integer> inventory = new TreeMap<>(new ItemComparator());
 
-    private GameCharacter[][] gameCharacterMatrix;
+    private transient CharacterIndex characterIndex;
+    private final transient ArrayList<GameCharacter> visibleCharacters = new ArrayList<>();
+    private final transient ArrayList<NPC> savedNPCs = new ArrayList<>();
+    private final transient RenderSnapshot renderSnapshot = new RenderSnapshot();
 
     private GameProgressDataStructure progressDataStructure = new GameProgressDataStructure();
 
@@ -147,6 +156,14 @@ public class Game implements Serializable {
     private transient NPC waitingChar;
 
     private transient Point destination;
+    private transient PortalRoute route;
+    private transient int routeLeg;
+
+    private transient float interpolation = 1;
+    private transient boolean hostileTilesVisible;
+
+    private transient int inventoryVersion;
+    private transient int npcListVersion;
 
     private transient MediaPlayer bgm;
     private transient MediaPlayer jingle;
@@ -243,27 +260,36 @@ public class Game implements Serializable {
 
     public void setMiniGame(MiniGame miniGame) { this.miniGame = miniGame; }
 
-    public GameCharacter getGameCharacterFromMap(int x, int y) {
-        return gameCharacterMatrix[y][x];
-    }
+    public CharacterIndex getCharacterIndex() { return characterIndex; }
 
-    public void removeGameCharacterFromMap(GameCharacter gc) {
-        gameCharacterMatrix[gc.getY()][gc.getX()] = null;
-    }
+    public GameCharacter getGameCharacterFromMap(int x, int y) { return characterIndex.get(x, y); }
 
-    public void addGameCharacterToMap(GameCharacter gc) {
-        gameCharacterMatrix[gc.getY()][gc.getX()] = gc;
-    }
+    public void removeGameCharacterFromMap(GameCharacter gc) { characterIndex.vacate(gc); }
+
+    public void addGameCharacterToMap(GameCharacter gc) { characterIndex.occupy(gc); }
 
     public boolean givenTo(NPC npc) { return npcsGivenTo.contains(npc.getId()); }
 
-    public void addGivenNPC(NPC npc) { npcsGivenTo.add(npc.getId()); }
+    public void addGivenNPC(NPC npc) {
+        npcsGivenTo.add(npc.getId());
+        npcListVersion++;
+    }
 
-    public void removeGivenNPC(NPC npc) { npcsGivenTo.remove(Integer.valueOf(npc.getId())); }
+    public void removeGivenNPC(NPC npc) {
+        npcsGivenTo.remove(Integer.valueOf(npc.getId()));
+        npcListVersion++;
+    }
 
     public boolean spokenTo(NPC npc) { return npcsSpokenTo.contains(npc.getId()); }
 
-    void addSpokenNPC(NPC npc) { npcsSpokenTo.add(npc.getId()); }
+    void addSpokenNPC(NPC npc) {
+        npcsSpokenTo.add(npc.getId());
+        npcListVersion++;
+    }
+
+    public int getNpcListVersion() { return npcListVersion; }
+
+    public int getInventoryVersion() { return inventoryVersion; }
 
     public void addPointChange(int id, int index, int increase) {
         pointChanges.add(new int[] { id, index, increase } );
@@ -348,6 +374,8 @@ public class Game implements Serializable {
 
     public int getTick() { return tick; }
 
+    void setInterpolation(float interpolation) { this.interpolation = interpolation; }
+
     boolean isNGPlus() { return NGPlus; }
 
     /*---------------------------------------------------------------------------------------------
@@ -444,22 +472,26 @@ public class Game implements Serializable {
         }
     }
 
-    private void addNPCsFromData(Context context, Game data) {
-        if (!data.gameCharacters.isEmpty()) {
-            for (GameCharacter character: data.gameCharacters) {
-                if (character instanceof NPC) {
-                    NPC npc = new NPC(context, (NPC) character);
-                    gameCharacters.add(npc);
-                }
-            }
+    private void addNPCsFromData(Context context, SaveDataStructure data) {
+        for (NPCSaveDataStructure npcData : data.npcs) {
+            NPC npc = new NPC(context, npcData.x, npcData.y, npcData.code, npcData.name,
+                    npcData.direction, npcData.defaultDirection, npcData.hostile, npcData.ctrl);
+            gameCharacters.add(npc);
+            savedNPCs.add(npc);
         }
     }
 
-    public boolean isGameCharacterInMap(int x, int y) {
-        return y >= 0 && y < gameCharacterMatrix.length && x >= 0
-                && x <= gameCharacterMatrix[0].length && gameCharacterMatrix[y][x] != null;
+    /*
+     * The NPCs restored from a save belong to no map, so their sprite sheets are released here
+     * when they are replaced, rather than when a map is unloaded.
+     */
+    private void releaseSavedNPCs() {
+        for (NPC npc : savedNPCs) { npc.release(); }
+        savedNPCs.clear();
     }
 
+    public boolean isGameCharacterInMap(int x, int y) { return characterIndex.contains(x, y); }
+
     public void setLoadingScreen(boolean loading, int... frames) {
         currentLoadingTime = 0;
         Animation loadingTextAnim;
@@ -531,6 +563,7 @@ public class Game implements Serializable {
         }
         if (!inventory.containsKey(item)) { inventory.put(item, 1); }
         else { inventory.put(item, inventory.get(item) + 1); }
+        inventoryVersion++;
     }
 
     public void removeItem(Item item) {
@@ -538,6 +571,7 @@ public class Game implements Serializable {
             int n = inventory.get(item);
             if (n == 1) { inventory.remove(item); }
             else {inventory.put(item, n - 1); }
+            inventoryVersion++;
         }
     }
 
@@ -605,32 +639,39 @@ public class Game implements Serializable {
         return money;
     }
 
-    public void loadMap(int mapId) {
+    private void setTileMap(int mapId) {
         tileMap = TileMap.getMap(mapId);
+        TileMap.setCurrentMap(tileMap);
+    }
+
+    public void loadMap(int mapId) {
+        setTileMap(mapId);
         reloadMap();
     }
 
     public void loadMap(Pair<Integer, Point> destination) {
         player.setPoint(destination.second.x, destination.second.y);
-        tileMap = TileMap.getMap(destination.first);
+        setTileMap(destination.first);
         reloadMap();
     }
 
     public void reloadMap() {
         tileMap.removeNPCCollisions();
+        tileMap.clearHostileTiles();
 
         setLoadingScreen(true);
 
         tileMap.update();
 
+        releaseSavedNPCs();
         gameCharacters.clear();
         gameCharacters.add(player);
         this.destination = null;
 
         addNPCsFromMap();
-        gameCharacterMatrix = new GameCharacter[tileMap.getRows()][tileMap.getCols()];
+        characterIndex = new CharacterIndex(tileMap.getRows(), tileMap.getCols());
         for (GameCharacter gc : gameCharacters) {
-            gameCharacterMatrix[gc.getY()][gc.getX()] = gc;
+            characterIndex.insert(gc);
             tileMap.setCollision(gc.getX(), gc.getY(), 2);
         }
 
@@ -646,29 +687,83 @@ public class Game implements Serializable {
             if (bgmId != eventBGM) { changeBGM(eventBGM); }
         }
         else if (bgmId != tileMap.getBGM() && script == null) { changeBGM(tileMap.getBGM()); }
+
+        TileMap.prefetchNeighbours(tileMap);
+
+        if (route != null) {
+            routeLeg++;
+            followRoute();
+        }
+    }
+
+    /*
+     * Walks the player to another map, through the doors found by the PortalGraph. Only the path
+     * across the current map is found now; the path across each map after it is found when the
+     * player walks into that map (see reloadMap). Returns false if the player cannot be sent.
+     */
+    public boolean travelTo(int mapId) {
+        PortalGraph portalGraph = TileMap.getPortalGraph();
+        if (mapId == tileMap.getId() || portalGraph == null || script != null || loading ||
+                playerSpottedByNPC || miniGame != null || player.getPath() != null) {
+            return false;
+        }
+
+        route = portalGraph.findRoute(tileMap.getId(), player.getX(), player.getY(), mapId);
+        routeLeg = 0;
+        followRoute();
+        return route != null;
+    }
+
+    public void cancelRoute() { route = null; }
+
+    /*
+     * Sets the player's path to the current leg of the route, if the player is where the leg
+     * starts. The route is dropped when it cannot be followed, or once its last leg is set.
+     */
+    private void followRoute() {
+        if (routeLeg >= route.getLegCount() || route.getMapId(routeLeg) != tileMap.getId() ||
+                route.getStartX(routeLeg) != player.getX() ||
+                route.getStartY(routeLeg) != player.getY()) {
+            route = null;
+            return;
+        }
+
+        Path path = route.getLeg(routeLeg, tileMap);
+        if (path == null || path.getLength() < 2) {
+            route = null;
+            return;
+        }
+
+        destination = new Point(route.getGoalX(routeLeg), route.getGoalY(routeLeg));
+        player.setGoal(destination.x, destination.y);
+        player.setPath(path);
+        if (routeLeg == route.getLegCount() - 1) { route = null; }
     }
 
     void newGame(Context context, String playerName) {
+        if (player != null) { player.release(); }
         player = new Player(context, NEW_GAME_X, NEW_GAME_Y, playerName);
         camera = new Camera(player.getX() - (CAMERA_WIDTH / 2),
                 player.getY() - (CAMERA_HEIGHT / 2));
 
-        tileMap = TileMap.getMap(NEW_GAME_MAP_ID);
+        setTileMap(NEW_GAME_MAP_ID);
         tileMap.removeNPCCollisions();
         tileMap.update();
 
+        releaseSavedNPCs();
         gameCharacters.clear();
         gameCharacters.add(player);
         this.destination = null;
 
         addNPCsFromMap();
-        gameCharacterMatrix = new GameCharacter[tileMap.getRows()][tileMap.getCols()];
+        characterIndex = new CharacterIndex(tileMap.getRows(), tileMap.getCols());
         for (GameCharacter gc : gameCharacters) {
-            gameCharacterMatrix[gc.getY()][gc.getX()] = gc;
+            characterIndex.insert(gc);
             tileMap.setCollision(gc.getX(), gc.getY(), 2);
         }
 
         camera.setBoundingBox();
+        TileMap.prefetchNeighbours(tileMap);
 
         bgmId = tileMap.getBGM();
         bgm = MediaPlayer.create(context, bgmId);
@@ -681,7 +776,7 @@ public class Game implements Serializable {
     public void goHome() {
         player.setPoint(HOME_X, HOME_Y);
         player.rotate(OBJECT_DIRECTION_DOWN);
-        tileMap = TileMap.getMap(MAP_BEDROOM_ID);
+        setTileMap(MAP_BEDROOM_ID);
 
         String before = getTimeKey(time).toUpperCase();
         time = TIME_EVENING;
@@ -695,10 +790,11 @@ public class Game implements Serializable {
     public void newDay() {
         player.setPoint(NEW_GAME_X, NEW_GAME_Y);
         player.rotate(OBJECT_DIRECTION_UP);
-        tileMap = TileMap.getMap(MAP_SCHOOL_HALL_G_ID);
+        setTileMap(MAP_SCHOOL_HALL_G_ID);
 
         npcsGivenTo.clear();
         npcsSpokenTo.clear();
+        npcListVersion++;
 
         day++;
         time = TIME_MORNING;
@@ -755,6 +851,7 @@ public class Game implements Serializable {
 
                         npcsGivenTo.clear();
                         npcsSpokenTo.clear();
+                        npcListVersion++;
 
                         day++;
 
@@ -979,7 +1076,7 @@ public class Game implements Serializable {
         playerSpottedByNPC = false;
         player.setPoint(9, 2);
         player.rotate(OBJECT_DIRECTION_DOWN);
-        tileMap = TileMap.getMap(MAP_SCHOOL_HALL_1F_ID);
+        setTileMap(MAP_SCHOOL_HALL_1F_ID);
 
         progressDataStructure.resetCatchInteractiveTile();
         progressDataStructure.resetCatchNPCInteraction();
@@ -1001,6 +1098,8 @@ public class Game implements Serializable {
             }
         });
 
+        script.planPaths();
+
         int mapId = script.getMapId();
         if (GAME.getTileMap().getId() == mapId) { GAME.loadMap(mapId); }
         else { GAME.setLoadingScreen(true); }
@@ -1079,12 +1178,31 @@ public class Game implements Serializable {
 
     public void pauseMusic() { bgm.pause(); }
 
+    /*
+     * Returns a position between the last two ticks, for drawing. Moves longer than a tile (such
+     * as loading a map) are not interpolated.
+     */
+    public int interpolate(int previous, int current) {
+        if (Math.abs(current - previous) > SCALED_TILE_SIZE) { return current; }
+        return previous + Math.round((current - previous) * interpolation);
+    }
+
     void update() {
         tick++;
         if (tick == TARGET_FPS) { tick = 0; }
 
-        tileMap.resetHostileMatrix();
+        camera.savePosition();
+        synchronized (gameCharacters) {
+            for (GameCharacter gc : gameCharacters) { gc.savePosition(); }
+        }
+
+        if (script != null || GameActivity.getInstance().isGamePause()) {
+            hostileTilesVisible = false;
+        }
+
+        ConditionState.sample();
 
+        Profiler.begin(Profiler.PHASE_UPDATE_EMOTIONS);
         synchronized (gameCharacters) {
             for (GameCharacter gc : gameCharacters) {
                 if (gc instanceof NPC) {
@@ -1103,14 +1221,26 @@ public class Game implements Serializable {
                 if (gc.getEmotion() != null) { gc.getEmotion().update(); }
             }
         }
+        Profiler.end(Profiler.PHASE_UPDATE_EMOTIONS);
 
+        Profiler.begin(Profiler.PHASE_UPDATE_TILES);
         tileMap.animateTiles();
+        Profiler.end(Profiler.PHASE_UPDATE_TILES);
 
         if (!GameActivity.getInstance().isGamePause()) {
 
-            if (script == null) { for (GameCharacter gc : gameCharacters) { gc.update(); } }
+            if (script == null) {
+                Profiler.begin(Profiler.PHASE_UPDATE_CHARACTERS);
+                synchronized (gameCharacters) {
+                    for (GameCharacter gc : gameCharacters) { gc.update(); }
+                }
+                hostileTilesVisible = true;
+                Profiler.end(Profiler.PHASE_UPDATE_CHARACTERS);
+            }
             else if (script.isLoaded() && (!loading || script.isStarted())) {
+                Profiler.begin(Profiler.PHASE_UPDATE_SCRIPT);
                 script.execute();
+                Profiler.end(Profiler.PHASE_UPDATE_SCRIPT);
                 if (script.isFinished()) {
                     script.setFinished(false);
                     script.setSkip(false);
@@ -1123,7 +1253,9 @@ public class Game implements Serializable {
                     script = null;
                 }
             }
+            Profiler.begin(Profiler.PHASE_UPDATE_CAMERA);
             camera.update();
+            Profiler.end(Profiler.PHASE_UPDATE_CAMERA);
             if (tileMap.isDoorPoint(player.getX(), player.getY())) {
                 if (!tileMap.isDoorLocked(player.getX(), player.getY())) {
                     playSFX(SFX_DOOR);
@@ -1159,13 +1291,11 @@ public class Game implements Serializable {
 
 
     void load(Context context, final GameActivity gameActivity) {
-        Game data;
+        SaveDataStructure data;
 
         try {
             FileInputStream saveData = context.openFileInput(gameActivity.getDataFile());
-            ObjectInputStream in = new ObjectInputStream(saveData);
-            data = (Game) in.readObject();
-            in.close();
+            data = SaveCodec.read(saveData, context);
             saveData.close();
         } catch (Exception e) {
             newGame(gameActivity, gameActivity.getPlayerName());
@@ -1174,6 +1304,7 @@ public class Game implements Serializable {
 
         npcsGivenTo = new ArrayList<>(data.npcsGivenTo);
         npcsSpokenTo = new ArrayList<>(data.npcsSpokenTo);
+        npcListVersion++;
         pointChanges = new ArrayList<>(data.pointChanges);
 
         gradeScores = new int[5];
@@ -1190,11 +1321,8 @@ public class Game implements Serializable {
                 data.daysSince, 0, daysSince, 0, data.daysSince.length);
 
         inventory = new TreeMap<>(new ItemComparator());
-        for (Item item : data.inventory.keySet()) {
-            int amount = data.inventory.get(item);
-            item = Item.getItem(item.getId());
-            inventory.put(item, amount);
-        }
+        for (int[] item : data.inventory) { inventory.put(Item.getItem(item[0]), item[1]); }
+        inventoryVersion++;
 
         progressDataStructure = data.progressDataStructure;
 
@@ -1210,7 +1338,6 @@ public class Game implements Serializable {
         money = data.money;
         gfIndex = data.gfIndex;
 
-        bgmId = data.bgmId;
         eventBGM = data.eventBGM;
 
         mapId = data.mapId;
@@ -1218,29 +1345,34 @@ public class Game implements Serializable {
         sumGP = data.sumGP;
         sumFP = data.sumFP;
 
-        player = new Player(gameActivity, data.getPlayer());
+        if (player != null) { player.release(); }
+        player = new Player(gameActivity, data.playerX, data.playerY, data.playerName,
+                data.playerDirection, data.playerSpeed, data.playerCondition, data.playerEaten,
+                data.playerBuffs);
 
-        tileMap = TileMap.getMap(mapId);
+        setTileMap(mapId);
         camera = new Camera(player.getX() - (CAMERA_WIDTH / 2),
                 player.getY() - (CAMERA_HEIGHT / 2));
 
         tileMap.removeNPCCollisions();
         tileMap.update();
 
+        releaseSavedNPCs();
         gameCharacters.clear();
         gameCharacters.add(player);
         this.destination = null;
 
         addNPCsFromData(gameActivity, data);
-        gameCharacterMatrix = new GameCharacter[tileMap.getRows()][tileMap.getCols()];
+        characterIndex = new CharacterIndex(tileMap.getRows(), tileMap.getCols());
         for (GameCharacter gc : gameCharacters) {
-            gameCharacterMatrix[gc.getY()][gc.getX()] = gc;
+            characterIndex.insert(gc);
             tileMap.setCollision(gc.getX(), gc.getY(), 2);
         }
 
         rated = data.rated;
 
         camera.setBoundingBox();
+        TileMap.prefetchNeighbours(tileMap);
 
         bgmId = tileMap.getBGM();
         if (eventBGM > -1) { bgm = MediaPlayer.create(gameActivity, eventBGM); }
@@ -1251,6 +1383,63 @@ public class Game implements Serializable {
         jingle = MediaPlayer.create(gameActivity, R.raw._jingle_get_item);
     }
 
+    /*
+     * The state a save is written from. This is also how a save of the serialized Game is read,
+     * so it must only use fields that are not transient.
+     */
+    SaveDataStructure getSaveData() {
+        SaveDataStructure data = new SaveDataStructure();
+
+        data.playerName = player.getName();
+        data.day = day;
+        data.time = time;
+        data.NGPlus = NGPlus;
+
+        data.rated = rated;
+        data.points = points;
+        data.gradePoints = gradePoints;
+        data.friendPoints = friendPoints;
+        data.heistPoints = heistPoints;
+        data.averageGP = averageGP;
+        data.averageFP = averageFP;
+        data.sumGP = sumGP;
+        data.sumFP = sumFP;
+        data.money = money;
+        data.gfIndex = gfIndex;
+        data.mapId = mapId;
+        data.eventBGM = eventBGM;
+
+        System.arraycopy(gradeScores, 0, data.gradeScores, 0, gradeScores.length);
+        System.arraycopy(friendScores, 0, data.friendScores, 0, friendScores.length);
+        System.arraycopy(examScores, 0, data.examScores, 0, examScores.length);
+        System.arraycopy(daysSince, 0, data.daysSince, 0, daysSince.length);
+
+        data.npcsGivenTo.addAll(npcsGivenTo);
+        data.npcsSpokenTo.addAll(npcsSpokenTo);
+        data.pointChanges.addAll(pointChanges);
+        for (Map.Entry<Item, Integer> entry : inventory.entrySet()) {
+            data.inventory.add(new int[] { entry.getKey().getId(), entry.getValue() });
+        }
+
+        data.progressDataStructure = progressDataStructure;
+
+        data.playerX = player.getX();
+        data.playerY = player.getY();
+        data.playerDirection = player.getDirection();
+        data.playerSpeed = player.getSpeed();
+        data.playerCondition = player.getCondition();
+        data.playerEaten = player.hasEaten();
+        data.playerBuffs[0] = player.getBuff(0);
+        data.playerBuffs[1] = player.getBuff(1);
+
+        synchronized (gameCharacters) {
+            for (GameCharacter gc : gameCharacters) {
+                if (gc instanceof NPC) { data.npcs.add(new NPCSaveDataStructure((NPC) gc)); }
+            }
+        }
+        return data;
+    }
+
     public void rateThis(final GameActivity gameActivity) {
         if (!rated) {
             rated = true;
@@ -1284,9 +1473,7 @@ public class Game implements Serializable {
         try {
             FileOutputStream saveData = context.openFileOutput(
                     GameActivity.getInstance().getDataFile(), Context.MODE_PRIVATE);
-            ObjectOutputStream out = new ObjectOutputStream(saveData);
-            out.writeObject(this);
-            out.close();
+            SaveCodec.write(getSaveData(), saveData, context);
             saveData.close();
         } catch (IOException e) {
             e.printStackTrace();
@@ -1312,6 +1499,7 @@ public class Game implements Serializable {
                 it.remove();
             }
         }
+        inventoryVersion++;
 
         money += 250;
         day = 1;
@@ -1324,36 +1512,35 @@ public class Game implements Serializable {
     }
 
 
+    /*
+     * Publishes the characters in view, the camera and the map overlays for the renderer, at the
+     * end of each tick. The renderer draws from the snapshot rather than reading them itself.
+     */
+    void publishRenderSnapshot() {
+        Rect boundingBox = camera.getBoundingBox();
+        characterIndex.getInRect(boundingBox.left, boundingBox.top, boundingBox.right,
+                boundingBox.bottom, visibleCharacters);
+        renderSnapshot.publish(visibleCharacters, miniGame == null, tileMap, camera, destination,
+                hostileTilesVisible);
+    }
+
     void draw(Canvas canvas, Paint paint) {
-        tileMap.draw(canvas, paint);
+        renderSnapshot.begin();
 
-        if (destination != null) {
-            int x = ((destination.x - camera.getX()) * SCALED_TILE_SIZE) - camera.getDiffX();
-            int y = ((destination.y - camera.getY()) * SCALED_TILE_SIZE) - camera.getDiffY();
+        Profiler.begin(Profiler.PHASE_DRAW_TILES);
+        renderSnapshot.drawMap(canvas, paint);
+        Profiler.end(Profiler.PHASE_DRAW_TILES);
 
-            highlightPaint.setColor(tileDestinationColor);
+        Profiler.begin(Profiler.PHASE_DRAW_CHARACTERS);
+        highlightPaint.setColor(tileDestinationColor);
+        renderSnapshot.drawDestination(canvas, highlightPaint);
 
-            canvas.drawRect(x, y, x + SCALED_TILE_SIZE, y + SCALED_TILE_SIZE,
-                    highlightPaint);
-        }
-
-        for (GameCharacter gc : gameCharacters) {
-            if (camera.getBoundingBox().contains(gc.getX(), gc.getY())) {
-                gc.draw(canvas, paint);
-            }
-        }
+        renderSnapshot.drawCharacters(canvas, paint);
+        Profiler.end(Profiler.PHASE_DRAW_CHARACTERS);
 
+        Profiler.begin(Profiler.PHASE_DRAW_HOSTILE);
         highlightPaint.setColor(hostileTileColor);
-
-        for (int j = 0; j < tileMap.getHostileMatrixRows(); j++) {
-            for (int i = 0; i < tileMap.getHostileMatrixCols(); i++) {
-                if (tileMap.isHostile(i, j)) {
-                    int x = ((i - camera.getX()) * SCALED_TILE_SIZE) - camera.getDiffX();
-                    int y = ((j - camera.getY()) * SCALED_TILE_SIZE) - camera.getDiffY();
-                    canvas.drawRect(x, y, x + SCALED_TILE_SIZE, y + SCALED_TILE_SIZE,
-                            highlightPaint);
-                }
-            }
-        }
+        renderSnapshot.drawHostileTiles(canvas, highlightPaint);
+        Profiler.end(Profiler.PHASE_DRAW_HOSTILE);
     }
 }
@@ -10,12 +10,14 @@ import android.content.Intent;
 import android.content.pm.ActivityInfo;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
+import android.graphics.Color;
 import android.media.AudioManager;
 import android.os.Bundle;
 import androidx.constraintlayout.widget.ConstraintLayout;
 import androidx.core.content.ContextCompat;
 
 import android.os.Handler;
+import android.view.Gravity;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.Window;
@@ -27,7 +29,9 @@ import android.view.animation.AnimationSet;
 import android.view.animation.LinearInterpolator;
 import android.view.animation.RotateAnimation;
 import android.view.animation.TranslateAnimation;
+import android.widget.FrameLayout;
 import android.widget.ImageView;
+import android.widget.ProgressBar;
 
 import com.google.android.flexbox.FlexboxLayout;
 import com.lmweav.schoolquest.characters.Emotion;
@@ -41,6 +45,9 @@ import com.lmweav.schoolquest.minigames.MiniGame;
 import com.lmweav.schoolquest.scripting.Script;
 import com.lmweav.schoolquest.utilities.BGMFader;
 import com.lmweav.schoolquest.utilities.GameTextView;
+import com.lmweav.schoolquest.utilities.HudDispatcher;
+import com.lmweav.schoolquest.utilities.Profiler;
+import com.lmweav.schoolquest.utilities.StartupGraph;
 import com.lmweav.schoolquest.items.ItemImageView;
 import com.lmweav.schoolquest.items.ItemRunnable;
 import com.lmweav.schoolquest.utilities.TextBoxRunnable;
@@ -69,6 +76,11 @@ public class GameActivity extends Activity {
     private static GameActivity instance = null;
 
     private boolean newGame;
+    private boolean gameDataLoaded;
+    private boolean resumed;
+    private int renderMode = DEFAULT_RENDER_MODE;
+
+    private HudDispatcher hudDispatcher;
     private String dataFile = "schoolQuest1.dat";
     private String playerName = "Player";
 
@@ -91,6 +103,10 @@ public class GameActivity extends Activity {
 
     public boolean isNewGame() { return newGame; }
 
+    public int getRenderMode() { return renderMode; }
+
+    public HudDispatcher getHudDispatcher() { return hudDispatcher; }
+
     public String getDataFile() { return dataFile; }
 
     public String getPlayerName() { return playerName; }
@@ -104,6 +120,8 @@ public class GameActivity extends Activity {
         super.onCreate(savedInstanceState);
 
         newGame = getIntent().getBooleanExtra("newGame", false);
+        renderMode = getIntent().getIntExtra("renderMode", DEFAULT_RENDER_MODE);
+        Profiler.setEnabled(getIntent().getBooleanExtra("profile", false));
         if (getIntent().getStringExtra("data") != null) { dataFile = getIntent().
                 getStringExtra("data"); }
         if (getIntent().getStringExtra("name") != null) { playerName = getIntent().
@@ -113,24 +131,22 @@ public class GameActivity extends Activity {
                 WindowManager.LayoutParams.FLAG_FULLSCREEN);
         this.requestWindowFeature(Window.FEATURE_NO_TITLE);
         setVolumeControlStream(AudioManager.STREAM_MUSIC);
+        setRequestedOrientation(ActivityInfo.SCREEN_ORIENTATION_PORTRAIT);
 
-        NPC.readNPCNames(this);
-        Item.readItems(this);
-        NPC.initialiseNPCData();
-        NPC.readNPCItems(this);
-        TileMap.loadMaps(this);
-        Emotion.loadEmotions(this);
-        Game.loadGradeImages(this);
-        Game.loadFriendImages(this);
-        Game.loadStatusImages(this);
-        Game.loadSFX(this);
-        Game.loadPaint(this);
+        loadGameData();
+    }
+
+    /*
+     * Sets up the game once its data has loaded. The scripts are loaded after the game view is
+     * created, as their actors include the player.
+     */
+    private void onGameDataLoaded() {
+        gameDataLoaded = true;
 
         setContentView(R.layout.activity_game);
         Script.loadScripts(this);
 
-        setRequestedOrientation(ActivityInfo.SCREEN_ORIENTATION_PORTRAIT);
-
+        hudDispatcher = new HudDispatcher(this);
         instance = this;
 
         setUpButtonsAndRunnables();
@@ -138,9 +154,117 @@ public class GameActivity extends Activity {
         disableCancelButton();
         showButtons();
         if (!newGame) { GAME.rateThis(this); }
+        if (resumed && !GAME.getBGM().isPlaying()) { GAME.getBGM().start(); }
+
+        if (getIntent().getBooleanExtra("benchmarkSave", false)) {
+            SaveCodec.benchmark(GAME, getApplicationContext());
+        }
     }
 
 
+    /*
+     * Loads the data the game view needs before it is created. The graph is run on a background
+     * thread, behind a loading bar that shows its progress, and the game is set up on the main
+     * thread once it has finished. An exception from a task is rethrown on the main thread.
+     */
+    private void loadGameData() {
+        final StartupGraph startup = new StartupGraph();
+
+        startup.add("names", new Runnable() {
+            @Override
+            public void run() { NPC.readNPCNames(GameActivity.this); }
+        });
+        startup.add("items", new Runnable() {
+            @Override
+            public void run() { Item.readItems(GameActivity.this); }
+        });
+        startup.add("npcData", new Runnable() {
+            @Override
+            public void run() { NPC.initialiseNPCData(); }
+        });
+        startup.add("npcItems", new Runnable() {
+            @Override
+            public void run() { NPC.readNPCItems(GameActivity.this); }
+        }, "items");
+        startup.add("maps", new Runnable() {
+            @Override
+            public void run() { TileMap.loadMaps(GameActivity.this); }
+        }, "names", "items", "npcData", "npcItems");
+        startup.add("emotions", new Runnable() {
+            @Override
+            public void run() { Emotion.loadEmotions(GameActivity.this); }
+        });
+        startup.add("gradeImages", new Runnable() {
+            @Override
+            public void run() { Game.loadGradeImages(GameActivity.this); }
+        });
+        startup.add("friendImages", new Runnable() {
+            @Override
+            public void run() { Game.loadFriendImages(GameActivity.this); }
+        });
+        startup.add("statusImages", new Runnable() {
+            @Override
+            public void run() { Game.loadStatusImages(GameActivity.this); }
+        });
+        startup.add("sfx", new Runnable() {
+            @Override
+            public void run() { Game.loadSFX(GameActivity.this); }
+        });
+        startup.add("paint", new Runnable() {
+            @Override
+            public void run() { Game.loadPaint(GameActivity.this); }
+        });
+
+        final ProgressBar progressBar = new ProgressBar(this, null,
+                android.R.attr.progressBarStyleHorizontal);
+        progressBar.setMax(STARTUP_PROGRESS_MAX);
+        FrameLayout.LayoutParams progressBarParams = new FrameLayout.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT,
+                Gravity.CENTER);
+        int margin = getResources().getDisplayMetrics().widthPixels / 8;
+        progressBarParams.setMargins(margin, 0, margin, 0);
+
+        FrameLayout loadingLayout = new FrameLayout(this);
+        loadingLayout.setBackgroundColor(Color.BLACK);
+        loadingLayout.addView(progressBar, progressBarParams);
+        setContentView(loadingLayout);
+
+        final Handler handler = new Handler();
+        final Runnable showProgress = new Runnable() {
+            @Override
+            public void run() {
+                progressBar.setProgress((int) (startup.getProgress() * STARTUP_PROGRESS_MAX));
+                handler.postDelayed(this, STARTUP_PROGRESS_INTERVAL);
+            }
+        };
+        handler.post(showProgress);
+
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    startup.run();
+                } catch (final RuntimeException | Error e) {
+                    handler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            handler.removeCallbacks(showProgress);
+                            throw e;
+                        }
+                    });
+                    return;
+                }
+                handler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        handler.removeCallbacks(showProgress);
+                        if (!isFinishing()) { onGameDataLoaded(); }
+                    }
+                });
+            }
+        }, "Startup").start();
+    }
+
     public boolean isGamePause() {
         ConstraintLayout statusMenu = findViewById(R.id.status_menu);
         ConstraintLayout mapMenu = findViewById(R.id.map_menu);
@@ -1304,6 +1428,32 @@ public class GameActivity extends Activity {
             }
         });
 
+        View.OnClickListener mapTravel = new View.OnClickListener() {
+            @Override
+            public void onClick(View view) {
+                mapMenuGround.bringToFront();
+                gameLayout.setAlpha(1f);
+                mapMenu.setVisibility(View.GONE);
+                if (GAME.travelTo((Integer) view.getTag())) { GAME.playSFX(SFX_MOVE); }
+                else { GAME.playSFX(SFX_CLICK); }
+            }
+        };
+        int[][] mapTexts = {
+                { R.id.map_menu_ground_hall_text, MAP_SCHOOL_HALL_G_ID },
+                { R.id.map_menu_1floor_hall_text, MAP_SCHOOL_HALL_1F_ID },
+                { R.id.map_menu_ground_dt_text, MAP_SCHOOL_CLASSROOM_DT_ID },
+                { R.id.map_menu_ground_ft_text, MAP_SCHOOL_CLASSROOM_FT_ID },
+                { R.id.map_menu_1floor_classroom_text, MAP_SCHOOL_CLASSROOM_1F_ID },
+                { R.id.map_menu_ground_canteen_text, MAP_SCHOOL_CANTEEN_ID },
+                { R.id.map_menu_ground_yard_text, MAP_SCHOOL_YARD_ID },
+                { R.id.map_menu_1floor_staffroom_text, MAP_SCHOOL_STAFFROOM_ID },
+                { R.id.map_menu_ground_shop_text, MAP_SCHOOL_SHOP_ID } };
+        for (int[] mapText : mapTexts) {
+            View text = findViewById(mapText[0]);
+            text.setTag(mapText[1]);
+            text.setOnClickListener(mapTravel);
+        }
+
         defaultTextBoxRunnable = new Runnable() {
             @Override
             public void run() {
@@ -1366,6 +1516,7 @@ public class GameActivity extends Activity {
             @Override
             public void onClick(View v) {
                 GAME.playSFX(SFX_CLICK);
+                GAME.cancelRoute();
                 GAME.getPlayer().cancelMovement();
             }
         });
@@ -1588,6 +1739,8 @@ public class GameActivity extends Activity {
         heistButton.setEnabled(false);
         quitButton.setAlpha(0.5f);
         quitButton.setEnabled(false);
+
+        hudDispatcher.setPublished(HUD_STATE_BUTTONS_DISABLED);
     }
 
     public void enableButtons() {
@@ -1610,6 +1763,8 @@ public class GameActivity extends Activity {
         heistButton.setEnabled(true);
         quitButton.setAlpha(1f);
         quitButton.setEnabled(true);
+
+        hudDispatcher.setPublished(HUD_STATE_BUTTONS_ENABLED);
     }
 
     public void disableLessonCButtons() {
@@ -1659,6 +1814,8 @@ public class GameActivity extends Activity {
         lessonCBookIcon.setAlpha(0.5f);
         lessonCBookText.setAlpha(0.5f);
         lessonCMapText.setAlpha(0.5f);
+
+        hudDispatcher.setPublished(HUD_STATE_LESSON_C_DISABLED);
     }
 
     public void enableLessonCButtons() {
@@ -1707,6 +1864,8 @@ public class GameActivity extends Activity {
                 ((LessonC) miniGame).setButtons();
             }
         }
+
+        hudDispatcher.setPublished(HUD_STATE_LESSON_C_ENABLED);
     }
 
     public void disableSkipButton() {
@@ -3567,6 +3726,10 @@ public class GameActivity extends Activity {
 
     @Override
     public void onBackPressed() {
+        if (!gameDataLoaded) {
+            super.onBackPressed();
+            return;
+        }
         if (findViewById(R.id.status_menu_friends_info).getVisibility() == View.VISIBLE) {
             findViewById(R.id.status_menu_friends_info).callOnClick();
         } else if (findViewById(R.id.status_menu_grades_info).getVisibility() == View.VISIBLE) {
@@ -3597,17 +3760,22 @@ public class GameActivity extends Activity {
     @Override
     public void onPause() {
         super.onPause();
+        resumed = false;
+        if (!gameDataLoaded) { return; }
         GAME.getBGM().pause();
         GAME.getJingle().pause();
         if (GAME.getMiniGame() == null && GAME.getScript() == null&& GAME.getTime() != TIME_HEIST_PHASE_2 && !isGamePause()) {
             GAME.save();
         }
         if (TitleActivity.getInstance() != null) { TitleActivity.getInstance().reset(); }
+        Profiler.dumpTrace(getApplicationContext());
     }
 
     @Override
     public void onResume() {
         super.onResume();
+        resumed = true;
+        if (!gameDataLoaded) { return; }
         if (!GAME.getBGM().isPlaying()) { GAME.getBGM().start(); }
     }
 }
@@ -1,14 +1,18 @@
 package com.lmweav.schoolquest;
 
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.Serializable;
 
 /*
  * School Quest: GameProgressDataStructure
  * This class holds all data relating to event triggers in the game.
  *
- * Methods in this class are predominantly getters and setters. The Serializable interface is
- * implemented to allow this data to read when loading a game save.
+ * Methods in this class are predominantly getters and setters. The data is written to a game save
+ * by write and read back by read (see SaveCodec). The Serializable interface is implemented to
+ * allow this data to be read from saves made before that format.
  *
  * @author Luke Weaver
  * @version 1.0.9
@@ -93,6 +97,40 @@ public class GameProgressDataStructure implements Serializable {
     | Methods
     ----------------------------------------------------------------------------------------------*/
 
+    static GameProgressDataStructure read(DataInputStream in, int version) throws IOException {
+        GameProgressDataStructure data = new GameProgressDataStructure();
+        data.hasHeistPlan = in.readBoolean();
+        data.startedHeist = in.readBoolean();
+        data.enteredStaffRoom = in.readBoolean();
+        data.hackedPC = in.readBoolean();
+        data.wonHeist = in.readBoolean();
+        data.lostHeist = in.readBoolean();
+        data.catchNPCInteraction = in.readBoolean();
+        data.catchInteractiveTile = in.readBoolean();
+        data.timeBeforeHeist = in.readInt();
+        data.catchNPCInteractionText = SaveCodec.readString(in);
+        data.catchInteractiveTileText = SaveCodec.readString(in);
+        for (int i = 0; i < data.madeCraft.length; i++) { data.madeCraft[i] = in.readBoolean(); }
+        for (int i = 0; i < data.madeSnack.length; i++) { data.madeSnack[i] = in.readBoolean(); }
+        return data;
+    }
+
+    void write(DataOutputStream out) throws IOException {
+        out.writeBoolean(hasHeistPlan);
+        out.writeBoolean(startedHeist);
+        out.writeBoolean(enteredStaffRoom);
+        out.writeBoolean(hackedPC);
+        out.writeBoolean(wonHeist);
+        out.writeBoolean(lostHeist);
+        out.writeBoolean(catchNPCInteraction);
+        out.writeBoolean(catchInteractiveTile);
+        out.writeInt(timeBeforeHeist);
+        SaveCodec.writeString(out, catchNPCInteractionText);
+        SaveCodec.writeString(out, catchInteractiveTileText);
+        for (boolean made : madeCraft) { out.writeBoolean(made); }
+        for (boolean made : madeSnack) { out.writeBoolean(made); }
+    }
+
     void NGPlus() {
         hasHeistPlan = false;
         startedHeist = false;
@@ -1,25 +1,43 @@
 package com.lmweav.schoolquest;
 
 import android.graphics.Canvas;
+import android.os.Build;
+import android.os.Looper;
+import android.view.Choreographer;
 import android.view.SurfaceHolder;
 
-import static com.lmweav.schoolquest.Constants.TARGET_FPS;
+import static com.lmweav.schoolquest.Constants.*;
+import static com.lmweav.schoolquest.Game.GAME;
 
 /*
  * School Quest: GameThread
  * This class is the thread that runs the game logic and rendering of the game view (separate
  * from UI), as well as controlling the frame rate.
  *
+ * There are two loop modes (see LOOP_MODE). The variable loop updates and renders once per frame
+ * at TARGET_FPS. The fixed loop runs the game logic at a fixed TARGET_FPS ticks from an
+ * accumulator, and renders at up to RENDER_FPS, interpolating positions between ticks. After a
+ * slow frame, at most MAX_CATCH_UP_TICKS ticks are run and the rest of the backlog is dropped.
+ *
+ * In the surface render mode (see GameView.getRenderMode) the thread runs a looper instead, and
+ * is woken by Choreographer on every vsync. Each frame runs the fixed ticks that are due and then
+ * draws the game straight into the locked surface canvas, so nothing is drawn on the UI thread.
+ *
  * @author Luke Weaver
  * @version 1.0.9
  * @since 2019-10-16
  */
-public class GameThread extends Thread {
+public class GameThread extends Thread implements Choreographer.FrameCallback {
 
     private final SurfaceHolder surfaceHolder;
     private GameView gameView;
 
-    private boolean running;
+    private volatile boolean running;
+
+    private Looper looper;
+
+    private long previousFrameTime;
+    private long frameAccumulator;
 
 
     /*---------------------------------------------------------------------------------------------
@@ -37,7 +55,10 @@ public class GameThread extends Thread {
     | Getters and Setters
     ----------------------------------------------------------------------------------------------*/
 
-    void setRunning(boolean running) { this.running = running; }
+    synchronized void setRunning(boolean running) {
+        this.running = running;
+        if (!running && looper != null) { looper.quit(); }
+    }
 
     /*---------------------------------------------------------------------------------------------
     | Methods
@@ -45,6 +66,12 @@ public class GameThread extends Thread {
 
     @Override
     public void run() {
+        if (gameView.getRenderMode() == RENDER_MODE_SURFACE) { runChoreographed(); }
+        else if (LOOP_MODE == LOOP_MODE_FIXED) { runFixed(); }
+        else { runVariable(); }
+    }
+
+    private void runVariable() {
         long startTime;
         long timeMillis;
         long waitTime;
@@ -82,4 +109,104 @@ public class GameThread extends Thread {
             }
         }
     }
+
+    private void runFixed() {
+        long tickTime = 1000000000L / TARGET_FPS;
+        long frameTime = 1000000000L / RENDER_FPS;
+        long previousTime = System.nanoTime();
+        long accumulator = 0;
+
+        while (running) {
+            long startTime = System.nanoTime();
+            accumulator += startTime - previousTime;
+            previousTime = startTime;
+
+            int ticks = 0;
+            while (accumulator >= tickTime && ticks < MAX_CATCH_UP_TICKS) {
+                tick();
+                accumulator -= tickTime;
+                ticks++;
+            }
+            if (accumulator >= tickTime) { accumulator %= tickTime; }
+
+            GAME.setInterpolation((float) accumulator / tickTime);
+            gameView.postInvalidate();
+
+            long waitTime = (frameTime - (System.nanoTime() - startTime)) / 1000000;
+            try {
+                if (waitTime > 0) { sleep(waitTime); }
+            } catch (Exception e) {
+                //Ignore
+            }
+        }
+        GAME.setInterpolation(1);
+    }
+
+    private void runChoreographed() {
+        Looper.prepare();
+        synchronized (this) {
+            if (!running) { return; }
+            looper = Looper.myLooper();
+        }
+
+        previousFrameTime = System.nanoTime();
+        frameAccumulator = 0;
+        Choreographer.getInstance().postFrameCallback(this);
+        Looper.loop();
+
+        synchronized (this) { looper = null; }
+        GAME.setInterpolation(1);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!running) { return; }
+
+        long tickTime = 1000000000L / TARGET_FPS;
+        frameAccumulator += Math.max(0, frameTimeNanos - previousFrameTime);
+        previousFrameTime = frameTimeNanos;
+
+        int ticks = 0;
+        while (frameAccumulator >= tickTime && ticks < MAX_CATCH_UP_TICKS) {
+            tick();
+            frameAccumulator -= tickTime;
+            ticks++;
+        }
+        if (frameAccumulator >= tickTime) { frameAccumulator %= tickTime; }
+
+        GAME.setInterpolation((float) frameAccumulator / tickTime);
+
+        Canvas canvas = null;
+        try {
+            canvas = Build.VERSION.SDK_INT >= Build.VERSION_CODES.O ?
+                    surfaceHolder.lockHardwareCanvas() : surfaceHolder.lockCanvas();
+            if (canvas != null) {
+                synchronized (surfaceHolder) { gameView.render(canvas); }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            if (canvas != null) {
+                try {
+                    surfaceHolder.unlockCanvasAndPost(canvas);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        if (running) { Choreographer.getInstance().postFrameCallback(this); }
+    }
+
+    /*
+     * Runs one tick of game logic. Nothing is drawn here, so the surface is not locked; the game
+     * is drawn by the view when it is invalidated.
+     */
+    private void tick() {
+        try {
+            synchronized (surfaceHolder) { gameView.update(); }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
 }
@@ -2,6 +2,7 @@ package com.lmweav.schoolquest;
 
 import android.content.Context;
 import android.graphics.Canvas;
+import android.graphics.Color;
 import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.Point;
@@ -14,8 +15,9 @@ import com.lmweav.schoolquest.characters.GameCharacter;
 import com.lmweav.schoolquest.characters.NPC;
 import com.lmweav.schoolquest.minigames.LessonC;
 import com.lmweav.schoolquest.minigames.MiniGame;
+import com.lmweav.schoolquest.utilities.HudDispatcher;
+import com.lmweav.schoolquest.utilities.Profiler;
 import com.lmweav.schoolquest.utilities.TextBoxStructure;
-import com.lmweav.schoolquest.utilities.pathfinding.AStarPathFinder;
 import com.lmweav.schoolquest.utilities.pathfinding.Path;
 
 import static com.lmweav.schoolquest.Game.*;
@@ -28,6 +30,11 @@ import static com.lmweav.schoolquest.Constants.*;
  *
  * Methods in this class handle the surface by implementing the SurfaceHolder.Callback interface.
  * A thread is started on creation of the view, which calls the game's update and draw methods.
+ * By default the thread invalidates the view and the game is drawn in onDraw. In the surface
+ * render mode (chosen at startup, see GameActivity.getRenderMode) the thread draws straight into
+ * the surface instead, and onDraw is skipped.
+ *
+ * When profiling, a three finger tap toggles the profiler overlay.
  *
  * @author Luke Weaver
  * @version 1.0.9
@@ -41,6 +48,8 @@ public class GameView extends SurfaceView implements SurfaceHolder.Callback {
 
     private Paint paint;
 
+    private int renderMode;
+
 
     /*---------------------------------------------------------------------------------------------
     | Constructors
@@ -62,6 +71,8 @@ public class GameView extends SurfaceView implements SurfaceHolder.Callback {
         }
         else { GAME.load(context.getApplicationContext(), (GameActivity) context); }
 
+        renderMode = ((GameActivity) context).getRenderMode();
+
         paint = new Paint();
     }
 
@@ -81,70 +92,83 @@ public class GameView extends SurfaceView implements SurfaceHolder.Callback {
         }
         else { GAME.load(context.getApplicationContext(), (GameActivity) context); }
 
+        renderMode = ((GameActivity) context).getRenderMode();
+
         paint = new Paint();
     }
 
 
+    /*---------------------------------------------------------------------------------------------
+    | Getters and Setters
+    ----------------------------------------------------------------------------------------------*/
+
+    int getRenderMode() { return renderMode; }
+
     /*---------------------------------------------------------------------------------------------
     | Methods
     ----------------------------------------------------------------------------------------------*/
 
     public void update() {
+        Profiler.begin(Profiler.PHASE_UPDATE);
         GAME.update();
+        GAME.publishRenderSnapshot();
+        Profiler.end(Profiler.PHASE_UPDATE);
         MiniGame miniGame = GAME.getMiniGame();
+        HudDispatcher hudDispatcher = GameActivity.getInstance().getHudDispatcher();
 
         if (GAME.getPlayer().isMoving() || GameActivity.getInstance().isGamePause()
                 || GAME.isPlayerSpottedByNPC()) {
             if (miniGame == null) {
-                GameActivity.getInstance().runOnUiThread(new Runnable() {
-                    @Override
-                    public void run() {
-                        GameActivity.getInstance().disableButtons();
-                    }
-                });
+                hudDispatcher.request(HUD_STATE_BUTTONS_DISABLED);
             } else {
                 if (miniGame instanceof LessonC && !((LessonC) miniGame).isHelp()) {
-                    GameActivity.getInstance().runOnUiThread(new Runnable() {
-                        @Override
-                        public void run() {
-                            GameActivity.getInstance().disableLessonCButtons();
-                        }
-                    });
+                    hudDispatcher.request(HUD_STATE_LESSON_C_DISABLED);
                 }
             }
 
         } else {
             if (GAME.getMiniGame() == null) {
-                GameActivity.getInstance().runOnUiThread(new Runnable() {
-                    @Override
-                    public void run() {
-                        GameActivity.getInstance().enableButtons();
-                    }
-                });
+                hudDispatcher.request(HUD_STATE_BUTTONS_ENABLED);
             } else {
-                GameActivity.getInstance().runOnUiThread(new Runnable() {
-                    @Override
-                    public void run() {
-                        GameActivity.getInstance().enableLessonCButtons();
-                    }
-                });
+                hudDispatcher.request(HUD_STATE_LESSON_C_ENABLED);
             }
         }
+        hudDispatcher.flush();
     }
 
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
-        if (canvas != null) {
-            translationMatrix.setTranslate(HORIZONTAL_OFFSET, VERTICAL_OFFSET);
-            canvas.concat(translationMatrix);
-            GAME.draw(canvas, paint);
-        }
+        if (canvas != null && renderMode == RENDER_MODE_INVALIDATE) { render(canvas); }
+    }
+
+    /*
+     * Draws the game into a canvas, either the view's in onDraw or the surface's own buffer. The
+     * surface keeps its last frame, so it is cleared first.
+     */
+    void render(Canvas canvas) {
+        if (renderMode == RENDER_MODE_SURFACE) { canvas.drawColor(Color.BLACK); }
+        Profiler.begin(Profiler.PHASE_DRAW);
+        canvas.save();
+        translationMatrix.setTranslate(HORIZONTAL_OFFSET, VERTICAL_OFFSET);
+        canvas.concat(translationMatrix);
+        GAME.draw(canvas, paint);
+        canvas.restore();
+        Profiler.end(Profiler.PHASE_DRAW);
+
+        Profiler.endFrame();
+        Profiler.drawOverlay(canvas);
     }
 
     @Override
     public boolean onTouchEvent(MotionEvent event) {
 
+        if (Profiler.isEnabled() && event.getActionMasked() == MotionEvent.ACTION_POINTER_DOWN
+                && event.getPointerCount() == 3) {
+            Profiler.toggleOverlay();
+            return true;
+        }
+
         if (GAME.getScript() != null || GAME.getLoading() || GAME.isPlayerSpottedByNPC()) {
             return false;
         }
@@ -163,15 +187,14 @@ public class GameView extends SurfaceView implements SurfaceHolder.Callback {
 
             if (GAME.getWaitingChar() != null) { GAME.getWaitingChar().setWillWait(false); }
             GAME.setWaitingChar(null);
+            GAME.cancelRoute();
 
 
             if (GAME.getPlayer().getPath() == null) {
                 Point logicalPoint = GAME.convertToLogical((endX - HORIZONTAL_OFFSET),
                         endY - VERTICAL_OFFSET);
-                AStarPathFinder pathFinder =
-                        new AStarPathFinder(GAME.getTileMap(), 30);
-                Path path = pathFinder.findPath(GAME.getPlayer().getX(), GAME.getPlayer().getY(),
-                        logicalPoint.x, logicalPoint.y);
+                Path path = GAME.getTileMap().getPathFinder().findPath(GAME.getPlayer().getX(),
+                        GAME.getPlayer().getY(), logicalPoint.x, logicalPoint.y);
 
                 if (path != null) {
                     if (GAME.isGameCharacterInMap(logicalPoint.x, logicalPoint.y)) {
@@ -0,0 +1,449 @@
+package com.lmweav.schoolquest;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.lmweav.schoolquest.characters.NPC;
+import com.lmweav.schoolquest.controllers.Controller;
+import com.lmweav.schoolquest.controllers.Patrol;
+import com.lmweav.schoolquest.controllers.RandomMovement;
+import com.lmweav.schoolquest.utilities.SerializablePoint;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Locale;
+
+/*
+ * School Quest: SaveCodec
+ * This class reads and writes game saves.
+ *
+ * A save holds only the state a game is rebuilt from when it is loaded: the scores, the ids of the
+ * inventory items, the progress flags, and the positions of the player and the NPCs on the
+ * current map. It starts with a summary (the player's name, the day, the time and whether it is a
+ * new game plus), so the title screen can show a save without reading the rest. Music is saved by
+ * resource name, since resource ids can change between builds.
+ *
+ * Each reader is given the version the save was written in. When the format changes, VERSION is
+ * bumped, the new state is only read from saves of the new version, and migrate fills it in for
+ * saves of older versions. Saves from before this format hold the serialized Game. They count as
+ * version 0, and are read as before and then converted (see Game.getSaveData).
+ *
+ * There are 2 support classes declared here: SaveDataStructure - which holds the state read from
+ * a save, and NPCSaveDataStructure - which holds the state of one NPC.
+ *
+ * @author Luke Weaver
+ * @version 1.0.9
+ * @since 2019-10-16
+ */
+public class SaveCodec {
+
+    private static final String TAG = "SaveCodec";
+
+    private static final int MAGIC = 0x53515356;
+    private static final int LEGACY_VERSION = 0;
+    private static final int VERSION = 1;
+
+    private static final int CONTROLLER_NONE = 0;
+    private static final int CONTROLLER_RANDOM = 1;
+    private static final int CONTROLLER_PATROL = 2;
+
+    /*---------------------------------------------------------------------------------------------
+    | Constructors
+    ----------------------------------------------------------------------------------------------*/
+
+    private SaveCodec() { }
+
+    /*---------------------------------------------------------------------------------------------
+    | Methods
+    ----------------------------------------------------------------------------------------------*/
+
+    static SaveDataStructure read(InputStream input, Context context)
+            throws IOException, ClassNotFoundException {
+        return read(input, context, false);
+    }
+
+    /*
+     * Only the summary fields of the result are set, unless the save is a serialized one.
+     */
+    static SaveDataStructure readSummary(InputStream input)
+            throws IOException, ClassNotFoundException {
+        return read(input, null, true);
+    }
+
+    private static SaveDataStructure read(InputStream input, Context context,
+                                          boolean summaryOnly)
+            throws IOException, ClassNotFoundException {
+        BufferedInputStream bufferedInput = new BufferedInputStream(input);
+        bufferedInput.mark(4);
+        DataInputStream in = new DataInputStream(bufferedInput);
+
+        SaveDataStructure data;
+        if (in.readInt() != MAGIC) {
+            bufferedInput.reset();
+            ObjectInputStream objectInput = new ObjectInputStream(bufferedInput);
+            data = ((Game) objectInput.readObject()).getSaveData();
+            migrate(data, LEGACY_VERSION);
+            return data;
+        }
+
+        int version = in.readUnsignedShort();
+        if (version > VERSION) { throw new IOException("Save is from a later version " + version); }
+
+        data = new SaveDataStructure();
+        readSummary(in, data);
+        if (!summaryOnly) { readState(in, version, data, context); }
+        if (version < VERSION) { migrate(data, version); }
+        return data;
+    }
+
+    private static void readSummary(DataInputStream in, SaveDataStructure data)
+            throws IOException {
+        data.playerName = in.readUTF();
+        data.day = in.readInt();
+        data.time = in.readInt();
+        data.NGPlus = in.readBoolean();
+    }
+
+    private static void readState(DataInputStream in, int version, SaveDataStructure data,
+                                  Context context) throws IOException {
+        data.rated = in.readBoolean();
+        data.points = in.readInt();
+        data.gradePoints = in.readInt();
+        data.friendPoints = in.readInt();
+        data.heistPoints = in.readInt();
+        data.averageGP = in.readInt();
+        data.averageFP = in.readInt();
+        data.sumGP = in.readFloat();
+        data.sumFP = in.readFloat();
+        data.money = in.readInt();
+        data.gfIndex = in.readInt();
+        data.mapId = in.readInt();
+
+        String eventBGM = in.readUTF();
+        if (!eventBGM.isEmpty()) {
+            int id = context.getResources().getIdentifier(eventBGM, "raw",
+                    context.getPackageName());
+            data.eventBGM = id == 0 ? -1 : id;
+        }
+
+        readScores(in, data.gradeScores);
+        readScores(in, data.friendScores);
+        readScores(in, data.examScores);
+        readScores(in, data.daysSince);
+
+        readIds(in, data.npcsGivenTo);
+        readIds(in, data.npcsSpokenTo);
+
+        int pointChangeCount = in.readInt();
+        for (int i = 0; i < pointChangeCount; i++) {
+            data.pointChanges.add(new int[] { in.readInt(), in.readInt(), in.readInt() });
+        }
+
+        int itemCount = in.readUnsignedShort();
+        for (int i = 0; i < itemCount; i++) {
+            data.inventory.add(new int[] { in.readUnsignedShort(), in.readInt() });
+        }
+
+        data.progressDataStructure = GameProgressDataStructure.read(in, version);
+
+        data.playerX = in.readShort();
+        data.playerY = in.readShort();
+        data.playerDirection = in.readByte();
+        data.playerSpeed = in.readByte();
+        data.playerCondition = in.readByte();
+        data.playerEaten = in.readBoolean();
+        data.playerBuffs[0] = in.readByte();
+        data.playerBuffs[1] = in.readByte();
+
+        int npcCount = in.readUnsignedShort();
+        for (int i = 0; i < npcCount; i++) {
+            NPCSaveDataStructure npc = new NPCSaveDataStructure();
+            npc.code = in.readUTF();
+            npc.name = readString(in);
+            npc.x = in.readShort();
+            npc.y = in.readShort();
+            npc.direction = in.readByte();
+            npc.defaultDirection = in.readByte();
+            npc.hostile = in.readBoolean();
+            npc.ctrl = readController(in);
+            data.npcs.add(npc);
+        }
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void readScores(DataInputStream in, int[] scores) throws IOException {
+        int count = in.readUnsignedByte();
+        for (int i = 0; i < count; i++) {
+            int score = in.readInt();
+            if (i < scores.length) { scores[i] = score; }
+        }
+    }
+
+    private static void readIds(DataInputStream in, ArrayList<Integer> ids) throws IOException {
+        int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) { ids.add(in.readInt()); }
+    }
+
+    private static Controller readController(DataInputStream in) throws IOException {
+        switch (in.readUnsignedByte()) {
+            case CONTROLLER_RANDOM:
+                return new RandomMovement(in.readBoolean());
+            case CONTROLLER_PATROL:
+                SerializablePoint[] points = new SerializablePoint[in.readUnsignedShort()];
+                for (int i = 0; i < points.length; i++) {
+                    points[i] = new SerializablePoint(in.readShort(), in.readShort());
+                }
+                Patrol patrol = new Patrol(points);
+                patrol.setProgress(in.readUnsignedShort(), in.readDouble());
+                return patrol;
+            default:
+                return null;
+        }
+    }
+
+    /*
+     * Fills in the state that a save of an older version does not hold. When the format changes, a
+     * case is added for the version before the change, and the cases fall through so a save is
+     * brought up to date one version at a time.
+     */
+    private static void migrate(SaveDataStructure data, int version) {
+        switch (version) {
+            case LEGACY_VERSION:
+                // A serialized save holds all of the state in version 1
+        }
+    }
+
+    static void write(SaveDataStructure data, OutputStream output, Context context)
+            throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+
+        out.writeUTF(data.playerName);
+        out.writeInt(data.day);
+        out.writeInt(data.time);
+        out.writeBoolean(data.NGPlus);
+
+        out.writeBoolean(data.rated);
+        out.writeInt(data.points);
+        out.writeInt(data.gradePoints);
+        out.writeInt(data.friendPoints);
+        out.writeInt(data.heistPoints);
+        out.writeInt(data.averageGP);
+        out.writeInt(data.averageFP);
+        out.writeFloat(data.sumGP);
+        out.writeFloat(data.sumFP);
+        out.writeInt(data.money);
+        out.writeInt(data.gfIndex);
+        out.writeInt(data.mapId);
+        out.writeUTF(data.eventBGM > -1 ?
+                context.getResources().getResourceEntryName(data.eventBGM) : "");
+
+        writeScores(out, data.gradeScores);
+        writeScores(out, data.friendScores);
+        writeScores(out, data.examScores);
+        writeScores(out, data.daysSince);
+
+        writeIds(out, data.npcsGivenTo);
+        writeIds(out, data.npcsSpokenTo);
+
+        out.writeInt(data.pointChanges.size());
+        for (int[] pointChange : data.pointChanges) {
+            for (int value : pointChange) { out.writeInt(value); }
+        }
+
+        out.writeShort(data.inventory.size());
+        for (int[] item : data.inventory) {
+            out.writeShort(item[0]);
+            out.writeInt(item[1]);
+        }
+
+        data.progressDataStructure.write(out);
+
+        out.writeShort(data.playerX);
+        out.writeShort(data.playerY);
+        out.writeByte(data.playerDirection);
+        out.writeByte(data.playerSpeed);
+        out.writeByte(data.playerCondition);
+        out.writeBoolean(data.playerEaten);
+        out.writeByte(data.playerBuffs[0]);
+        out.writeByte(data.playerBuffs[1]);
+
+        out.writeShort(data.npcs.size());
+        for (NPCSaveDataStructure npc : data.npcs) {
+            out.writeUTF(npc.code);
+            writeString(out, npc.name);
+            out.writeShort(npc.x);
+            out.writeShort(npc.y);
+            out.writeByte(npc.direction);
+            out.writeByte(npc.defaultDirection);
+            out.writeBoolean(npc.hostile);
+            writeController(out, npc.ctrl);
+        }
+
+        out.flush();
+    }
+
+    static void writeString(DataOutputStream out, String string) throws IOException {
+        out.writeBoolean(string != null);
+        if (string != null) { out.writeUTF(string); }
+    }
+
+    private static void writeScores(DataOutputStream out, int[] scores) throws IOException {
+        out.writeByte(scores.length);
+        for (int score : scores) { out.writeInt(score); }
+    }
+
+    private static void writeIds(DataOutputStream out, ArrayList<Integer> ids) throws IOException {
+        out.writeShort(ids.size());
+        for (int id : ids) { out.writeInt(id); }
+    }
+
+    private static void writeController(DataOutputStream out, Controller ctrl)
+            throws IOException {
+        if (ctrl instanceof RandomMovement) {
+            out.writeByte(CONTROLLER_RANDOM);
+            out.writeBoolean(((RandomMovement) ctrl).isStopping());
+        } else if (ctrl instanceof Patrol) {
+            Patrol patrol = (Patrol) ctrl;
+            SerializablePoint[] points = patrol.getPoints();
+            out.writeByte(CONTROLLER_PATROL);
+            out.writeShort(points.length);
+            for (SerializablePoint point : points) {
+                out.writeShort(point.x);
+                out.writeShort(point.y);
+            }
+            out.writeShort(patrol.getIndex());
+            out.writeDouble(patrol.getStep());
+        } else {
+            out.writeByte(CONTROLLER_NONE);
+        }
+    }
+
+    /*
+     * Logs the size of the game saved in this format and as the serialized Game it replaced, and
+     * the time taken to write and read each. It is a developer action, run once when the game is
+     * started with the "benchmarkSave" intent extra, rather than on every save.
+     */
+    static void benchmark(Game game, Context context) {
+        try {
+            long startTime = System.nanoTime();
+            ByteArrayOutputStream binary = new ByteArrayOutputStream();
+            write(game.getSaveData(), binary, context);
+            long binaryWrite = System.nanoTime() - startTime;
+
+            startTime = System.nanoTime();
+            read(new ByteArrayInputStream(binary.toByteArray()), context);
+            long binaryRead = System.nanoTime() - startTime;
+
+            startTime = System.nanoTime();
+            ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+            ObjectOutputStream objectOutput = new ObjectOutputStream(serialized);
+            objectOutput.writeObject(game);
+            objectOutput.close();
+            long serializedWrite = System.nanoTime() - startTime;
+
+            startTime = System.nanoTime();
+            new ObjectInputStream(new ByteArrayInputStream(serialized.toByteArray())).readObject();
+            long serializedRead = System.nanoTime() - startTime;
+
+            Log.i(TAG, String.format(Locale.UK, "binary: %d bytes, write %.2f ms, read %.2f ms",
+                    binary.size(), binaryWrite / 1000000f, binaryRead / 1000000f));
+            Log.i(TAG, String.format(Locale.UK,
+                    "serialized: %d bytes, write %.2f ms, read %.2f ms", serialized.size(),
+                    serializedWrite / 1000000f, serializedRead / 1000000f));
+        } catch (IOException | ClassNotFoundException e) {
+            e.printStackTrace();
+        }
+    }
+
+}
+
+class SaveDataStructure {
+
+    String playerName;
+    int day;
+    int time;
+    boolean NGPlus;
+
+    boolean rated;
+    int points;
+    int gradePoints;
+    int friendPoints;
+    int heistPoints;
+    int averageGP;
+    int averageFP;
+    float sumGP;
+    float sumFP;
+    int money;
+    int gfIndex;
+    int mapId;
+    int eventBGM = -1;
+
+    final int[] gradeScores = new int[5];
+    final int[] friendScores = new int[5];
+    final int[] examScores = new int[5];
+    final int[] daysSince = new int[5];
+
+    final ArrayList<Integer> npcsGivenTo = new ArrayList<>();
+    final ArrayList<Integer> npcsSpokenTo = new ArrayList<>();
+    final ArrayList<int[]> pointChanges = new ArrayList<>();
+    final ArrayList<int[]> inventory = new ArrayList<>();
+
+    GameProgressDataStructure progressDataStructure;
+
+    int playerX;
+    int playerY;
+    int playerDirection;
+    int playerSpeed;
+    int playerCondition;
+    boolean playerEaten;
+    final int[] playerBuffs = new int[] { -1, -1 };
+
+    final ArrayList<NPCSaveDataStructure> npcs = new ArrayList<>();
+
+}
+
+class NPCSaveDataStructure {
+
+    String code;
+    String name;
+    int x;
+    int y;
+    int direction;
+    int defaultDirection;
+    boolean hostile;
+    Controller ctrl;
+
+    /*---------------------------------------------------------------------------------------------
+    | Constructors
+    ----------------------------------------------------------------------------------------------*/
+
+    NPCSaveDataStructure() { }
+
+    NPCSaveDataStructure(NPC npc) {
+        code = npc.getCode();
+        name = npc.getName();
+        x = npc.getX();
+        y = npc.getY();
+        direction = npc.getDirection();
+        defaultDirection = npc.getDefaultDirection();
+        hostile = npc.isHostile();
+        ctrl = npc.getController();
+    }
+
+}
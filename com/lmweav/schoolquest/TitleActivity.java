@@ -38,7 +38,6 @@ import com.lmweav.schoolquest.utilities.billing.BillingManager;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -321,24 +320,22 @@ public class TitleActivity extends Activity {
 
     public void setDataInfo(GameTextView dataText, GameTextView dataSubText, GameTextView NGPlus,
                             String fileName, String fileNumber) {
-        Game data;
+        SaveDataStructure data;
 
         try {
             FileInputStream saveData = openFileInput(fileName);
-            ObjectInputStream in = new ObjectInputStream(saveData);
-            data = (Game) in.readObject();
-            in.close();
+            data = SaveCodec.readSummary(saveData);
             saveData.close();
 
-            String time = Game.getTimeKey(data.getTime());
+            String time = Game.getTimeKey(data.time);
             time = time.substring(0,1).toUpperCase() + time.substring(1);
 
-            String data1Name = fileNumber + data.getPlayer().getName();
-            int days = (Constants.NUMBER_OF_DAYS - data.getDay());
+            String data1Name = fileNumber + data.playerName;
+            int days = (Constants.NUMBER_OF_DAYS - data.day);
             if (days < 0) { days = 0; }
             String data1Info = (days + " days/" + time);
 
-            if (data.isNGPlus()) { NGPlus.setVisibility(View.VISIBLE);}
+            if (data.NGPlus) { NGPlus.setVisibility(View.VISIBLE);}
             else { NGPlus.setVisibility(View.GONE); }
 
             dataText.setText(data1Name);
@@ -0,0 +1,173 @@
+package com.lmweav.schoolquest.characters;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.lmweav.schoolquest.Constants.*;
+
+/*
+ * School Quest: CharacterIndex
+ * This class is the spatial index of the game characters on the current map.
+ *
+ * It holds the character occupying each tile, as the old character matrix did, and also buckets
+ * the characters into square cells of CHARACTER_INDEX_CELL_SIZE tiles. Range queries only visit
+ * the cells that overlap the range. Characters are moved between cells as they step from tile to
+ * tile (see occupy), or when they are placed directly (see relocate).
+ *
+ * Query results are in the order the characters were inserted, which is the order they are drawn
+ * in.
+ *
+ * @author Luke Weaver
+ * @version 1.0.9
+ * @since 2019-10-16
+ */
+public class CharacterIndex {
+
+    private final int rows;
+    private final int cols;
+    private final int cellRows;
+    private final int cellCols;
+
+    private final GameCharacter[] occupants;
+    private final GameCharacter[][] cells;
+    private final int[] cellSizes;
+
+    private int order;
+
+    /*---------------------------------------------------------------------------------------------
+    | Constructors
+    ----------------------------------------------------------------------------------------------*/
+
+    public CharacterIndex(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        cellRows = (rows + CHARACTER_INDEX_CELL_SIZE - 1) / CHARACTER_INDEX_CELL_SIZE;
+        cellCols = (cols + CHARACTER_INDEX_CELL_SIZE - 1) / CHARACTER_INDEX_CELL_SIZE;
+
+        occupants = new GameCharacter[rows * cols];
+        cells = new GameCharacter[cellRows * cellCols][];
+        cellSizes = new int[cellRows * cellCols];
+    }
+
+    /*---------------------------------------------------------------------------------------------
+    | Getters and Setters
+    ----------------------------------------------------------------------------------------------*/
+
+    private boolean isInBounds(int x, int y) { return x >= 0 && y >= 0 && x < cols && y < rows; }
+
+    public synchronized GameCharacter get(int x, int y) {
+        return isInBounds(x, y) ? occupants[(y * cols) + x] : null;
+    }
+
+    public boolean contains(int x, int y) { return get(x, y) != null; }
+
+    /*---------------------------------------------------------------------------------------------
+    | Methods
+    ----------------------------------------------------------------------------------------------*/
+
+    public synchronized void insert(GameCharacter gc) {
+        gc.indexOrder = order++;
+        gc.indexCell = 0;
+        occupy(gc);
+    }
+
+    /*
+     * Clears the character's tile, before it steps off it.
+     */
+    public synchronized void vacate(GameCharacter gc) {
+        if (isInBounds(gc.x, gc.y)) { occupants[(gc.y * cols) + gc.x] = null; }
+    }
+
+    /*
+     * Sets the character's tile, after it steps onto it.
+     */
+    public synchronized void occupy(GameCharacter gc) {
+        if (isInBounds(gc.x, gc.y)) { occupants[(gc.y * cols) + gc.x] = gc; }
+        relocate(gc);
+    }
+
+    /*
+     * Moves the character to the cell of its current tile. A character's cell is stored as the
+     * cell index + 1, so that 0 means it is not in a cell.
+     */
+    public synchronized void relocate(GameCharacter gc) {
+        int cell = isInBounds(gc.x, gc.y) ? ((gc.y / CHARACTER_INDEX_CELL_SIZE) * cellCols)
+                + (gc.x / CHARACTER_INDEX_CELL_SIZE) + 1 : 0;
+        if (cell == gc.indexCell) { return; }
+
+        if (gc.indexCell > 0) { removeFromCell(gc.indexCell - 1, gc); }
+        if (cell > 0) { addToCell(cell - 1, gc); }
+        gc.indexCell = cell;
+    }
+
+    private void addToCell(int cell, GameCharacter gc) {
+        if (cells[cell] == null) { cells[cell] = new GameCharacter[4]; }
+        else if (cellSizes[cell] == cells[cell].length) {
+            cells[cell] = Arrays.copyOf(cells[cell], cellSizes[cell] * 2);
+        }
+        cells[cell][cellSizes[cell]++] = gc;
+    }
+
+    private void removeFromCell(int cell, GameCharacter gc) {
+        GameCharacter[] characters = cells[cell];
+        for (int i = 0; i < cellSizes[cell]; i++) {
+            if (characters[i] == gc) {
+                characters[i] = characters[--cellSizes[cell]];
+                characters[cellSizes[cell]] = null;
+                return;
+            }
+        }
+    }
+
+    /*
+     * Finds the characters in the rect from (left, top) inclusive to (right, bottom) exclusive,
+     * e.g. the camera's bounding box.
+     */
+    public synchronized void getInRect(int left, int top, int right, int bottom,
+                                       List<GameCharacter> out) {
+        out.clear();
+        if (left >= right || top >= bottom) { return; }
+
+        int firstCellX = Math.max(0, left / CHARACTER_INDEX_CELL_SIZE);
+        int firstCellY = Math.max(0, top / CHARACTER_INDEX_CELL_SIZE);
+        int lastCellX = Math.min(cellCols - 1, (right - 1) / CHARACTER_INDEX_CELL_SIZE);
+        int lastCellY = Math.min(cellRows - 1, (bottom - 1) / CHARACTER_INDEX_CELL_SIZE);
+
+        for (int j = firstCellY; j <= lastCellY; j++) {
+            for (int i = firstCellX; i <= lastCellX; i++) {
+                int cell = (j * cellCols) + i;
+                for (int k = 0; k < cellSizes[cell]; k++) {
+                    GameCharacter gc = cells[cell][k];
+                    if (gc.x >= left && gc.x < right && gc.y >= top && gc.y < bottom) {
+                        out.add(gc);
+                    }
+                }
+            }
+        }
+        sort(out);
+    }
+
+    /*
+     * Finds the characters within range tiles of (x, y), counted in steps as characters walk.
+     */
+    public synchronized void getInRange(int x, int y, int range, List<GameCharacter> out) {
+        getInRect(x - range, y - range, x + range + 1, y + range + 1, out);
+        for (int i = out.size() - 1; i >= 0; i--) {
+            GameCharacter gc = out.get(i);
+            if (Math.abs(gc.x - x) + Math.abs(gc.y - y) > range) { out.remove(i); }
+        }
+    }
+
+    private static void sort(List<GameCharacter> characters) {
+        for (int i = 1; i < characters.size(); i++) {
+            GameCharacter gc = characters.get(i);
+            int j = i - 1;
+            while (j >= 0 && characters.get(j).indexOrder > gc.indexOrder) {
+                characters.set(j + 1, characters.get(j));
+                j--;
+            }
+            characters.set(j + 1, gc);
+        }
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.lmweav.schoolquest.characters;
+
+import android.content.Context;
+import android.util.SparseArray;
+
+import com.lmweav.schoolquest.GameActivity;
+import com.lmweav.schoolquest.utilities.Condition;
+import com.lmweav.schoolquest.utilities.ExpressionAnalyser;
+import com.lmweav.schoolquest.utilities.RecordReader;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+
+/*
+ * School Quest: Dialogue
+ * This class is an NPC text file, parsed into an ordered table of lines.
+ *
+ * Dialogues are shared: each text file is parsed once, looked up by its resource id, and used by
+ * every NPC with that file. The lines are not changed after parsing. The \Name and \NPC-Name
+ * placeholders are left in the lines, and are resolved by the NPC when it builds a text box from a
+ * line (see resolve).
+ *
+ * There is 1 support class declared here: DialogueLine - which holds the condition, tag, text and
+ * action data of one line.
+ *
+ * @author Luke Weaver
+ * @version 1.0.9
+ * @since 2019-10-16
+ */
+public class Dialogue {
+
+    private static final HashSet<String> ACTIONS = new HashSet<>(Arrays.asList("dialogue",
+            "dialogue_1", "activity", "lesson", "buy", "shop", "receive", "notice", "give",
+            "lose heist"));
+
+    private static final SparseArray<Dialogue> dialogues = new SparseArray<>();
+
+    private final DialogueLine[] lines;
+
+    /*---------------------------------------------------------------------------------------------
+    | Constructors
+    ----------------------------------------------------------------------------------------------*/
+
+    private Dialogue(Context context, int txtId) {
+        lines = readLines(context, txtId);
+    }
+
+    /*---------------------------------------------------------------------------------------------
+    | Getters and Setters
+    ----------------------------------------------------------------------------------------------*/
+
+    public static Dialogue getDialogue(Context context, int txtId) {
+        synchronized (dialogues) {
+            Dialogue dialogue = dialogues.get(txtId);
+            if (dialogue == null) {
+                dialogue = new Dialogue(context, txtId);
+                dialogues.put(txtId, dialogue);
+            }
+            return dialogue;
+        }
+    }
+
+    int getLineCount() { return lines.length; }
+
+    DialogueLine getLine(int i) { return lines[i]; }
+
+    /*---------------------------------------------------------------------------------------------
+    | Methods
+    ----------------------------------------------------------------------------------------------*/
+
+    /*
+     * As when each NPC read the file itself, a later line with the same condition replaces the
+     * earlier one in its place, a line with an unknown action is skipped, tags are only kept on
+     * lines with an action, and a malformed line ends the file.
+     */
+    private static DialogueLine[] readLines(Context context, int txtId) {
+        LinkedHashMap<Condition, DialogueLine> lines = new LinkedHashMap<>();
+        try {
+            for (String[] split : RecordReader.readRecords(context, txtId)) {
+                for (int i = 0; i < split.length; i++) {
+                    split[i] = split[i].replace("\\n", "\n");
+                }
+
+                String[] keyData = split[0].split(";");
+
+                Condition condition = ExpressionAnalyser.compile(keyData[0]);
+                String tag = null;
+                if (keyData.length > 1) { tag = keyData[1]; }
+
+                String[] textData = split[1].split("\\|");
+                boolean notice = textData.length > 1 && textData[0].equals("notice");
+                String text = notice ? textData[1] : textData[0];
+
+                String[] runnableData = null;
+                String[] emotionData = null;
+                if (split.length > 2) {
+                    runnableData = split[2].split("\\|");
+                    if (!ACTIONS.contains(runnableData[0])) { continue; }
+                }
+                else { tag = null; }
+                if (split.length > 3) { emotionData = split[3].split("\\|"); }
+
+                lines.put(condition, new DialogueLine(condition, tag, text, notice,
+                        runnableData, emotionData));
+            }
+        } catch (NumberFormatException e) {
+            e.printStackTrace();
+        }
+        return lines.values().toArray(new DialogueLine[lines.size()]);
+    }
+
+    static String resolve(String text, String npcName) {
+        if (text == null || text.indexOf('\\') < 0) { return text; }
+        return text.replace("\\Name", GameActivity.getInstance().getPlayerName()).
+                replace("\\NPC-Name", npcName);
+    }
+
+    static String[] resolve(String[] data, String npcName) {
+        if (data == null) { return null; }
+        String[] resolved = new String[data.length];
+        for (int i = 0; i < data.length; i++) { resolved[i] = resolve(data[i], npcName); }
+        return resolved;
+    }
+
+}
+
+class DialogueLine {
+
+    final Condition condition;
+    final String tag;
+    final String text;
+    final boolean notice;
+    final String[] runnableData;
+    final String[] emotionData;
+
+    /*---------------------------------------------------------------------------------------------
+    | Constructors
+    ----------------------------------------------------------------------------------------------*/
+
+    DialogueLine(Condition condition, String tag, String text, boolean notice,
+                 String[] runnableData, String[] emotionData) {
+        this.condition = condition;
+        this.tag = tag;
+        this.text = text;
+        this.notice = notice;
+        this.runnableData = runnableData;
+        this.emotionData = emotionData;
+    }
+
+}
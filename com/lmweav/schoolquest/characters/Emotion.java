@@ -1,8 +1,6 @@
 package com.lmweav.schoolquest.characters;
 
 import android.content.Context;
-import android.graphics.Canvas;
-import android.graphics.Paint;
 
 import com.lmweav.schoolquest.R;
 import com.lmweav.schoolquest.tiles.Tile;
@@ -10,14 +8,14 @@ import com.lmweav.schoolquest.tiles.TileSet;
 
 import java.util.ArrayList;
 
-import static com.lmweav.schoolquest.Game.GAME;
 import static com.lmweav.schoolquest.Constants.*;
 
 /*
  * School Quest: Emotion
  * This class is used to display an emoticon above a game character or tile.
  *
- * Methods in this class handle both logical and rendering aspects of the emotion.
+ * Methods in this class handle the logical aspects of the emotion. It is drawn by the renderer
+ * from its id (see getEmotionTile), which is copied into each published frame.
  *
  * @author Luke Weaver
  * @version 1.0.9
@@ -25,6 +23,7 @@ import static com.lmweav.schoolquest.Constants.*;
  */
 public class Emotion {
 
+    private int id;
     private int gX;
     private int gY;
 
@@ -32,7 +31,6 @@ public class Emotion {
 
     private boolean auto = true;
 
-    private Tile tile;
     private GameCharacter character;
 
     private static ArrayList<Tile> emotions = new ArrayList<>();
@@ -42,7 +40,7 @@ public class Emotion {
     --------------------------------------------------------*/
 
     Emotion(int id, GameCharacter character) {
-        tile = emotions.get(id);
+        this.id = id;
 
         this.gX = character.gX;
         this.gY = character.gY - SCALED_TILE_SIZE;
@@ -51,7 +49,7 @@ public class Emotion {
     }
 
     public Emotion(int id, int x, int y) {
-        tile = emotions.get(id);
+        this.id = id;
 
         this.gX = x * SCALED_TILE_SIZE;
         this.gY = (y - 1) * SCALED_TILE_SIZE;
@@ -61,6 +59,10 @@ public class Emotion {
     Getters and Setters
     --------------------------------------------------------*/
 
+    public int getId() { return id; }
+
+    public static Tile getEmotionTile(int id) { return emotions.get(id); }
+
     public boolean isAuto() { return auto; }
     public void turnOffAuto() { auto = false; }
 
@@ -110,9 +112,4 @@ public class Emotion {
         this.gY = character.gY - SCALED_TILE_SIZE;
         if (currentFrame >= EMOTION_FRAMES) { character.emotion = null; }
     }
-
-    public void draw(Canvas canvas, Paint paint) {
-        canvas.drawBitmap(tile.getImage(), gX - GAME.getCamera().getGX(),
-                gY - GAME.getCamera().getGY(), paint);
-    }
 }
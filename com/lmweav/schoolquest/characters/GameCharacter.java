@@ -1,18 +1,15 @@
 package com.lmweav.schoolquest.characters;
 
 import android.content.Context;
-import android.graphics.Bitmap;
-import android.graphics.Canvas;
-import android.graphics.Paint;
 
-import com.lmweav.schoolquest.GameActivity;
-import com.lmweav.schoolquest.tiles.TileSet;
+import com.lmweav.schoolquest.tiles.SpriteSheetCache;
 import com.lmweav.schoolquest.tiles.Tile;
 import com.lmweav.schoolquest.utilities.pathfinding.Path;
 
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 
 import static com.lmweav.schoolquest.Constants.*;
 import static com.lmweav.schoolquest.Game.GAME;
@@ -37,6 +34,10 @@ public abstract class GameCharacter implements Serializable {
     protected int y;
     int gX;
     int gY;
+    private transient int previousGX;
+    private transient int previousGY;
+    transient int indexCell;
+    transient int indexOrder;
     int goalX;
     int goalY;
 
@@ -56,16 +57,17 @@ public abstract class GameCharacter implements Serializable {
     protected transient Emotion emotion;
 
     transient Tile tile;
-    protected transient ArrayList<Tile> tiles;
+    protected transient List<Tile> tiles;
 
-    private transient ArrayList<Bitmap> upSprites1 = new ArrayList<>();
-    private transient ArrayList<Bitmap> upSprites2 = new ArrayList<>();
-    private transient ArrayList<Bitmap> downSprites1 = new ArrayList<>();
-    private transient ArrayList<Bitmap> downSprites2 = new ArrayList<>();
-    private transient ArrayList<Bitmap> leftSprites = new ArrayList<>();
-    private transient ArrayList<Bitmap> rightSprites = new ArrayList<>();
+    private transient ArrayList<Tile> upSprites1 = new ArrayList<>();
+    private transient ArrayList<Tile> upSprites2 = new ArrayList<>();
+    private transient ArrayList<Tile> downSprites1 = new ArrayList<>();
+    private transient ArrayList<Tile> downSprites2 = new ArrayList<>();
+    private transient ArrayList<Tile> leftSprites = new ArrayList<>();
+    private transient ArrayList<Tile> rightSprites = new ArrayList<>();
 
-    transient HashMap<String, ArrayList<Tile>> tileSets = new HashMap<>();
+    transient HashMap<String, List<Tile>> tileSets = new HashMap<>();
+    private transient ArrayList<Integer> sheetIds = new ArrayList<>();
 
 
     /*---------------------------------------------------------------------------------------------
@@ -73,8 +75,7 @@ public abstract class GameCharacter implements Serializable {
     ----------------------------------------------------------------------------------------------*/
 
     public GameCharacter(Context context, int imgId, int x, int y) {
-        TileSet tileSet = new TileSet(context, imgId);
-        tiles = tileSet.createGameCharacterTileList();
+        tiles = acquireSheet(context, imgId);
 
         setAllSprites(tiles);
 
@@ -100,6 +101,14 @@ public abstract class GameCharacter implements Serializable {
 
     public int getGY() { return gY; }
 
+    int getPreviousGX() { return previousGX; }
+
+    int getPreviousGY() { return previousGY; }
+
+    public int getDrawGX() { return GAME.interpolate(previousGX, gX); }
+
+    public int getDrawGY() { return GAME.interpolate(previousGY, gY); }
+
     public void setGoal(int x, int y) {
         goalX = x;
         goalY = y;
@@ -114,7 +123,7 @@ public abstract class GameCharacter implements Serializable {
 
     public String getName() { return name; }
 
-    private void setAllSprites(ArrayList<Tile> tiles) {
+    private void setAllSprites(List<Tile> tiles) {
         setSprites(upSprites1, tiles, UP_ANIMATION_1);
         setSprites(upSprites2, tiles, UP_ANIMATION_2);
         setSprites(downSprites1, tiles, DOWN_ANIMATION_1);
@@ -123,9 +132,9 @@ public abstract class GameCharacter implements Serializable {
         setSprites(rightSprites, tiles, RIGHT_ANIMATION);
     }
 
-    private void setSprites(ArrayList<Bitmap> target, ArrayList<Tile> tiles, int[] indices) {
+    private void setSprites(ArrayList<Tile> target, List<Tile> tiles, int[] indices) {
         target.clear();
-        for (int i : indices) { target.add(tiles.get(i).getImage()); }
+        for (int i : indices) { target.add(tiles.get(i)); }
     }
 
     public Path getPath() { return path; }
@@ -145,6 +154,26 @@ public abstract class GameCharacter implements Serializable {
     | Methods
     ----------------------------------------------------------------------------------------------*/
 
+    /*
+     * Sprite sheets are shared by every character that uses them (see SpriteSheetCache). A
+     * character's sheets are released once it is no longer used.
+     */
+    List<Tile> acquireSheet(Context context, int imgId) {
+        sheetIds.add(imgId);
+        return SpriteSheetCache.acquire(context, imgId);
+    }
+
+    public void release() {
+        if (sheetIds == null) { return; }
+        for (int imgId : sheetIds) { SpriteSheetCache.release(imgId); }
+        sheetIds.clear();
+    }
+
+    public void savePosition() {
+        previousGX = gX;
+        previousGY = gY;
+    }
+
     public boolean isAtGoal() { return x == goalX && y == goalY; }
 
     public void changeTile(String key) {
@@ -189,19 +218,6 @@ public abstract class GameCharacter implements Serializable {
         }
     }
 
-    public void draw(final Canvas canvas, final Paint paint) {
-        canvas.drawBitmap(tile.getImage(), gX - GAME.getCamera().getGX(),
-                gY - GAME.getCamera().getGY(), paint);
-        if (emotion != null && GAME.getMiniGame() == null) {
-            GameActivity.getInstance().runOnUiThread(new Runnable() {
-                @Override
-                public void run() {
-                    emotion.draw(canvas, paint);
-                }
-            });
-        }
-    }
-
     public abstract void move();
     public abstract void update() throws NullPointerException;
 
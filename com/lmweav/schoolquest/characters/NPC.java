@@ -19,19 +19,15 @@ import com.lmweav.schoolquest.minigames.LessonA;
 import com.lmweav.schoolquest.minigames.LessonB;
 import com.lmweav.schoolquest.minigames.LessonC;
 import com.lmweav.schoolquest.scripting.Script;
+import com.lmweav.schoolquest.utilities.Condition;
+import com.lmweav.schoolquest.utilities.ConditionState;
 import com.lmweav.schoolquest.utilities.ExpressionAnalyser;
+import com.lmweav.schoolquest.utilities.RecordReader;
 import com.lmweav.schoolquest.utilities.TextBoxRunnable;
 import com.lmweav.schoolquest.utilities.TextBoxStructure;
 import com.lmweav.schoolquest.tiles.Tile;
 import com.lmweav.schoolquest.tiles.TileMap;
-import com.lmweav.schoolquest.tiles.TileSet;
-import com.lmweav.schoolquest.utilities.pathfinding.AStarPathFinder;
-
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.UnsupportedEncodingException;
+
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -51,6 +47,9 @@ import static com.lmweav.schoolquest.Game.GAME;
  * Methods in this class handle both logical and rendering aspects of NPCs, as well as reading
  * external resources needed for the creation of NPC objects.
  *
+ * There is 1 support class declared here: SightLine - which holds the hostile tiles an NPC can see
+ * and only walks them again when something they depend on changes.
+ *
  * @author Luke Weaver
  * @version 1.0.9
  * @since 2019-10-16
@@ -73,6 +72,7 @@ public class NPC extends GameCharacter {
     private boolean waiting;
     private boolean willWait;
     private transient boolean spottedPlayer;
+    private transient SightLine sightLine;
 
     private boolean movingUp;
     private boolean movingDown;
@@ -85,10 +85,17 @@ public class NPC extends GameCharacter {
 
     private transient Bitmap textBoxImg;
 
-    private transient HashMap<String, TextBoxStructure> texts = new LinkedHashMap<>();
-    private transient HashMap<Item, String> shopItems;
+    private transient Dialogue dialogue;
+    private transient TextBoxStructure[] textBoxes;
+    private transient HashMap<Item, Condition> shopItems;
     private transient HashMap<Item, Integer> itemScores;
 
+    private transient DialogueLine eventLine;
+    private transient long eventInputs;
+    private transient int eventGeneration;
+    private transient int eventItemResponseIndex;
+    private transient boolean eventValid;
+
     /*---------------------------------------------------------------------------------------------
     | Constructors
     ----------------------------------------------------------------------------------------------*/
@@ -106,10 +113,7 @@ public class NPC extends GameCharacter {
         this.code = code;
 
         for (Map.Entry<String, Integer> imgId : data.getImgIds().entrySet()) {
-            TileSet tileSet = new TileSet(context, imgId.getValue());
-            ArrayList<Tile> tiles = tileSet.createGameCharacterTileList();
-
-            tileSets.put(imgId.getKey(), tiles);
+            tileSets.put(imgId.getKey(), acquireSheet(context, imgId.getValue()));
         }
 
         this.hostile = hostile;
@@ -139,7 +143,7 @@ public class NPC extends GameCharacter {
         if (data.getShopId() > -1) { readNPCShop(context, data.getShopId());}
 
 
-        tile = tiles.get(tileIndex);
+        tile = new Tile(tiles.get(tileIndex));
         animIndex = 1;
         speed = 1;
 
@@ -152,27 +156,25 @@ public class NPC extends GameCharacter {
         }
     }
 
-    public NPC(Context context, NPC npc) {
-        super(context, npcData.get(npc.code).getImgId(), npc.x, npc.y);
-        NPCDataStructure data = npcData.get(npc.code);
+    public NPC(Context context, int x, int y, String code, String name, int direction,
+               int defaultDirection, boolean hostile, Controller ctrl) {
+        super(context, npcData.get(code).getImgId(), x, y);
+        NPCDataStructure data = npcData.get(code);
         id = data.getNpcId();
-        defaultDirection = npc.defaultDirection;
-        direction = npc.direction;
+        this.defaultDirection = defaultDirection;
+        this.direction = direction;
         defaultX = x;
         defaultY = y;
 
-        name = npc.name;
-        code = npc.code;
+        this.name = name;
+        this.code = code;
 
         for (Map.Entry<String, Integer> imgId : data.getImgIds().entrySet()) {
-            TileSet tileSet = new TileSet(context, imgId.getValue());
-            ArrayList<Tile> tiles = tileSet.createGameCharacterTileList();
-
-            tileSets.put(imgId.getKey(), tiles);
+            tileSets.put(imgId.getKey(), acquireSheet(context, imgId.getValue()));
         }
 
-        hostile = npc.hostile;
-        ctrl = npc.ctrl;
+        this.hostile = hostile;
+        this.ctrl = ctrl;
 
         if (ctrl instanceof Patrol) { ((Patrol) ctrl).setObject(this);}
 
@@ -198,7 +200,7 @@ public class NPC extends GameCharacter {
         if (data.getShopId() > -1) { readNPCShop(context, data.getShopId());}
 
 
-        tile = tiles.get(tileIndex);
+        tile = new Tile(tiles.get(tileIndex));
         animIndex = 1;
         speed = 1;
 
@@ -221,6 +223,14 @@ public class NPC extends GameCharacter {
 
     public int getId() { return id; }
 
+    public String getCode() { return code; }
+
+    public int getDefaultDirection() { return defaultDirection; }
+
+    public boolean isHostile() { return hostile; }
+
+    public Controller getController() { return ctrl; }
+
     public int getItemResponseIndex() { return itemResponseIndex; }
 
     boolean willWait() { return willWait; }
@@ -285,7 +295,7 @@ public class NPC extends GameCharacter {
         TileMap tileMap = GAME.getTileMap();
         boolean invalid = x < 0 || y < 0 || x >= tileMap.getCols() || y >= tileMap.getRows()
                 || tileMap.isCollidable(x, y) || tileMap.isDoorPoint(x, y)
-                || (x == GAME.getPlayer().x && y == GAME.getPlayer().y);
+                || GAME.isGameCharacterInMap(x, y);
 
         if (!(ctrl instanceof Patrol) && !invalid) {
             invalid = x > defaultX + 4 || x < defaultX - 4 || y > defaultY + 4 || y < defaultY - 4;
@@ -517,8 +527,7 @@ public class NPC extends GameCharacter {
 
         if (GAME.isGameCharacterInMap(pathX, pathY) && !(pathX == goalX && pathY == goalY)
                 && GAME.getScript() == null) {
-            path = new AStarPathFinder(tileMap, 30).
-                    findPath(x, y, goalX, goalY);
+            path = tileMap.getPathFinder().findPath(x, y, goalX, goalY);
             pathIndex = 1;
             if (path != null && pathIndex == path.getLength() - 1) { path = null; }
             if (path == null) {
@@ -642,15 +651,42 @@ public class NPC extends GameCharacter {
     }
 
     public TextBoxStructure getText() {
-        for (Map.Entry<String, TextBoxStructure> entry : texts.entrySet()) {
-            if (ExpressionAnalyser.analyse(entry.getKey(), this)) { return entry.getValue(); }
+        for (int i = 0; i < dialogue.getLineCount(); i++) {
+            if (dialogue.getLine(i).condition.evaluate(this)) { return getTextBox(i); }
         }
         return null;
     }
 
+    /*
+     * The event line is the line that would be shown now, kept until one of the inputs of the
+     * conditions checked to find it changes (see ConditionState). ITEM is read from the NPC, so it
+     * is compared separately.
+     */
+    private DialogueLine getEventLine() {
+        if (eventValid && eventItemResponseIndex == itemResponseIndex &&
+                !ConditionState.hasChanged(eventInputs, eventGeneration)) {
+            return eventLine;
+        }
+
+        eventGeneration = ConditionState.getGeneration();
+        eventItemResponseIndex = itemResponseIndex;
+        eventInputs = 0;
+        eventLine = null;
+        for (int i = 0; i < dialogue.getLineCount(); i++) {
+            DialogueLine line = dialogue.getLine(i);
+            eventInputs |= line.condition.getInputs();
+            if (line.condition.evaluate(this)) {
+                eventLine = line;
+                break;
+            }
+        }
+        eventValid = true;
+        return eventLine;
+    }
+
     public boolean hasEvent() {
         try {
-            return GAME.getScript() == null && getText().getTag() != null &&
+            return GAME.getScript() == null && getEventLine().tag != null &&
                     GameActivity.getInstance().findViewById(R.id.textbox).getVisibility() == View.GONE;
         } catch (NullPointerException e) {
             return false;
@@ -658,7 +694,7 @@ public class NPC extends GameCharacter {
 
     }
     public void setEvent() {
-        switch (getText().getTag()) {
+        switch (getEventLine().tag) {
             case "event":
                 setEmotion(EMOTION_SURPRISE_INDEX);
                 break;
@@ -669,534 +705,449 @@ public class NPC extends GameCharacter {
         emotion.turnOffAuto();
     }
 
-    private void setHostileTiles(int direction) {
-        switch (direction) {
-            case OBJECT_DIRECTION_UP:
-                for (int i = y - 1; i > y - 4; i--) {
-                    try {
-                        if (GAME.getTileMap().isCollidable(x, i) ||
-                                GAME.getTileMap().isDoorPoint(x, i)) {
-                            if (GAME.getPlayer().x == x && GAME.getPlayer().y == i) { spot(); }
-                            else { break; }
-                        }
-                        GAME.getTileMap().setHostileTile(x, i);
-                    } catch (NullPointerException | ArrayIndexOutOfBoundsException e) {
-                        //Ignore empty tiles
-                    }
-                }
-                break;
-            case OBJECT_DIRECTION_DOWN:
-                for (int i = y + 1; i < y + 4; i++) {
-                    try {
-                        if (GAME.getTileMap().isCollidable(x, i) ||
-                                GAME.getTileMap().isDoorPoint(x, i)) {
-                            if (GAME.getPlayer().x == x && GAME.getPlayer().y == i) { spot();}
-                            else { break; }
-                        }
-                        GAME.getTileMap().setHostileTile(x, i);
-                    } catch (NullPointerException | ArrayIndexOutOfBoundsException e) {
-                        //Ignore empty tiles
-                    }
-                }
-                break;
-            case OBJECT_DIRECTION_LEFT:
-                for (int i = x - 1; i > x - 4; i--) {
-                    try {
-                        if (GAME.getTileMap().isCollidable(i, y) ||
-                                GAME.getTileMap().isDoorPoint(i, y)) {
-                            if (GAME.getPlayer().y == y && GAME.getPlayer().x == i) { spot(); }
-                            else { break; }
-                        }
-                        GAME.getTileMap().setHostileTile(i, y);
-                    } catch (NullPointerException | ArrayIndexOutOfBoundsException e) {
-                        //Ignore empty tiles
-                    }
-                }
-                break;
-            case OBJECT_DIRECTION_RIGHT:
-                for (int i = x + 1; i < x + 4; i++) {
-                    try {
-                        if (GAME.getTileMap().isCollidable(i, y) ||
-                                GAME.getTileMap().isDoorPoint(i, y)) {
-                            if (GAME.getPlayer().y == y && GAME.getPlayer().x == i) { spot(); }
-                            else { break; }
-                        }
-                        GAME.getTileMap().setHostileTile(i, y);
-                    } catch (NullPointerException | ArrayIndexOutOfBoundsException e) {
-                        //Ignore empty tiles
-                    }
-                }
-                break;
+    private void updateSightLine() {
+        if (sightLine == null) { sightLine = new SightLine(); }
+        if (sightLine.update(GAME.getTileMap(), GAME.getCharacterIndex(), x, y, direction,
+                GAME.getPlayer())) {
+            spot();
         }
     }
 
+    private void releaseSightLine() {
+        if (sightLine != null) { sightLine.release(); }
+    }
+
     private void spot() {
         GAME.setPlayerSpottedByNPC(true);
         spottedPlayer = true;
 
         setEmotion(EMOTION_SURPRISE_INDEX);
 
-        path = new AStarPathFinder(GAME.getTileMap(), 30).findPath(x, y,
+        path = GAME.getTileMap().getPathFinder().findPath(x, y,
                 GAME.getPlayer().x, GAME.getPlayer().y);
     }
 
     private void setTexts(Context context, int id) {
-        InputStream inputStream = context.getResources().openRawResource(id);
+        dialogue = Dialogue.getDialogue(context, id);
+        textBoxes = new TextBoxStructure[dialogue.getLineCount()];
+    }
 
-        InputStreamReader inputStreamReader;
-        try {
-            inputStreamReader = new InputStreamReader(inputStream, "UTF-8");
-        } catch (UnsupportedEncodingException e) {
-            throw new UnsupportedOperationException();
-        }
-        BufferedReader bufferedReader = new BufferedReader(inputStreamReader);
-        String line;
-        try {
-            while ((line = bufferedReader.readLine()) != null) {
-                line = line.replace("\\Name", ((GameActivity) context).getPlayerName()).
-                        replace("\\NPC-Name", name).replace("\\n", "\n");
-                String[] split = line.replaceAll("(^.*?\\[|]\\s*$)", "").
-                        split("]\\[");
-
-                String[] keyData = split[0].split(";");
-
-                String conditions = keyData[0];
-                String tag = null;
-                if (keyData.length > 1) { tag = keyData[1]; }
-
-                String[] textData = split[1].split("\\|");
-                String text;
-                final NPC npc;
-                final NPC thisNPC = this;
-                if (textData.length > 1 && textData[0].equals("notice")) {
-                    npc = null;
-                    text = textData[1];
-                }
-                else {
-                    npc = this;
-                    text = textData[0];
-                }
+    private TextBoxStructure getTextBox(int i) {
+        if (textBoxes[i] == null) { textBoxes[i] = createTextBox(dialogue.getLine(i)); }
+        return textBoxes[i];
+    }
 
-                if (split.length < 3) {
-                    texts.put(conditions, new TextBoxStructure(text, npc));
-                } else {
-                    final String[] runnableData = split[2].split("\\|");
-
-                    final String[] emotionData;
-                    if (split.length > 3) { emotionData = split[3].split("\\|"); }
-                    else { emotionData = null; }
-
-                    Runnable runnable1, runnable2;
-                    final int npcId = this.id;
-                    switch (runnableData[0]) {
-                        case "dialogue":
-                            runnable1 = new Runnable() {
-                                @Override
-                                public void run() {
-                                    GAME.getPlayer().setResponseIndex(
-                                            Integer.parseInt(runnableData[3]));
-                                    GameActivity.getInstance().displayTextBox(getText());
-                                    GAME.getPlayer().setResponseIndex(0);
-                                    if (emotionData != null) {
-                                        setEmotion(Emotion.getEmotionIndex(emotionData[0]));
-                                    }
-                                }
-                            };
-                            runnable2 = new Runnable() {
-                                @Override
-                                public void run() {
-                                    GAME.getPlayer().setResponseIndex(
-                                            Integer.parseInt(runnableData[4]));
-                                    GameActivity.getInstance().displayTextBox(getText());
-                                    GAME.getPlayer().setResponseIndex(0);
-                                    if (emotionData != null && emotionData.length > 1) {
-                                        setEmotion(Emotion.getEmotionIndex(emotionData[1]));
-                                    }
-                                }
-                            };
-                            texts.put(conditions, new TextBoxStructure(text, runnableData[1],
-                                    runnableData[2], runnable1, runnable2, npc));
-                            break;
-
-                        case "dialogue_1":
-                            final String responseId = runnableData[3];
-                            runnable1 = new Runnable() {
-                                @Override
-                                public void run() {
-                                    GAME.getPlayer().setResponseIndex(Integer.parseInt(responseId));
-                                    GameActivity.getInstance().displayTextBox(getText());
-                                    GAME.getPlayer().setResponseIndex(0);
-                                    if (emotionData != null) {
-                                        setEmotion(Emotion.getEmotionIndex(emotionData[0]));
-                                    }
-                                }
-                            };
-                            texts.put(conditions, new TextBoxStructure(text, runnableData[1],
-                                    runnableData[2], runnable1, null, npc));
-                            break;
-
-
-                        case "activity":
-                            runnable1 = new Runnable() {
-                                @Override
-                                public void run() {
-                                    final int pointIncrease;
-                                    final int oldPoint = GAME.getFriendScore(npcId);
-                                    Boolean heist = Boolean.parseBoolean(runnableData[1]);
-                                    setEmotion(EMOTION_HAPPY_INDEX);
-                                    switch (npcId) {
-                                        case ATHLETE_INDEX:
-                                            GAME.loadCutscene(
-                                                    Script.getScript(TRACK_CLUB_CUTSCENE));
-                                            pointIncrease = (GAME.getGradeScore(PE_INDEX) / 10) + 1;
-                                            break;
-                                        case NERD_INDEX:
-                                            if (heist) {
-                                                GAME.loadCutscene(
-                                                        Script.getScript(CHEMISTRY_HEIST_CUTSCENE));
-                                                GAME.addItem(Item.getItem(KEY3_INDEX));
-                                            }
-                                            else {
-                                                GAME.loadCutscene(
-                                                        Script.getScript(CHEMISTRY_CUTSCENE));
-                                                switch (GAME.getGradeScore(CHEMISTRY_INDEX) / 10) {
-                                                    case 1:
-                                                        GAME.addItem(Item.getItem(DRINK0_INDEX));
-                                                        break;
-                                                    case 2:
-                                                        GAME.addItem(Item.getItem(DRINK1_INDEX));
-                                                        break;
-                                                    default:
-                                                        GAME.addItem(Item.getItem(DRINK2_INDEX));
-                                                        break;
-                                                }
-                                            }
-                                            pointIncrease = (GAME.getGradeScore(
-                                                    CHEMISTRY_INDEX) / 10) + 1;
-                                            break;
-                                        case DELINQUENT_INDEX:
-                                            GAME.loadCutscene(
-                                                    Script.getScript(DT_HEIST_CUTSCENE));
-                                            GAME.addItem(Item.getItem(KEY0_INDEX));
-                                            pointIncrease = (GAME.getGradeScore(DT_INDEX) / 10) + 1;
-                                            break;
-                                        case TUTEE_INDEX:
-                                            if (heist) {
-                                                GAME.loadCutscene(
-                                                        Script.getScript(TUTORING_HEIST_CUTSCENE));
-                                                GAME.addItem(Item.getItem(KEY4_INDEX));
-                                            }
-                                            else {
-                                                GAME.loadCutscene(
-                                                        Script.getScript(TUTORING_CUTSCENE));
-                                            }
-                                            pointIncrease = (GAME.getGradeScore(ICT_INDEX) / 10)
-                                                    + 1;
-                                            break;
-                                        default:
-                                            pointIncrease = 0;
-                                            break;
-                                    }
-                                    rotate(defaultDirection);
-                                    willWait = false;
-                                    waiting = false;
-                                    GAME.getScript().setEndRunnable(
-                                            new Runnable() {
-                                                @Override
-                                                public void run() {
-                                                    GAME.addPointChange(FRIEND_INCREASE, npcId,
-                                                            pointIncrease);
-                                                    GAME.increaseFriendScore(npcId, pointIncrease);
-                                                    GAME.resetDaysSince(npcId);
-                                                    if (oldPoint < 20 && GAME.getFriendScore(npcId) >= 20) {
-                                                        GAME.setLoadingScreenEndRunnable(new Runnable() {
-                                                            @Override
-                                                            public void run() {
-                                                                GAME.playJingle(R.raw._jingle_rank_up);
-                                                                GameActivity.getInstance().
-                                                                        displayTextBox(new TextBoxStructure(
-                                                                                "> You are now good friends with " + name + "!"));
-                                                            }
-                                                        });
-                                                    }
-                                                }
-                                            }
-                                    );
-                                    GAME.loadMap(GAME.getScript().getMapId());
+    /*
+     * Builds this NPC's text box for a line of its dialogue, the first time the line is used.
+     */
+    private TextBoxStructure createTextBox(DialogueLine line) {
+        String text = Dialogue.resolve(line.text, name);
+        final NPC npc = line.notice ? null : this;
+        final NPC thisNPC = this;
+
+        if (line.runnableData == null) { return new TextBoxStructure(text, npc); }
+
+        final String[] runnableData = Dialogue.resolve(line.runnableData, name);
+        final String[] emotionData = line.emotionData;
+
+        TextBoxStructure structure = null;
+        Runnable runnable1, runnable2;
+        final int npcId = this.id;
+        switch (runnableData[0]) {
+            case "dialogue":
+                runnable1 = new Runnable() {
+                    @Override
+                    public void run() {
+                        GAME.getPlayer().setResponseIndex(
+                                Integer.parseInt(runnableData[3]));
+                        GameActivity.getInstance().displayTextBox(getText());
+                        GAME.getPlayer().setResponseIndex(0);
+                        if (emotionData != null) {
+                            setEmotion(Emotion.getEmotionIndex(emotionData[0]));
+                        }
+                    }
+                };
+                runnable2 = new Runnable() {
+                    @Override
+                    public void run() {
+                        GAME.getPlayer().setResponseIndex(
+                                Integer.parseInt(runnableData[4]));
+                        GameActivity.getInstance().displayTextBox(getText());
+                        GAME.getPlayer().setResponseIndex(0);
+                        if (emotionData != null && emotionData.length > 1) {
+                            setEmotion(Emotion.getEmotionIndex(emotionData[1]));
+                        }
+                    }
+                };
+                structure = new TextBoxStructure(text, runnableData[1],
+                        runnableData[2], runnable1, runnable2, npc);
+                break;
 
-                                }
-                            };
-                            texts.put(conditions, new TextBoxStructure(text, runnable1,
-                                    true, npc));
-                            break;
-
-                        case "lesson":
-                            runnable1 = new Runnable() {
-                                @Override
-                                public void run() {
-                                    int x = 0;
-                                    int y = 0;
-                                    int direction = -1;
-                                    int lessonIndex = -1;
-                                    int time = 0;
-                                    switch (npcId) {
-                                        case DT_TEACHER_INDEX:
-                                            lessonIndex = DT_INDEX;
-                                            x = DT_X;
-                                            y = DT_Y;
-                                            direction = OBJECT_DIRECTION_DOWN;
-                                            time = TIME_DT;
-                                            break;
-                                        case FT_TEACHER_INDEX:
-                                            lessonIndex = FT_INDEX;
-                                            x = FT_X;
-                                            y = FT_Y;
-                                            direction = OBJECT_DIRECTION_UP;
-                                            time = TIME_FT;
-                                            break;
-                                        case PE_TEACHER_INDEX:
-                                            lessonIndex = PE_INDEX;
-                                            x = PE_X;
-                                            y = PE_Y;
-                                            direction = OBJECT_DIRECTION_DOWN;
-                                            break;
-                                        case CHEM_TEACHER_INDEX:
-                                            lessonIndex = CHEMISTRY_INDEX;
-                                            x = CHEM_X;
-                                            y = CHEM_Y;
-                                            direction = OBJECT_DIRECTION_UP;
-                                            time = TIME_CHEM;
-                                            break;
-                                        case ICT_TEACHER_INDEX:
-                                            lessonIndex = ICT_INDEX;
-                                            x = ICT_X;
-                                            y = ICT_Y;
-                                            direction = OBJECT_DIRECTION_UP;
-                                            time = TIME_ICT;
-                                            break;
-                                    }
+            case "dialogue_1":
+                final String responseId = runnableData[3];
+                runnable1 = new Runnable() {
+                    @Override
+                    public void run() {
+                        GAME.getPlayer().setResponseIndex(Integer.parseInt(responseId));
+                        GameActivity.getInstance().displayTextBox(getText());
+                        GAME.getPlayer().setResponseIndex(0);
+                        if (emotionData != null) {
+                            setEmotion(Emotion.getEmotionIndex(emotionData[0]));
+                        }
+                    }
+                };
+                structure = new TextBoxStructure(text, runnableData[1],
+                        runnableData[2], runnable1, null, npc);
+                break;
 
-                                    GAME.getPlayer().setPoint(x, y);
-                                    GAME.getPlayer().rotate(direction);
-                                    GameActivity gameActivity = GameActivity.getInstance();
-                                    if (lessonIndex == CHEMISTRY_INDEX || lessonIndex == ICT_INDEX) {
-                                        GAME.setMiniGame(new LessonA(lessonIndex));
-                                        gameActivity.displayLessonAUI();
-                                        ((LessonA) GAME.getMiniGame()).refreshHUD();
-                                    } else if (lessonIndex == DT_INDEX || lessonIndex == FT_INDEX) {
-                                        GAME.setMiniGame(new LessonB(lessonIndex));
-                                        GameActivity.getInstance().displayLessonBUI();
-                                        ((LessonB) GAME.getMiniGame()).setUpSliderAnimation();
-                                        ((LessonB) GAME.getMiniGame()).refreshHUD();
-                                        ((LessonB) GAME.getMiniGame()).setCraftBarWidth();
-                                    } else {
-                                        GAME.setMiniGame(new LessonC());
-                                        gameActivity.displayLessonCUI();
-                                        GAME.loadMap(MAP_PE_ID);
-                                        GAME.getPlayer().changeTile("pe");
-                                        GAME.getPlayer().rotate(direction);
-                                        ((LessonC) GAME.getMiniGame()).refreshHUD();
-                                        gameActivity.findViewById(R.id.game_layout).setAlpha(0.5f);
-                                        gameActivity.findViewById(R.id.lesson_c_map_menu).
-                                                setVisibility(View.VISIBLE);
-                                        gameActivity.setUpLessonCMapPointAnimation();
-                                    }
 
-                                    int oldTime = GAME.getTime();
-                                    GAME.setTime(time);
-                                    GAME.reloadMap();
-                                    GAME.changeBGM(R.raw._music_activity);
-                                    GAME.setTime(oldTime);
-                                }
-                            };
-                            texts.put(conditions, new TextBoxStructure(text, runnable1,
-                                    false, npc));
-                            break;
-
-                        case "buy":
-                            runnable1 = new Runnable() {
-                                @Override
-                                public void run() {
-                                    GameActivity.getInstance().displayBuyMenu(
-                                            thisNPC.getShopItems(),
-                                            thisNPC);
-                                }
-                            };
-                            runnable2 = new Runnable() {
-                                @Override
-                                public void run() {
-                                    GAME.getPlayer().setResponseIndex(
-                                            Integer.parseInt(runnableData[4]));
-                                    GameActivity.getInstance().displayTextBox(getText());
-                                    GAME.getPlayer().setResponseIndex(0);
-                                }
-                            };
-                            texts.put(conditions, new TextBoxStructure(text, runnableData[1],
-                                    runnableData[2], runnable1, runnable2, npc));
-                            break;
-
-                        case "shop":
-                            runnable1 = new Runnable() {
-                                @Override
-                                public void run() {
-                                    GameActivity.getInstance().displayShopMenu(
-                                            thisNPC.getShopItems(),
-                                            new ArrayList<>(GAME.getItemSet()), thisNPC);
-                                }
-                            };
-                            runnable2 = new Runnable() {
-                                @Override
-                                public void run() {
-                                    GAME.getPlayer().setResponseIndex(
-                                            Integer.parseInt(runnableData[4]));
-                                    GameActivity.getInstance().displayTextBox(getText());
-                                    GAME.getPlayer().setResponseIndex(0);
+            case "activity":
+                runnable1 = new Runnable() {
+                    @Override
+                    public void run() {
+                        final int pointIncrease;
+                        final int oldPoint = GAME.getFriendScore(npcId);
+                        Boolean heist = Boolean.parseBoolean(runnableData[1]);
+                        setEmotion(EMOTION_HAPPY_INDEX);
+                        switch (npcId) {
+                            case ATHLETE_INDEX:
+                                GAME.loadCutscene(
+                                        Script.getScript(TRACK_CLUB_CUTSCENE));
+                                pointIncrease = (GAME.getGradeScore(PE_INDEX) / 10) + 1;
+                                break;
+                            case NERD_INDEX:
+                                if (heist) {
+                                    GAME.loadCutscene(
+                                            Script.getScript(CHEMISTRY_HEIST_CUTSCENE));
+                                    GAME.addItem(Item.getItem(KEY3_INDEX));
                                 }
-                            };
-                            texts.put(conditions, new TextBoxStructure(text, runnableData[1],
-                                    runnableData[2], runnable1, runnable2, npc));
-                            break;
-
-                        case "receive":
-                            runnable1 = new Runnable() {
-                                @Override
-                                public void run() {
-                                    GameActivity.getInstance().displayTextBox(
-                                            new TextBoxStructure(runnableData[1]));
-                                    switch (npcId) {
-                                        case ATHLETE_INDEX:
-                                            GAME.addItem(Item.getItem(KEY2_INDEX));
-                                            GameActivity.getInstance().runOnUiThread(
-                                                    new Runnable() {
-                                                        @Override
-                                                        public void run() {
-                                                            GameActivity.getInstance().
-                                                                    enableRunButton();
-                                                        }
-                                                    }
-                                            );
+                                else {
+                                    GAME.loadCutscene(
+                                            Script.getScript(CHEMISTRY_CUTSCENE));
+                                    switch (GAME.getGradeScore(CHEMISTRY_INDEX) / 10) {
+                                        case 1:
+                                            GAME.addItem(Item.getItem(DRINK0_INDEX));
+                                            break;
+                                        case 2:
+                                            GAME.addItem(Item.getItem(DRINK1_INDEX));
                                             break;
-                                        case CLASSMATE_INDEX:
-                                            GAME.addItem(Item.getItem(KEY1_INDEX));
+                                        default:
+                                            GAME.addItem(Item.getItem(DRINK2_INDEX));
                                             break;
                                     }
-                                    GAME.playJingle(R.raw._jingle_get_item);
-                                }
-                            };
-                            texts.put(conditions, new TextBoxStructure(text, runnable1,
-                                    true, npc));
-                            break;
-
-                        case "notice":
-                            runnable1 = new Runnable() {
-                                @Override
-                                public void run() {
-                                    GameActivity.getInstance().displayTextBox(new TextBoxStructure(
-                                            runnableData[1]
-                                    ));
                                 }
-                            };
-                            texts.put(conditions, new TextBoxStructure(text, runnable1,
-                                    true, npc));
-                            break;
-
-                        case "give":
-                            runnable1 = new Runnable() {
-                                @Override
-                                public void run() {
-                                    GameActivity.getInstance().runOnUiThread(new Runnable() {
-                                        @Override
-                                        public void run() {
-                                            GameActivity.getInstance().displayInventory(
-                                                    INVENTORY_GIVE, thisNPC);
-                                        }
-                                    });
+                                pointIncrease = (GAME.getGradeScore(
+                                        CHEMISTRY_INDEX) / 10) + 1;
+                                break;
+                            case DELINQUENT_INDEX:
+                                GAME.loadCutscene(
+                                        Script.getScript(DT_HEIST_CUTSCENE));
+                                GAME.addItem(Item.getItem(KEY0_INDEX));
+                                pointIncrease = (GAME.getGradeScore(DT_INDEX) / 10) + 1;
+                                break;
+                            case TUTEE_INDEX:
+                                if (heist) {
+                                    GAME.loadCutscene(
+                                            Script.getScript(TUTORING_HEIST_CUTSCENE));
+                                    GAME.addItem(Item.getItem(KEY4_INDEX));
                                 }
-                            };
-                            runnable2 = new Runnable() {
-                                @Override
-                                public void run() {
-                                    GAME.addGivenNPC(thisNPC);
-                                    GameActivity.getInstance().displayTextBox(getText());
-                                    GAME.removeGivenNPC(thisNPC);
+                                else {
+                                    GAME.loadCutscene(
+                                            Script.getScript(TUTORING_CUTSCENE));
                                 }
-                            };
-                            texts.put(conditions, new TextBoxStructure(text, runnableData[1],
-                                    runnableData[2], runnable1, runnable2, npc));
-                            break;
-
-                        case "lose heist":
-                            runnable1 = new TextBoxRunnable(new TextBoxStructure(
-                                    "> The teachers caught you in the act! You're suspended " +
-                                            "from after school activities!",
-                                    new Runnable() {
-                                        @Override
-                                        public void run() {
-                                            final String before =
-                                                    Game.getTimeKey(TIME_HEIST_PHASE_1).toUpperCase();
-                                            GAME.setTime(
-                                                    GAME.getProgressDataStructure().getTimeBeforeHeist());
-                                            GAME.getProgressDataStructure().setLostHeist();
-                                            final String after =
-                                                    Game.getTimeKey(GAME.getTime()).toUpperCase();
-                                            GameActivity.getInstance().
-                                                    setSlideLoadingTransition(before, after);
-                                            GAME.resetEventBGM();
-                                            GAME.reloadMap();
-                                            GameActivity.getInstance().runOnUiThread(new Runnable() {
+                                pointIncrease = (GAME.getGradeScore(ICT_INDEX) / 10)
+                                        + 1;
+                                break;
+                            default:
+                                pointIncrease = 0;
+                                break;
+                        }
+                        rotate(defaultDirection);
+                        willWait = false;
+                        waiting = false;
+                        GAME.getScript().setEndRunnable(
+                                new Runnable() {
+                                    @Override
+                                    public void run() {
+                                        GAME.addPointChange(FRIEND_INCREASE, npcId,
+                                                pointIncrease);
+                                        GAME.increaseFriendScore(npcId, pointIncrease);
+                                        GAME.resetDaysSince(npcId);
+                                        if (oldPoint < 20 && GAME.getFriendScore(npcId) >= 20) {
+                                            GAME.setLoadingScreenEndRunnable(new Runnable() {
                                                 @Override
                                                 public void run() {
-                                                    GameActivity.getInstance().refreshHUD();
+                                                    GAME.playJingle(R.raw._jingle_rank_up);
+                                                    GameActivity.getInstance().
+                                                            displayTextBox(new TextBoxStructure(
+                                                                    "> You are now good friends with " + name + "!"));
                                                 }
                                             });
                                         }
-                                    }, true, null)
-                            ) {
-                                @Override
-                                public void run(){
-                                    GAME.loseHeist();
-                                    GameActivity.getInstance().displayTextBox(textBox);
+                                    }
                                 }
-                            };
-                            texts.put(conditions, new TextBoxStructure(text, runnable1,
-                                    true, npc));
+                        );
+                        GAME.loadMap(GAME.getScript().getMapId());
+
+                    }
+                };
+                structure = new TextBoxStructure(text, runnable1,
+                        true, npc);
+                break;
+
+            case "lesson":
+                runnable1 = new Runnable() {
+                    @Override
+                    public void run() {
+                        int x = 0;
+                        int y = 0;
+                        int direction = -1;
+                        int lessonIndex = -1;
+                        int time = 0;
+                        switch (npcId) {
+                            case DT_TEACHER_INDEX:
+                                lessonIndex = DT_INDEX;
+                                x = DT_X;
+                                y = DT_Y;
+                                direction = OBJECT_DIRECTION_DOWN;
+                                time = TIME_DT;
+                                break;
+                            case FT_TEACHER_INDEX:
+                                lessonIndex = FT_INDEX;
+                                x = FT_X;
+                                y = FT_Y;
+                                direction = OBJECT_DIRECTION_UP;
+                                time = TIME_FT;
+                                break;
+                            case PE_TEACHER_INDEX:
+                                lessonIndex = PE_INDEX;
+                                x = PE_X;
+                                y = PE_Y;
+                                direction = OBJECT_DIRECTION_DOWN;
+                                break;
+                            case CHEM_TEACHER_INDEX:
+                                lessonIndex = CHEMISTRY_INDEX;
+                                x = CHEM_X;
+                                y = CHEM_Y;
+                                direction = OBJECT_DIRECTION_UP;
+                                time = TIME_CHEM;
+                                break;
+                            case ICT_TEACHER_INDEX:
+                                lessonIndex = ICT_INDEX;
+                                x = ICT_X;
+                                y = ICT_Y;
+                                direction = OBJECT_DIRECTION_UP;
+                                time = TIME_ICT;
+                                break;
+                        }
 
+                        GAME.getPlayer().setPoint(x, y);
+                        GAME.getPlayer().rotate(direction);
+                        GameActivity gameActivity = GameActivity.getInstance();
+                        if (lessonIndex == CHEMISTRY_INDEX || lessonIndex == ICT_INDEX) {
+                            GAME.setMiniGame(new LessonA(lessonIndex));
+                            gameActivity.displayLessonAUI();
+                            ((LessonA) GAME.getMiniGame()).refreshHUD();
+                        } else if (lessonIndex == DT_INDEX || lessonIndex == FT_INDEX) {
+                            GAME.setMiniGame(new LessonB(lessonIndex));
+                            GameActivity.getInstance().displayLessonBUI();
+                            ((LessonB) GAME.getMiniGame()).setUpSliderAnimation();
+                            ((LessonB) GAME.getMiniGame()).refreshHUD();
+                            ((LessonB) GAME.getMiniGame()).setCraftBarWidth();
+                        } else {
+                            GAME.setMiniGame(new LessonC());
+                            gameActivity.displayLessonCUI();
+                            GAME.loadMap(MAP_PE_ID);
+                            GAME.getPlayer().changeTile("pe");
+                            GAME.getPlayer().rotate(direction);
+                            ((LessonC) GAME.getMiniGame()).refreshHUD();
+                            gameActivity.findViewById(R.id.game_layout).setAlpha(0.5f);
+                            gameActivity.findViewById(R.id.lesson_c_map_menu).
+                                    setVisibility(View.VISIBLE);
+                            gameActivity.setUpLessonCMapPointAnimation();
+                        }
 
+                        int oldTime = GAME.getTime();
+                        GAME.setTime(time);
+                        GAME.reloadMap();
+                        GAME.changeBGM(R.raw._music_activity);
+                        GAME.setTime(oldTime);
                     }
-                    if (texts.get(conditions) != null) { texts.get(conditions).setTag(tag); }
+                };
+                structure = new TextBoxStructure(text, runnable1,
+                        false, npc);
+                break;
 
-                }
-            }
-        } catch (IOException | NumberFormatException e) {
-            e.printStackTrace();
+            case "buy":
+                runnable1 = new Runnable() {
+                    @Override
+                    public void run() {
+                        GameActivity.getInstance().displayBuyMenu(
+                                thisNPC.getShopItems(),
+                                thisNPC);
+                    }
+                };
+                runnable2 = new Runnable() {
+                    @Override
+                    public void run() {
+                        GAME.getPlayer().setResponseIndex(
+                                Integer.parseInt(runnableData[4]));
+                        GameActivity.getInstance().displayTextBox(getText());
+                        GAME.getPlayer().setResponseIndex(0);
+                    }
+                };
+                structure = new TextBoxStructure(text, runnableData[1],
+                        runnableData[2], runnable1, runnable2, npc);
+                break;
+
+            case "shop":
+                runnable1 = new Runnable() {
+                    @Override
+                    public void run() {
+                        GameActivity.getInstance().displayShopMenu(
+                                thisNPC.getShopItems(),
+                                new ArrayList<>(GAME.getItemSet()), thisNPC);
+                    }
+                };
+                runnable2 = new Runnable() {
+                    @Override
+                    public void run() {
+                        GAME.getPlayer().setResponseIndex(
+                                Integer.parseInt(runnableData[4]));
+                        GameActivity.getInstance().displayTextBox(getText());
+                        GAME.getPlayer().setResponseIndex(0);
+                    }
+                };
+                structure = new TextBoxStructure(text, runnableData[1],
+                        runnableData[2], runnable1, runnable2, npc);
+                break;
+
+            case "receive":
+                runnable1 = new Runnable() {
+                    @Override
+                    public void run() {
+                        GameActivity.getInstance().displayTextBox(
+                                new TextBoxStructure(runnableData[1]));
+                        switch (npcId) {
+                            case ATHLETE_INDEX:
+                                GAME.addItem(Item.getItem(KEY2_INDEX));
+                                GameActivity.getInstance().runOnUiThread(
+                                        new Runnable() {
+                                            @Override
+                                            public void run() {
+                                                GameActivity.getInstance().
+                                                        enableRunButton();
+                                            }
+                                        }
+                                );
+                                break;
+                            case CLASSMATE_INDEX:
+                                GAME.addItem(Item.getItem(KEY1_INDEX));
+                                break;
+                        }
+                        GAME.playJingle(R.raw._jingle_get_item);
+                    }
+                };
+                structure = new TextBoxStructure(text, runnable1,
+                        true, npc);
+                break;
+
+            case "notice":
+                runnable1 = new Runnable() {
+                    @Override
+                    public void run() {
+                        GameActivity.getInstance().displayTextBox(new TextBoxStructure(
+                                runnableData[1]
+                        ));
+                    }
+                };
+                structure = new TextBoxStructure(text, runnable1,
+                        true, npc);
+                break;
+
+            case "give":
+                runnable1 = new Runnable() {
+                    @Override
+                    public void run() {
+                        GameActivity.getInstance().runOnUiThread(new Runnable() {
+                            @Override
+                            public void run() {
+                                GameActivity.getInstance().displayInventory(
+                                        INVENTORY_GIVE, thisNPC);
+                            }
+                        });
+                    }
+                };
+                runnable2 = new Runnable() {
+                    @Override
+                    public void run() {
+                        GAME.addGivenNPC(thisNPC);
+                        GameActivity.getInstance().displayTextBox(getText());
+                        GAME.removeGivenNPC(thisNPC);
+                    }
+                };
+                structure = new TextBoxStructure(text, runnableData[1],
+                        runnableData[2], runnable1, runnable2, npc);
+                break;
+
+            case "lose heist":
+                runnable1 = new TextBoxRunnable(new TextBoxStructure(
+                        "> The teachers caught you in the act! You're suspended " +
+                                "from after school activities!",
+                        new Runnable() {
+                            @Override
+                            public void run() {
+                                final String before =
+                                        Game.getTimeKey(TIME_HEIST_PHASE_1).toUpperCase();
+                                GAME.setTime(
+                                        GAME.getProgressDataStructure().getTimeBeforeHeist());
+                                GAME.getProgressDataStructure().setLostHeist();
+                                final String after =
+                                        Game.getTimeKey(GAME.getTime()).toUpperCase();
+                                GameActivity.getInstance().
+                                        setSlideLoadingTransition(before, after);
+                                GAME.resetEventBGM();
+                                GAME.reloadMap();
+                                GameActivity.getInstance().runOnUiThread(new Runnable() {
+                                    @Override
+                                    public void run() {
+                                        GameActivity.getInstance().refreshHUD();
+                                    }
+                                });
+                            }
+                        }, true, null)
+                ) {
+                    @Override
+                    public void run(){
+                        GAME.loseHeist();
+                        GameActivity.getInstance().displayTextBox(textBox);
+                    }
+                };
+                structure = new TextBoxStructure(text, runnable1,
+                        true, npc);
         }
+        structure.setTag(line.tag);
+        return structure;
     }
 
     private void readNPCShop(Context context, int id) {
-        InputStream inputStream = context.getResources().openRawResource(id);
-
         shopItems = new HashMap<>();
 
-        InputStreamReader inputStreamReader = new InputStreamReader(inputStream);
-        BufferedReader bufferedReader = new BufferedReader(inputStreamReader);
-        String line;
         try {
-            while ((line = bufferedReader.readLine()) != null) {
-                String[] split = line.replaceAll("(^.*?\\[|]\\s*$)", "").
-                        split("]\\[");
-                String key = split[0];
+            for (String[] split : RecordReader.readRecords(context, id)) {
+                Condition condition = ExpressionAnalyser.compile(split[0]);
                 Item item = Item.getItem(Integer.parseInt(split[1]));
-                shopItems.put(item, key);
+                shopItems.put(item, condition);
             }
-        } catch (IOException | NumberFormatException e) {
+        } catch (NumberFormatException e) {
             e.printStackTrace();
         }
     }
 
     private ArrayList<Item> getShopItems() {
         ArrayList<Item> items = new ArrayList<>();
-        for (Map.Entry<Item, String> entry : shopItems.entrySet()) {
-            if (ExpressionAnalyser.analyse(entry.getValue(), this)) {
+        for (Map.Entry<Item, Condition> entry : shopItems.entrySet()) {
+            if (entry.getValue().evaluate(this)) {
                 items.add(entry.getKey());
             }
         }
@@ -1207,7 +1158,10 @@ public class NPC extends GameCharacter {
     @Override
     public void update() throws NullPointerException {
         moving = movingUp || movingDown || movingLeft || movingRight;
-        if (GAME.isPlayerSpottedByNPC() && !spottedPlayer) { return; }
+        if (GAME.isPlayerSpottedByNPC() && !spottedPlayer) {
+            releaseSightLine();
+            return;
+        }
         if (!moving && willWait) { waiting = true; }
         if (waiting) {
             rotate(GAME.getPlayer());
@@ -1226,6 +1180,7 @@ public class NPC extends GameCharacter {
                         }
                 );
             }
+            releaseSightLine();
             return;
         }
         else if (ctrl != null) {
@@ -1255,41 +1210,27 @@ public class NPC extends GameCharacter {
             move();
         }
 
-        if (hostile) {
-            setHostileTiles(direction);
-        }
+        if (hostile) { updateSightLine(); }
     }
 
     public static void readNPCNames(Context context) {
-        InputStream inputStream = context.getResources().openRawResource(R.raw._npcs_names);
-
         names = new SparseArray<>();
 
-        InputStreamReader inputStreamReader = new InputStreamReader(inputStream);
-        BufferedReader bufferedReader = new BufferedReader(inputStreamReader);
-        String line;
         try {
-            while ((line = bufferedReader.readLine()) != null) {
+            for (String line : RecordReader.readLines(context, R.raw._npcs_names)) {
                 String[] split = line.split(",");
                 names.put(Integer.parseInt(split[0]), split[1]);
             }
-        } catch (IOException | NumberFormatException e) {
+        } catch (NumberFormatException e) {
             e.printStackTrace();
         }
     }
 
     public static void readNPCItems(Context context) {
-        InputStream inputStream = context.getResources().openRawResource(R.raw._npcs_items);
-
         npcItems = new SparseArray<>();
 
-        InputStreamReader inputStreamReader = new InputStreamReader(inputStream);
-        BufferedReader bufferedReader = new BufferedReader(inputStreamReader);
-        String line;
         try {
-            while ((line = bufferedReader.readLine()) != null) {
-                String[] split = line.replaceAll("(^.*?\\[|]\\s*$)", "").
-                        split("]\\[");
+            for (String[] split : RecordReader.readRecords(context, R.raw._npcs_items)) {
                 int key = -1;
                 switch (split[0]) {
                     case "classmate":
@@ -1309,8 +1250,125 @@ public class NPC extends GameCharacter {
                         new NPCItemStructure(Item.getItem(Integer.parseInt(itemInfo[0])),
                                 Integer.parseInt(itemInfo[1])));
             }
-        } catch (IOException | NumberFormatException e) {
+        } catch (NumberFormatException e) {
             e.printStackTrace();
         }
     }
 }
+
+class SightLine {
+
+    private static final int LENGTH = 3;
+
+    private final int[] xs = new int[LENGTH];
+    private final int[] ys = new int[LENGTH];
+    private int length;
+
+    private final ArrayList<GameCharacter> characters = new ArrayList<>(LENGTH);
+
+    private TileMap tileMap;
+    private int generation;
+    private int version;
+
+    private int x;
+    private int y;
+    private int direction;
+    private int playerX;
+    private int playerY;
+    private boolean spotsPlayer;
+
+    /*---------------------------------------------------------------------------------------------
+    | Methods
+    ----------------------------------------------------------------------------------------------*/
+
+    /*
+     * Returns whether the player is in sight. The line is only walked again if the NPC has moved
+     * or turned, the player has moved, or the map's collisions have changed.
+     *
+     * The characters within sight are found with the character index, and the nearest of them
+     * on the line is kept. A character blocks the line like any other collision, unless it is the
+     * player, who is then spotted.
+     */
+    boolean update(TileMap tileMap, CharacterIndex index, int x, int y, int direction,
+                   GameCharacter player) {
+        int playerX = player.x;
+        int playerY = player.y;
+        if (tileMap == this.tileMap && tileMap.getHostileGeneration() == generation
+                && tileMap.getCollisionVersion() == version && x == this.x && y == this.y
+                && direction == this.direction && playerX == this.playerX
+                && playerY == this.playerY) {
+            return spotsPlayer;
+        }
+        release();
+
+        this.tileMap = tileMap;
+        generation = tileMap.getHostileGeneration();
+        version = tileMap.getCollisionVersion();
+        this.x = x;
+        this.y = y;
+        this.direction = direction;
+        this.playerX = playerX;
+        this.playerY = playerY;
+        spotsPlayer = false;
+
+        int dx = 0;
+        int dy = 0;
+        switch (direction) {
+            case OBJECT_DIRECTION_UP:
+                dy = -1;
+                break;
+            case OBJECT_DIRECTION_DOWN:
+                dy = 1;
+                break;
+            case OBJECT_DIRECTION_LEFT:
+                dx = -1;
+                break;
+            case OBJECT_DIRECTION_RIGHT:
+                dx = 1;
+                break;
+            default:
+                return false;
+        }
+
+        index.getInRange(x, y, LENGTH, characters);
+        GameCharacter nearest = null;
+        int nearestDistance = LENGTH + 1;
+        for (GameCharacter gc : characters) {
+            int distance = ((gc.x - x) * dx) + ((gc.y - y) * dy);
+            if (distance > 0 && distance < nearestDistance && gc.x == x + (distance * dx)
+                    && gc.y == y + (distance * dy)) {
+                nearest = gc;
+                nearestDistance = distance;
+            }
+        }
+
+        for (int i = 1; i <= LENGTH; i++) {
+            int tileX = x + (i * dx);
+            int tileY = y + (i * dy);
+            try {
+                if (tileMap.isCollidable(tileX, tileY) || tileMap.isDoorPoint(tileX, tileY)) {
+                    if (nearest == player && playerX == tileX && playerY == tileY) {
+                        spotsPlayer = true;
+                    }
+                    else { break; }
+                }
+                tileMap.addHostileTile(tileX, tileY);
+                xs[length] = tileX;
+                ys[length] = tileY;
+                length++;
+            } catch (NullPointerException | ArrayIndexOutOfBoundsException e) {
+                //Ignore empty tiles
+            }
+        }
+        return spotsPlayer;
+    }
+
+    void release() {
+        if (tileMap != null && tileMap.getHostileGeneration() == generation) {
+            for (int i = 0; i < length; i++) { tileMap.removeHostileTile(xs[i], ys[i]); }
+        }
+        tileMap = null;
+        length = 0;
+    }
+
+}
@@ -9,14 +9,11 @@ import com.lmweav.schoolquest.R;
 import com.lmweav.schoolquest.minigames.LessonC;
 import com.lmweav.schoolquest.minigames.MiniGame;
 import com.lmweav.schoolquest.tiles.TileMap;
-import com.lmweav.schoolquest.tiles.TileSet;
 import com.lmweav.schoolquest.utilities.TextBoxStructure;
-import com.lmweav.schoolquest.utilities.pathfinding.AStarPathFinder;
 import com.lmweav.schoolquest.utilities.pathfinding.Path;
 import com.lmweav.schoolquest.tiles.InteractiveTile;
 import com.lmweav.schoolquest.tiles.Tile;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -63,40 +60,35 @@ public class Player extends GameCharacter {
         this.name = name;
 
         for (Map.Entry<String, Integer> imgId : imgIds.entrySet()) {
-            TileSet tileSet = new TileSet(context, imgId.getValue());
-            ArrayList<Tile> tiles = tileSet.createGameCharacterTileList();
-
-            tileSets.put(imgId.getKey(), tiles);
+            tileSets.put(imgId.getKey(), acquireSheet(context, imgId.getValue()));
         }
 
-        tile = tiles.get(OBJECT_TILESET_UP_INDEX);
+        tile = new Tile(tiles.get(OBJECT_TILESET_UP_INDEX));
         pathIndex = 1;
         animIndex = 1;
         speed = 2;
     }
 
-    public Player(Context context, Player player) {
-        super(context, R.drawable._tilesets_objects_player, player.x, player.y);
-        this.name = player.name;
+    public Player(Context context, int x, int y, String name, int direction, int speed,
+                  int condition, boolean eaten, int[] buffs) {
+        super(context, R.drawable._tilesets_objects_player, x, y);
+        this.name = name;
 
         for (Map.Entry<String, Integer> imgId : imgIds.entrySet()) {
-            TileSet tileSet = new TileSet(context, imgId.getValue());
-            ArrayList<Tile> tiles = tileSet.createGameCharacterTileList();
-
-            tileSets.put(imgId.getKey(), tiles);
+            tileSets.put(imgId.getKey(), acquireSheet(context, imgId.getValue()));
         }
 
         pathIndex = 1;
         animIndex = 1;
-        direction = player.direction;
-        tile = tiles.get(OBJECT_TILESET_UP_INDEX);
+        this.direction = direction;
+        tile = new Tile(tiles.get(OBJECT_TILESET_UP_INDEX));
         rotate(direction);
 
-        speed = player.speed;
-        condition = player.condition;
-        eaten = player.eaten;
-        buffs[0] = player.buffs[0];
-        buffs[1] = player.buffs[1];
+        this.speed = speed;
+        this.condition = condition;
+        this.eaten = eaten;
+        this.buffs[0] = buffs[0];
+        this.buffs[1] = buffs[1];
     }
 
     /*---------------------------------------------------------------------------------------------
@@ -170,8 +162,7 @@ public class Player extends GameCharacter {
                 gX = x * SCALED_TILE_SIZE;
                 gY = y * SCALED_TILE_SIZE;
             }
-            path = new AStarPathFinder(tileMap, 30).
-                    findPath(x, y, goalX, goalY);
+            path = tileMap.getPathFinder().findPath(x, y, goalX, goalY);
             pathIndex = 1;
             if (path != null && pathIndex == path.getLength() - 1) { path = null; }
             if (path == null) {
@@ -384,10 +375,8 @@ public class Player extends GameCharacter {
         }
 
         if (path == null && newGoal != null) {
-            AStarPathFinder pathFinder =
-                    new AStarPathFinder(GAME.getTileMap(), 30);
-            Path path = pathFinder.findPath(GAME.getPlayer().getX(), GAME.getPlayer().getY(),
-                    newGoal.x, newGoal.y);
+            Path path = GAME.getTileMap().getPathFinder().findPath(GAME.getPlayer().getX(),
+                    GAME.getPlayer().getY(), newGoal.x, newGoal.y);
 
             if (path != null) {
                 if (GAME.isGameCharacterInMap(newGoal.x, newGoal.y)) {
@@ -441,6 +430,7 @@ public class Player extends GameCharacter {
         this.y = y;
         gX = x * SCALED_TILE_SIZE;
         gY = y * SCALED_TILE_SIZE;
+        if (GAME.getCharacterIndex() != null) { GAME.getCharacterIndex().relocate(this); }
 
         path = null;
         pathIndex = 1;
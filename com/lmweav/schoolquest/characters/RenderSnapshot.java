@@ -0,0 +1,238 @@
+package com.lmweav.schoolquest.characters;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Point;
+
+import com.lmweav.schoolquest.tiles.Tile;
+import com.lmweav.schoolquest.tiles.TileMap;
+import com.lmweav.schoolquest.tiles.TileMapFrame;
+import com.lmweav.schoolquest.utilities.Camera;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.lmweav.schoolquest.Constants.*;
+import static com.lmweav.schoolquest.Game.GAME;
+
+/*
+ * School Quest: RenderSnapshot
+ * This class hands the visible game characters, and the camera and map they are drawn with, from
+ * the game thread to the renderer without locks.
+ *
+ * It is triple buffered. The game thread fills the back frame at the end of each tick and swaps it
+ * with the ready frame. The renderer swaps the ready frame with its front frame only if a new one
+ * has been published since, and then draws from the front frame. Neither side ever waits for the
+ * other, and the renderer never reads a character or the camera while it is being updated.
+ *
+ * The map, the destination highlight, the characters and the hostile tiles are all drawn from the
+ * same frame, so they always agree on where the camera is. The tiles drawn over the map's chunks
+ * are published with the frame too (see TileMapFrame), and emotions are kept by their id.
+ *
+ * There is 1 support class declared here: RenderFrame - which holds the camera, the map overlays
+ * and the positions, sprite frame and emotion of each character to draw.
+ *
+ * @author Luke Weaver
+ * @version 1.0.9
+ * @since 2019-10-16
+ */
+public class RenderSnapshot {
+
+    private static final int NEW_FRAME = 4;
+
+    private final RenderFrame[] frames = { new RenderFrame(), new RenderFrame(),
+            new RenderFrame() };
+    private final AtomicInteger ready = new AtomicInteger(1);
+
+    private int back = 0;
+    private int front = 2;
+
+    /*---------------------------------------------------------------------------------------------
+    | Methods
+    ----------------------------------------------------------------------------------------------*/
+
+    /*
+     * Called by the game thread only.
+     */
+    public void publish(List<GameCharacter> characters, boolean drawEmotions, TileMap tileMap,
+                        Camera camera, Point destination, boolean hostileTilesVisible) {
+        RenderFrame frame = frames[back];
+        frame.set(characters, drawEmotions);
+        frame.setMap(tileMap, camera, destination, hostileTilesVisible);
+        back = ready.getAndSet(back | NEW_FRAME) & ~NEW_FRAME;
+    }
+
+    /*
+     * Called by the renderer only, before drawing each frame. Takes the newest published frame
+     * and fixes the camera position it is drawn at.
+     */
+    public void begin() {
+        if ((ready.get() & NEW_FRAME) != 0) { front = ready.getAndSet(front) & ~NEW_FRAME; }
+        frames[front].interpolateCamera();
+    }
+
+    public void drawMap(Canvas canvas, Paint paint) { frames[front].drawMap(canvas, paint); }
+
+    public void drawDestination(Canvas canvas, Paint paint) {
+        frames[front].drawDestination(canvas, paint);
+    }
+
+    public void drawCharacters(Canvas canvas, Paint paint) {
+        frames[front].drawCharacters(canvas, paint);
+    }
+
+    public void drawHostileTiles(Canvas canvas, Paint paint) {
+        frames[front].drawHostileTiles(canvas, paint);
+    }
+
+}
+
+class RenderFrame {
+
+    private int count;
+
+    private Tile[] sprites = new Tile[0];
+    private int[] emotions = new int[0];
+    private int[] previousGX = new int[0];
+    private int[] previousGY = new int[0];
+    private int[] gX = new int[0];
+    private int[] gY = new int[0];
+
+    private TileMap tileMap;
+    private final TileMapFrame mapFrame = new TileMapFrame();
+
+    private int cameraX;
+    private int cameraY;
+    private int cameraPreviousGX;
+    private int cameraPreviousGY;
+    private int cameraGX;
+    private int cameraGY;
+    private int cameraDiffX;
+    private int cameraDiffY;
+
+    private int drawGX;
+    private int drawGY;
+
+    private boolean hasDestination;
+    private int destinationX;
+    private int destinationY;
+
+    private int hostileTileCount;
+    private int[] hostileTiles = new int[0];
+
+    /*---------------------------------------------------------------------------------------------
+    | Methods
+    ----------------------------------------------------------------------------------------------*/
+
+    /*
+     * The sprites are copies whose image is set from each character's tile, so a character
+     * changing its sprite frame does not change a published frame.
+     */
+    void set(List<GameCharacter> characters, boolean drawEmotions) {
+        count = characters.size();
+        if (count > sprites.length) { grow(count); }
+
+        for (int i = 0; i < count; i++) {
+            GameCharacter gc = characters.get(i);
+
+            if (sprites[i] == null) { sprites[i] = new Tile(gc.tile); }
+            else { sprites[i].setImage(gc.tile); }
+
+            Emotion emotion = gc.emotion;
+            emotions[i] = drawEmotions && emotion != null ? emotion.getId() : -1;
+
+            previousGX[i] = gc.getPreviousGX();
+            previousGY[i] = gc.getPreviousGY();
+            gX[i] = gc.gX;
+            gY[i] = gc.gY;
+        }
+    }
+
+    void setMap(TileMap tileMap, Camera camera, Point destination,
+                boolean hostileTilesVisible) {
+        this.tileMap = tileMap;
+        tileMap.publishView(mapFrame);
+
+        cameraX = camera.getX();
+        cameraY = camera.getY();
+        cameraPreviousGX = camera.getPreviousGX();
+        cameraPreviousGY = camera.getPreviousGY();
+        cameraGX = camera.getGX();
+        cameraGY = camera.getGY();
+        cameraDiffX = camera.getDiffX();
+        cameraDiffY = camera.getDiffY();
+
+        hasDestination = destination != null;
+        if (hasDestination) {
+            destinationX = destination.x;
+            destinationY = destination.y;
+        }
+
+        hostileTileCount = hostileTilesVisible ? tileMap.getHostileTileCount() : 0;
+        if (hostileTileCount * 2 > hostileTiles.length) {
+            hostileTiles = new int[hostileTileCount * 2];
+        }
+        for (int i = 0; i < hostileTileCount; i++) {
+            hostileTiles[i * 2] = tileMap.getHostileTileX(i);
+            hostileTiles[(i * 2) + 1] = tileMap.getHostileTileY(i);
+        }
+    }
+
+    private void grow(int size) {
+        sprites = Arrays.copyOf(sprites, size);
+        emotions = Arrays.copyOf(emotions, size);
+        previousGX = Arrays.copyOf(previousGX, size);
+        previousGY = Arrays.copyOf(previousGY, size);
+        gX = Arrays.copyOf(gX, size);
+        gY = Arrays.copyOf(gY, size);
+    }
+
+    void interpolateCamera() {
+        drawGX = GAME.interpolate(cameraPreviousGX, cameraGX);
+        drawGY = GAME.interpolate(cameraPreviousGY, cameraGY);
+    }
+
+    /*
+     * The offsets of the camera from its tile, including the interpolation between ticks.
+     */
+    private int getDiffX() { return cameraDiffX + drawGX - cameraGX; }
+
+    private int getDiffY() { return cameraDiffY + drawGY - cameraGY; }
+
+    void drawMap(Canvas canvas, Paint paint) {
+        if (tileMap == null) { return; }
+        tileMap.draw(canvas, paint, mapFrame, cameraX, cameraY, drawGX, drawGY, getDiffX(),
+                getDiffY());
+    }
+
+    void drawDestination(Canvas canvas, Paint paint) {
+        if (hasDestination) { drawTile(canvas, destinationX, destinationY, paint); }
+    }
+
+    void drawHostileTiles(Canvas canvas, Paint paint) {
+        for (int i = 0; i < hostileTileCount; i++) {
+            drawTile(canvas, hostileTiles[i * 2], hostileTiles[(i * 2) + 1], paint);
+        }
+    }
+
+    private void drawTile(Canvas canvas, int x, int y, Paint paint) {
+        int left = ((x - cameraX) * SCALED_TILE_SIZE) - getDiffX();
+        int top = ((y - cameraY) * SCALED_TILE_SIZE) - getDiffY();
+        canvas.drawRect(left, top, left + SCALED_TILE_SIZE, top + SCALED_TILE_SIZE, paint);
+    }
+
+    void drawCharacters(Canvas canvas, Paint paint) {
+        for (int i = 0; i < count; i++) {
+            int left = GAME.interpolate(previousGX[i], gX[i]) - drawGX;
+            int top = GAME.interpolate(previousGY[i], gY[i]) - drawGY;
+
+            sprites[i].draw(canvas, left, top, paint);
+            if (emotions[i] > -1) {
+                Emotion.getEmotionTile(emotions[i]).draw(canvas, left, top - SCALED_TILE_SIZE,
+                        paint);
+            }
+        }
+    }
+
+}
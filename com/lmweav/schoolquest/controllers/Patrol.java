@@ -22,6 +22,9 @@ import static com.lmweav.schoolquest.Constants.SCALED_TILE_SIZE;
  */
 public class Patrol implements Controller, Serializable {
 
+    // The id the class had before it was declared, so saves from then can still be read
+    private static final long serialVersionUID = -1303838741756460185L;
+
     private int index;
     private double step;
     private Action action;
@@ -49,6 +52,17 @@ public class Patrol implements Controller, Serializable {
 
     public void setObject(GameCharacter object) { this.object = object; }
 
+    public SerializablePoint[] getPoints() { return points; }
+
+    public int getIndex() { return index; }
+
+    public double getStep() { return step; }
+
+    public void setProgress(int index, double step) {
+        this.index = index;
+        this.step = step;
+    }
+
     /*---------------------------------------------------------------------------------------------
     | Methods
     ----------------------------------------------------------------------------------------------*/
@@ -16,6 +16,9 @@ import static com.lmweav.schoolquest.Constants.RANDOM_STOP_CHANCE;
  */
 public class RandomMovement implements Controller, Serializable {
 
+    // The id the class had before it was declared, so saves from then can still be read
+    private static final long serialVersionUID = -1418531345952011317L;
+
     private double chance;
     private Action action;
 
@@ -30,6 +33,12 @@ public class RandomMovement implements Controller, Serializable {
         action.setStop(stop);
     }
 
+    /*---------------------------------------------------------------------------------------------
+    | Getters and Setters
+    ----------------------------------------------------------------------------------------------*/
+
+    public boolean isStopping() { return chance == RANDOM_STOP_CHANCE; }
+
     /*---------------------------------------------------------------------------------------------
     | Methods
     ----------------------------------------------------------------------------------------------*/
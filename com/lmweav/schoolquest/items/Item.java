@@ -9,12 +9,9 @@ import android.util.SparseArray;
 
 import com.lmweav.schoolquest.GameActivity;
 import com.lmweav.schoolquest.R;
+import com.lmweav.schoolquest.utilities.RecordReader;
 import com.lmweav.schoolquest.utilities.TextBoxStructure;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.Serializable;
 
 import androidx.annotation.NonNull;
@@ -128,18 +125,11 @@ public class Item implements Comparable, Serializable {
     public static void readItems(Context context) {
         empty = BitmapFactory.decodeResource(context.getResources(),
                 R.drawable._ui_main_inventory_item_empty);
-        InputStream inputStream = context.getResources().openRawResource(R.raw._items);
-
         items = new SparseArray<>();
 
-        InputStreamReader inputStreamReader = new InputStreamReader(inputStream);
-        BufferedReader bufferedReader = new BufferedReader(inputStreamReader);
-        String line;
         try {
-            while ((line = bufferedReader.readLine()) != null) {
+            for (String[] split : RecordReader.readRecords(context, R.raw._items)) {
                 Runnable effect = null;
-                String[] split = line.replaceAll("(^.*?\\[|]\\s*$)", "").
-                        split("]\\[");
 
                 final String[] itemInfo = split[0].split(",");
                 final int id = Integer.parseInt(itemInfo[0]);
@@ -355,7 +345,7 @@ public class Item implements Comparable, Serializable {
                         Integer.parseInt(itemInfo[3]), Integer.parseInt(itemInfo[4]) == 1,
                         itemInfo[1], split[1], icon, effect));
             }
-        } catch (IOException | NumberFormatException e) {
+        } catch (NumberFormatException e) {
             e.printStackTrace();
         }
     }
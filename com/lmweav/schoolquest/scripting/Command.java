@@ -1,13 +1,15 @@
 package com.lmweav.schoolquest.scripting;
 
 import com.lmweav.schoolquest.characters.GameCharacter;
+import com.lmweav.schoolquest.tiles.TileMap;
 
 /*
  * School Quest: Command
  * This abstract class is used to define script behaviours.
  *
  * This behaviour is defined in the execute method, with the reset method used to set the
- * object to its initial state.
+ * object to its initial state. Commands that move a character find their paths in the plan
+ * method, which is called once, when the script is first loaded.
  *
  * @author Luke Weaver
  * @version 1.0.9
@@ -26,4 +28,6 @@ abstract class Command {
     abstract void execute();
 
     abstract void reset();
+
+    void plan(TileMap tileMap) { }
 }
@@ -4,7 +4,6 @@ import com.lmweav.schoolquest.characters.GameCharacter;
 import com.lmweav.schoolquest.characters.NPC;
 import com.lmweav.schoolquest.characters.Player;
 import com.lmweav.schoolquest.tiles.TileMap;
-import com.lmweav.schoolquest.utilities.pathfinding.AStarPathFinder;
 import com.lmweav.schoolquest.utilities.pathfinding.Path;
 
 import static com.lmweav.schoolquest.Constants.*;
@@ -23,6 +22,10 @@ public class DirectionCommand extends Command {
 
     private Path path;
 
+    private int startX;
+    private int startY;
+    private int destinationX;
+    private int destinationY;
     private int direction;
     private int speed;
 
@@ -30,16 +33,15 @@ public class DirectionCommand extends Command {
     | Constructors
     ----------------------------------------------------------------------------------------------*/
 
-    DirectionCommand(TileMap tileMap, GameCharacter actor, int direction, int speed,
-                            int steps) {
+    DirectionCommand(GameCharacter actor, int direction, int speed, int steps) {
         this.actor = actor;
         this.direction = direction;
         this.speed = speed;
 
-        AStarPathFinder pathFinder = new AStarPathFinder(tileMap, 30);
-
-        int destinationX = actor.getX();
-        int destinationY = actor.getY();
+        startX = actor.getX();
+        startY = actor.getY();
+        destinationX = startX;
+        destinationY = startY;
         switch (direction) {
             case OBJECT_DIRECTION_UP:
                 destinationY = actor.getY() - steps;
@@ -57,7 +59,6 @@ public class DirectionCommand extends Command {
                 destinationX = actor.getX() + steps;
                 break;
         }
-        path = pathFinder.findPath(actor.getX(), actor.getY(), destinationX, destinationY);
     }
 
     /*---------------------------------------------------------------------------------------------
@@ -75,6 +76,11 @@ public class DirectionCommand extends Command {
         }
     }
 
+    @Override
+    void plan(TileMap tileMap) {
+        path = tileMap.getPathFinder().findPath(startX, startY, destinationX, destinationY);
+    }
+
     @Override
     public void reset() { finished = false; }
 }
@@ -4,7 +4,6 @@ import com.lmweav.schoolquest.characters.GameCharacter;
 import com.lmweav.schoolquest.characters.NPC;
 import com.lmweav.schoolquest.characters.Player;
 import com.lmweav.schoolquest.tiles.TileMap;
-import com.lmweav.schoolquest.utilities.pathfinding.AStarPathFinder;
 import com.lmweav.schoolquest.utilities.pathfinding.Path;
 
 /*
@@ -20,6 +19,10 @@ public class PathCommand extends Command {
 
     private Path path;
 
+    private int startX;
+    private int startY;
+    private int destinationX;
+    private int destinationY;
     private int speed;
 
     private boolean started;
@@ -28,12 +31,14 @@ public class PathCommand extends Command {
     | Constructors
     ----------------------------------------------------------------------------------------------*/
 
-    PathCommand(TileMap tileMap, GameCharacter actor, int startX, int startY,
-                       int destinationX, int destinationY, int speed) {
+    PathCommand(GameCharacter actor, int startX, int startY, int destinationX, int destinationY,
+                int speed) {
         this.actor = actor;
+        this.startX = startX;
+        this.startY = startY;
+        this.destinationX = destinationX;
+        this.destinationY = destinationY;
         this.speed = speed;
-        AStarPathFinder pathFinder = new AStarPathFinder(tileMap, 30);
-        path = pathFinder.findPath(startX, startY, destinationX, destinationY);
     }
 
     /*---------------------------------------------------------------------------------------------
@@ -59,6 +64,11 @@ public class PathCommand extends Command {
         }
     }
 
+    @Override
+    void plan(TileMap tileMap) {
+        path = tileMap.getPathFinder().findPath(startX, startY, destinationX, destinationY);
+    }
+
     @Override
     public void reset() {
         finished = false;
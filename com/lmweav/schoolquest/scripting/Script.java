@@ -10,11 +10,8 @@ import com.lmweav.schoolquest.characters.GameCharacter;
 import com.lmweav.schoolquest.characters.NPC;
 import com.lmweav.schoolquest.characters.NPCDataStructure;
 import com.lmweav.schoolquest.tiles.TileMap;
+import com.lmweav.schoolquest.utilities.RecordReader;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -62,7 +59,8 @@ public class Script {
     private HashMap<String, GameCharacter> actors = new HashMap<>();
     private ArrayList<NPC> npcs = new ArrayList<>();
 
-    private TileMap scriptMap;
+    private int scriptMapId;
+    private boolean planned;
 
     private int[] endInfo = new int[] {-1, -1, -1, -1, -1, -1};
 
@@ -73,27 +71,20 @@ public class Script {
     ----------------------------------------------------------------------------------------------*/
 
     private Script(Context context, int id, int bgm, boolean skippable) {
-        InputStream inputStream = context.getResources().openRawResource(id);
-
-        InputStreamReader inputStreamReader = new InputStreamReader(inputStream);
-        BufferedReader bufferedReader = new BufferedReader(inputStreamReader);
-        String line;
         boolean scriptStart = false;
         boolean scriptEnd = false;
         commands.put(null, new LinkedList<Command>());
         try {
-            while ((line = bufferedReader.readLine()) != null) {
-                if (line.contains("\\\\\\\\")) {
+            for (String[] split : RecordReader.readRecords(context, id)) {
+                if (contains(split, "\\\\\\\\")) {
                     scriptStart = false;
                     scriptEnd = true;
                 }
-                if (line.contains("////")) {
+                if (contains(split, "////")) {
                     scriptStart = true;
                     scriptEnd = false;
                 }
                 else {
-                    String[] split = line.replaceAll("(^.*?\\[|]\\s*$)", "").
-                            split("]\\[");
                     if (scriptStart) { readScriptLine(split); }
                     else if (scriptEnd) { readScriptEnd(split); }
                     else { readScriptMeta(context, split); }
@@ -102,7 +93,7 @@ public class Script {
             for (GameCharacter gc: actors.values()) {
                 if (gc instanceof NPC) { npcs.add((NPC) gc); }
             }
-        } catch (IOException | NumberFormatException e) {
+        } catch (NumberFormatException e) {
             e.printStackTrace();
         }
 
@@ -117,7 +108,7 @@ public class Script {
 
     public static Script getScript(int index) { return scripts.get(index); }
 
-    public int getMapId() { return scriptMap.getId(); }
+    public int getMapId() { return scriptMapId; }
 
     public int getPlayerX() { return playerX; }
 
@@ -154,20 +145,45 @@ public class Script {
     ----------------------------------------------------------------------------------------------*/
 
     public static void loadScripts(Context context) {
-        scripts.put(TRACK_CLUB_CUTSCENE, new Script(context, R.raw._cutscene_track_club,
+        addScript(TRACK_CLUB_CUTSCENE, new Script(context, R.raw._cutscene_track_club,
                 R.raw._music_activity, true));
-        scripts.put(CHEMISTRY_CUTSCENE, new Script(context, R.raw._cutscene_chemistry,
+        addScript(CHEMISTRY_CUTSCENE, new Script(context, R.raw._cutscene_chemistry,
                 R.raw._music_activity, true));
-        scripts.put(CHEMISTRY_HEIST_CUTSCENE, new Script(context, R.raw._cutscene_chemistry_heist,
+        addScript(CHEMISTRY_HEIST_CUTSCENE, new Script(context, R.raw._cutscene_chemistry_heist,
                 R.raw._music_activity, false));
-        scripts.put(DT_HEIST_CUTSCENE, new Script(context, R.raw._cutscene_dt_heist,
+        addScript(DT_HEIST_CUTSCENE, new Script(context, R.raw._cutscene_dt_heist,
                 R.raw._music_activity, false));
-        scripts.put(TUTORING_CUTSCENE, new Script(context, R.raw._cutscene_tutoring,
+        addScript(TUTORING_CUTSCENE, new Script(context, R.raw._cutscene_tutoring,
                 R.raw._music_activity, true));
-        scripts.put(TUTORING_HEIST_CUTSCENE, new Script(context, R.raw._cutscene_tutoring_heist,
+        addScript(TUTORING_HEIST_CUTSCENE, new Script(context, R.raw._cutscene_tutoring_heist,
                 R.raw._music_activity, false));
     }
 
+    /*
+     * A script read again, when the game activity is created again, replaces the old one, whose
+     * actors are released.
+     */
+    private static void addScript(int index, Script script) {
+        Script old = scripts.get(index);
+        if (old != null) { old.releaseActors(); }
+        scripts.put(index, script);
+    }
+
+    /*
+     * Releases the sprite sheets of the script's NPCs. They keep the frames they already hold, so
+     * a script that is run again still draws them.
+     */
+    private void releaseActors() {
+        for (NPC npc : npcs) { npc.release(); }
+    }
+
+    private static boolean contains(String[] record, String marker) {
+        for (String field : record) {
+            if (field.contains(marker)) { return true; }
+        }
+        return false;
+    }
+
     boolean isCommandFinished(@NonNull GameCharacter actor, int index) {
         LinkedList<Command> commands = commandsCopy.get(actor);
         return commands.isEmpty() || commands.peek().lineIndex > index;
@@ -201,8 +217,8 @@ public class Script {
                     int destinationY = Integer.parseInt(pointData[1]);
                     speed = Integer.parseInt(commandData[1]);
 
-                    command = new PathCommand(scriptMap,
-                            actor, oldDestX, oldDestY, destinationX, destinationY, speed);
+                    command = new PathCommand(actor, oldDestX, oldDestY, destinationX,
+                            destinationY, speed);
                     command.lineIndex = lineIndex;
                     commands.get(actor).add(command);
 
@@ -226,7 +242,7 @@ public class Script {
                 steps = Integer.parseInt(commandData[2]);
 
                 assert actor != null;
-                command = new DirectionCommand(scriptMap, actor, OBJECT_DIRECTION_UP, speed, steps);
+                command = new DirectionCommand(actor, OBJECT_DIRECTION_UP, speed, steps);
                 command.lineIndex = lineIndex;
                 commands.get(actor).add(command);
                 break;
@@ -235,7 +251,7 @@ public class Script {
                 steps = Integer.parseInt(commandData[2]);
 
                 assert actor != null;
-                command = new DirectionCommand(scriptMap, actor, OBJECT_DIRECTION_DOWN, speed, steps);
+                command = new DirectionCommand(actor, OBJECT_DIRECTION_DOWN, speed, steps);
                 command.lineIndex = lineIndex;
                 commands.get(actor).add(command);
                 break;
@@ -244,7 +260,7 @@ public class Script {
                 steps = Integer.parseInt(commandData[2]);
 
                 assert actor != null;
-                command = new DirectionCommand(scriptMap, actor, OBJECT_DIRECTION_LEFT, speed, steps);
+                command = new DirectionCommand(actor, OBJECT_DIRECTION_LEFT, speed, steps);
                 command.lineIndex = lineIndex;
                 commands.get(actor).add(command);
                 break;
@@ -253,7 +269,7 @@ public class Script {
                 steps = Integer.parseInt(commandData[2]);
 
                 assert actor != null;
-                command = new DirectionCommand(scriptMap, actor, OBJECT_DIRECTION_RIGHT, speed, steps);
+                command = new DirectionCommand(actor, OBJECT_DIRECTION_RIGHT, speed, steps);
                 command.lineIndex = lineIndex;
                 commands.get(actor).add(command);
                 break;
@@ -343,9 +359,7 @@ public class Script {
         String[] info = line[0].split("\\|");
         switch (info[0]) {
             case "map":
-                int mapId = Game.getMapId(info[1]);
-
-                scriptMap = TileMap.getMap(mapId);
+                scriptMapId = Game.getMapId(info[1]);
                 break;
             case "actor":
                 GameCharacter actor;
@@ -392,6 +406,24 @@ public class Script {
         }
     }
 
+    /*
+     * Finds the paths of the script's commands on its map. This is done when the script is first
+     * loaded rather than when it is read, so reading the scripts does not build their maps.
+     *
+     * The paths are found around the map's static collisions only. The characters' collisions are
+     * removed first, as the actors are placed by the script and the map's own NPCs are not in the
+     * cutscene; they are set again when the map is next loaded (see Game.reloadMap).
+     */
+    public void planPaths() {
+        if (planned) { return; }
+        TileMap tileMap = TileMap.getMap(scriptMapId);
+        tileMap.removeNPCCollisions();
+        for (LinkedList<Command> actorCommands : commands.values()) {
+            for (Command command : actorCommands) { command.plan(tileMap); }
+        }
+        planned = true;
+    }
+
     public void copyCommands() {
         commandsCopy = new HashMap<>();
         for (Map.Entry<GameCharacter, LinkedList<Command>> entry : commands.entrySet()) {
@@ -456,6 +488,7 @@ public class Script {
                 }
             });
             finished = true;
+            releaseActors();
             GAME.getPlayer().changeTile("default");
             if (endInfo[3] > -1) {
                 GAME.getPlayer().setPoint(endInfo[3], endInfo[4]);
@@ -1,7 +1,6 @@
 package com.lmweav.schoolquest.tiles;
 
 
-import android.graphics.Bitmap;
 import android.util.Pair;
 
 /*
@@ -19,12 +18,12 @@ class DoorTile extends Tile {
     | Constructors
     ----------------------------------------------------------------------------------------------*/
 
-    DoorTile(Bitmap image, char key) {
-        super(image, false, key);
+    DoorTile(TextureAtlas atlas, int index, char key) {
+        super(atlas, index, false, key);
     }
 
-    DoorTile(Bitmap image, char key, Pair<Character, Integer> animation) {
-        super(image, false, key, animation);
+    DoorTile(TextureAtlas atlas, int index, char key, Pair<Character, Integer> animation) {
+        super(atlas, index, false, key, animation);
     }
 
 }
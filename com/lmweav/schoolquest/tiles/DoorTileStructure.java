@@ -2,6 +2,9 @@ package com.lmweav.schoolquest.tiles;
 
 import android.graphics.Point;
 
+import com.lmweav.schoolquest.utilities.Condition;
+import com.lmweav.schoolquest.utilities.ExpressionAnalyser;
+
 /*
  * School Quest: DoorTileStructure
  * This class is a data structure for door tile behaviour. Behaviours include the destination map
@@ -18,7 +21,7 @@ class DoorTileStructure {
 
     private int destMap;
 
-    private String lockCondition = "FALSE";
+    private Condition lockCondition = ExpressionAnalyser.compile("FALSE");
     private Point destCoordinate;
 
     private Runnable effect = null;
@@ -39,8 +42,10 @@ class DoorTileStructure {
 
     int getDestMap() { return destMap; }
 
-    String getLockCondition() { return lockCondition; }
-    void setLockCondition(String lockCondition) { this.lockCondition = lockCondition; }
+    Condition getLockCondition() { return lockCondition; }
+    void setLockCondition(String lockCondition) {
+        this.lockCondition = ExpressionAnalyser.compile(lockCondition);
+    }
 
     Point getDestCoordinate() { return destCoordinate; }
 
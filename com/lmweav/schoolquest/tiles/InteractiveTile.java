@@ -1,6 +1,5 @@
 package com.lmweav.schoolquest.tiles;
 
-import android.graphics.Bitmap;
 import android.util.Pair;
 
 import com.lmweav.schoolquest.characters.Emotion;
@@ -29,12 +28,13 @@ public class InteractiveTile extends Tile {
     | Constructors
     ----------------------------------------------------------------------------------------------*/
 
-    InteractiveTile(Bitmap image, boolean collision, char key) {
-        super(image, collision, key);
+    InteractiveTile(TextureAtlas atlas, int index, boolean collision, char key) {
+        super(atlas, index, collision, key);
     }
 
-    InteractiveTile(Bitmap image, boolean collision, char key, Pair<Character, Integer> animation) {
-        super(image, collision, key, animation);
+    InteractiveTile(TextureAtlas atlas, int index, boolean collision, char key,
+                    Pair<Character, Integer> animation) {
+        super(atlas, index, collision, key, animation);
     }
 
     /*---------------------------------------------------------------------------------------------
@@ -1,5 +1,7 @@
 package com.lmweav.schoolquest.tiles;
 
+import com.lmweav.schoolquest.utilities.Condition;
+import com.lmweav.schoolquest.utilities.ExpressionAnalyser;
 import com.lmweav.schoolquest.utilities.TextBoxStructure;
 
 import java.util.HashMap;
@@ -17,7 +19,7 @@ import java.util.LinkedHashMap;
  */
 public class InteractiveTileStructure {
 
-    private HashMap<String, TextBoxStructure> texts = new LinkedHashMap<>();
+    private HashMap<Condition, TextBoxStructure> texts = new LinkedHashMap<>();
 
     /*---------------------------------------------------------------------------------------------
     | Constructors
@@ -29,11 +31,13 @@ public class InteractiveTileStructure {
     | Getters and Setters
     ----------------------------------------------------------------------------------------------*/
 
-    HashMap<String, TextBoxStructure> getTexts() { return texts; }
+    HashMap<Condition, TextBoxStructure> getTexts() { return texts; }
 
     void setText(String condition, TextBoxStructure textBox) {
-        texts.put(condition, textBox);
+        texts.put(ExpressionAnalyser.compile(condition), textBox);
+    }
+    public TextBoxStructure getText(String condition) {
+        return texts.get(ExpressionAnalyser.compile(condition));
     }
-    public TextBoxStructure getText(String condition) { return texts.get(condition); }
 
 }
@@ -0,0 +1,83 @@
+package com.lmweav.schoolquest.tiles;
+
+import android.graphics.Bitmap;
+
+import com.lmweav.schoolquest.utilities.Profiler;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.lmweav.schoolquest.Constants.MAP_CHUNK_CACHE_SIZE;
+
+/*
+ * School Quest: MapChunkCache
+ * This class is a least-recently-used cache of pre-rendered map chunks, shared by every tile
+ * map. A chunk is a square of MAP_CHUNK_SIZE tiles baked into one bitmap, so the map can be drawn
+ * with a few bitmaps rather than one per tile.
+ *
+ * Chunks are rendered when they first come into the tile map's view, and the least recently
+ * drawn chunk is dropped once the cache is full. The cache holds every chunk the view can overlap
+ * plus a ring around it (see MAP_CHUNK_CACHE_SIZE), so no chunk is rendered again while the
+ * camera stands still or steps back and forth across a chunk boundary.
+ *
+ * @author Luke Weaver
+ * @version 1.0.9
+ * @since 2019-10-16
+ */
+class MapChunkCache {
+
+    private static final LinkedHashMap<Long, Bitmap> chunks =
+            new LinkedHashMap<Long, Bitmap>(MAP_CHUNK_CACHE_SIZE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Bitmap> eldest) {
+                    return size() > MAP_CHUNK_CACHE_SIZE;
+                }
+            };
+
+    /*---------------------------------------------------------------------------------------------
+    | Constructors
+    ----------------------------------------------------------------------------------------------*/
+
+    private MapChunkCache() { }
+
+    /*---------------------------------------------------------------------------------------------
+    | Methods
+    ----------------------------------------------------------------------------------------------*/
+
+    private static long getKey(TileMap tileMap, int chunkX, int chunkY) {
+        return ((long) tileMap.getId() << 32) | ((long) chunkY << 16) | chunkX;
+    }
+
+    static synchronized Bitmap get(TileMap tileMap, int chunkX, int chunkY) {
+        long key = getKey(tileMap, chunkX, chunkY);
+        Bitmap chunk = chunks.get(key);
+
+        if (chunk == null) {
+            chunk = tileMap.renderChunk(chunkX, chunkY);
+            Profiler.count(Profiler.COUNTER_CHUNK_RENDERS);
+            chunks.put(key, chunk);
+        }
+        return chunk;
+    }
+
+    /*
+     * Evicted bitmaps are not recycled, as they may still be being drawn by another thread.
+     */
+    static synchronized void invalidate(TileMap tileMap, int chunkX, int chunkY) {
+        chunks.remove(getKey(tileMap, chunkX, chunkY));
+    }
+
+    static synchronized void clear() { chunks.clear(); }
+
+    /*
+     * Drops every chunk of a map, when the map is unloaded.
+     */
+    static synchronized void remove(int mapId) {
+        Iterator<Long> iterator = chunks.keySet().iterator();
+        while (iterator.hasNext()) {
+            if ((iterator.next() >>> 32) == mapId) { iterator.remove(); }
+        }
+    }
+
+}
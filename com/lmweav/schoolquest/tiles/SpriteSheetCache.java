@@ -0,0 +1,61 @@
+package com.lmweav.schoolquest.tiles;
+
+import android.content.Context;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * School Quest: SpriteSheetCache
+ * This class is a process-wide cache of game character sprite sheets, keyed by resource id. Each
+ * sheet is sliced into a list of frames once, and that list is shared by every character that
+ * uses the sheet.
+ *
+ * The frames are shared, so they must not be changed: a character draws with a copy of a frame
+ * (see Tile.setImage). Sheets are reference counted, and a sheet is dropped when its last user
+ * releases it.
+ *
+ * @author Luke Weaver
+ * @version 1.0.9
+ * @since 2019-10-16
+ */
+public class SpriteSheetCache {
+
+    private static final SparseArray<List<Tile>> sheets = new SparseArray<>();
+    private static final SparseIntArray references = new SparseIntArray();
+
+    /*---------------------------------------------------------------------------------------------
+    | Constructors
+    ----------------------------------------------------------------------------------------------*/
+
+    private SpriteSheetCache() { }
+
+    /*---------------------------------------------------------------------------------------------
+    | Methods
+    ----------------------------------------------------------------------------------------------*/
+
+    public static synchronized List<Tile> acquire(Context context, int imgId) {
+        List<Tile> sheet = sheets.get(imgId);
+        if (sheet == null) {
+            sheet = Collections.unmodifiableList(
+                    new TileSet(context, imgId).createGameCharacterTileList());
+            sheets.put(imgId, sheet);
+        }
+        references.put(imgId, references.get(imgId) + 1);
+        return sheet;
+    }
+
+    public static synchronized void release(int imgId) {
+        int count = references.get(imgId) - 1;
+        if (count > 0) {
+            references.put(imgId, count);
+            return;
+        }
+        references.delete(imgId);
+        sheets.remove(imgId);
+        TextureAtlas.release(imgId);
+    }
+
+}
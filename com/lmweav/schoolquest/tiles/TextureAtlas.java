@@ -0,0 +1,93 @@
+package com.lmweav.schoolquest.tiles;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.util.SparseArray;
+
+import static com.lmweav.schoolquest.Constants.*;
+
+/*
+ * School Quest: TextureAtlas
+ * This class holds a whole tile sheet as one scaled bitmap. Tiles are drawn from the atlas by
+ * their index in the sheet, rather than each tile having a bitmap of its own.
+ *
+ * Atlases are shared: there is one instance per sheet, looked up by its resource id. An atlas is
+ * not changed after it is made, so it can be drawn from the chunk renderer and the game view at
+ * once without a lock. A tile is drawn by clipping the canvas to the tile and drawing the atlas
+ * under it, so no destination rectangle is shared between the threads.
+ *
+ * @author Luke Weaver
+ * @version 1.0.9
+ * @since 2019-10-16
+ */
+public class TextureAtlas {
+
+    private static final SparseArray<TextureAtlas> atlases = new SparseArray<>();
+
+    private final Bitmap bitmap;
+    private final Rect[] sources;
+
+    /*---------------------------------------------------------------------------------------------
+    | Constructors
+    ----------------------------------------------------------------------------------------------*/
+
+    private TextureAtlas(Context context, int imgId) {
+        Bitmap sheet = BitmapFactory.decodeResource(context.getResources(), imgId);
+        int rows = sheet.getHeight() / RAW_TILE_SIZE;
+        int cols = sheet.getWidth() / RAW_TILE_SIZE;
+
+        bitmap = Bitmap.createScaledBitmap(sheet, cols * SCALED_TILE_SIZE,
+                rows * SCALED_TILE_SIZE, false);
+        if (bitmap != sheet) { sheet.recycle(); }
+
+        sources = new Rect[rows * cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                sources[(i * cols) + j] = new Rect(j * SCALED_TILE_SIZE, i * SCALED_TILE_SIZE,
+                        (j + 1) * SCALED_TILE_SIZE, (i + 1) * SCALED_TILE_SIZE);
+            }
+        }
+    }
+
+    /*---------------------------------------------------------------------------------------------
+    | Getters and Setters
+    ----------------------------------------------------------------------------------------------*/
+
+    public static TextureAtlas getAtlas(Context context, int imgId) {
+        synchronized (atlases) {
+            TextureAtlas atlas = atlases.get(imgId);
+            if (atlas == null) {
+                atlas = new TextureAtlas(context, imgId);
+                atlases.put(imgId, atlas);
+            }
+            return atlas;
+        }
+    }
+
+    int getCount() { return sources.length; }
+
+    /*---------------------------------------------------------------------------------------------
+    | Methods
+    ----------------------------------------------------------------------------------------------*/
+
+    /*
+     * Drops the atlas from the cache. Its bitmap is not recycled, as tiles that are still being
+     * drawn may hold on to it.
+     */
+    static void release(int imgId) {
+        synchronized (atlases) { atlases.remove(imgId); }
+    }
+
+    void draw(Canvas canvas, int index, int left, int top, Paint paint) {
+        Rect source = sources[index];
+        canvas.save();
+        canvas.clipRect(left, top, left + SCALED_TILE_SIZE, top + SCALED_TILE_SIZE);
+        canvas.drawBitmap(bitmap, left - source.left, top - source.top, paint);
+        canvas.restore();
+    }
+
+}
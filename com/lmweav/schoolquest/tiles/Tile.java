@@ -1,6 +1,7 @@
 package com.lmweav.schoolquest.tiles;
 
-import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
 import android.util.Pair;
 
 import static com.lmweav.schoolquest.Game.GAME;
@@ -11,6 +12,8 @@ import static com.lmweav.schoolquest.Game.GAME;
  * instance of this class, rather there is one instance that is looked up via a character key
  * in the tile map.
  *
+ * A tile's image is a region of a shared TextureAtlas, given by its index in the tile sheet.
+ *
  * @author Luke Weaver
  * @version 1.0.9
  * @since 2019-10-16
@@ -20,7 +23,8 @@ public class Tile {
     protected char key;
     boolean collision;
 
-    protected Bitmap image;
+    protected TextureAtlas atlas;
+    protected int index;
 
     protected Pair<Character, Integer> animation = null;
 
@@ -29,24 +33,40 @@ public class Tile {
     ----------------------------------------------------------------------------------------------*/
 
     @SafeVarargs
-    Tile(Bitmap image, boolean collision, char key, Pair<Character, Integer>... animation) {
-        this.image = image;
+    Tile(TextureAtlas atlas, int index, boolean collision, char key,
+         Pair<Character, Integer>... animation) {
+        this.atlas = atlas;
+        this.index = index;
         this.collision = collision;
         this.key = key;
 
         if (animation.length > 0) { this.animation = animation[0]; }
     }
 
+    public Tile(Tile tile) {
+        key = tile.key;
+        collision = tile.collision;
+        atlas = tile.atlas;
+        index = tile.index;
+        animation = tile.animation;
+    }
+
     /*---------------------------------------------------------------------------------------------
     | Getters and Setters
     ----------------------------------------------------------------------------------------------*/
 
-    public Bitmap getImage() { return image; }
-    public void setImage(Bitmap image) { this.image = image; }
+    public void setImage(Tile tile) {
+        atlas = tile.atlas;
+        index = tile.index;
+    }
 
     /*---------------------------------------------------------------------------------------------
     | Methods
     ----------------------------------------------------------------------------------------------*/
+    public void draw(Canvas canvas, int left, int top, Paint paint) {
+        atlas.draw(canvas, index, left, top, paint);
+    }
+
     void animateTile(TileMap map, int x, int y) {
         if (GAME.getTick() % animation.second == 0) {
             char temp = map.getTileInView(x, y);
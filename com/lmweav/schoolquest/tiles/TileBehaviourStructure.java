@@ -1,5 +1,8 @@
 package com.lmweav.schoolquest.tiles;
 
+import com.lmweav.schoolquest.utilities.Condition;
+import com.lmweav.schoolquest.utilities.ExpressionAnalyser;
+
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 
@@ -16,7 +19,7 @@ import java.util.LinkedHashMap;
  */
 class TileBehaviourStructure {
 
-    private HashMap<String, Runnable> runnables = new LinkedHashMap<>();
+    private HashMap<Condition, Runnable> runnables = new LinkedHashMap<>();
 
     /*---------------------------------------------------------------------------------------------
     | Constructors
@@ -28,10 +31,10 @@ class TileBehaviourStructure {
     | Getters and Setters
     ----------------------------------------------------------------------------------------------*/
 
-    HashMap<String, Runnable> getRunnables() { return runnables; }
+    HashMap<Condition, Runnable> getRunnables() { return runnables; }
 
     void setRunnables(String condition, Runnable runnable) {
-        runnables.put(condition, runnable);
+        runnables.put(ExpressionAnalyser.compile(condition), runnable);
     }
 
 }
@@ -1,6 +1,7 @@
 package com.lmweav.schoolquest.tiles;
 
 import android.content.Context;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Paint;
 import android.graphics.Point;
@@ -8,12 +9,14 @@ import androidx.constraintlayout.widget.ConstraintLayout;
 
 import android.util.Pair;
 import android.util.SparseArray;
+import android.util.SparseIntArray;
 import android.view.View;
 import android.widget.ImageView;
 
 import com.lmweav.schoolquest.Game;
 import com.lmweav.schoolquest.GameActivity;
 import com.lmweav.schoolquest.R;
+import com.lmweav.schoolquest.characters.Emotion;
 import com.lmweav.schoolquest.characters.NPCDataStructure;
 import com.lmweav.schoolquest.characters.Player;
 import com.lmweav.schoolquest.controllers.Controller;
@@ -24,18 +27,30 @@ import com.lmweav.schoolquest.items.Item;
 import com.lmweav.schoolquest.minigames.LessonA;
 import com.lmweav.schoolquest.minigames.LessonB;
 import com.lmweav.schoolquest.minigames.LessonC;
-import com.lmweav.schoolquest.utilities.ExpressionAnalyser;
+import com.lmweav.schoolquest.utilities.Condition;
 import com.lmweav.schoolquest.utilities.GameTextView;
+import com.lmweav.schoolquest.utilities.RecordReader;
 import com.lmweav.schoolquest.utilities.SerializablePoint;
 import com.lmweav.schoolquest.utilities.TextBoxStructure;
+import com.lmweav.schoolquest.utilities.pathfinding.AStarPathFinder;
+import com.lmweav.schoolquest.utilities.pathfinding.CollisionGrid;
+import com.lmweav.schoolquest.utilities.pathfinding.JumpPointPathFinder;
+import com.lmweav.schoolquest.utilities.pathfinding.PathCache;
+import com.lmweav.schoolquest.utilities.pathfinding.PathFinder;
+import com.lmweav.schoolquest.utilities.pathfinding.PathGrid;
+import com.lmweav.schoolquest.utilities.pathfinding.PortalGraph;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
 
 import static com.lmweav.schoolquest.Game.GAME;
 import static com.lmweav.schoolquest.Constants.*;
@@ -46,35 +61,64 @@ import static com.lmweav.schoolquest.Constants.*;
  *
  * Methods in this class initialise external data needed, update and render the map.
  *
+ * Maps are built the first time they are needed (see getMap), and the maps the current map's doors
+ * lead to are built in the background (see prefetchNeighbours). At most MAP_RESIDENCY_BUDGET maps
+ * are kept, and the least recently used map other than the current one is dropped to make room.
+ * Tiles changed by behaviours are recorded, so a map that is built again keeps them.
+ *
+ * There is 1 support class declared here: MapDefinition - which holds the resource ids a map is
+ * built from.
+ *
  * @author Luke Weaver
  * @version 1.0.9
  * @since 2019-10-16
  */
-public class TileMap {
+public class TileMap implements PathGrid {
 
-    private static SparseArray<TileMap> gameMaps;
+    private static final int NO_FEATURE = 0;
+
+    private static final SparseArray<MapDefinition> mapDefinitions = new SparseArray<>();
+    private static final LinkedHashMap<Integer, TileMap> residentMaps =
+            new LinkedHashMap<>(MAP_RESIDENCY_BUDGET, 0.75f, true);
+    private static final HashMap<Integer, FutureTask<TileMap>> loadingMaps = new HashMap<>();
+    private static final SparseArray<SparseIntArray> tileChanges = new SparseArray<>();
+    private static final ExecutorService prefetcher = Executors.newSingleThreadExecutor();
+    private static TileMap currentMap;
+    private static volatile PortalGraph portalGraph;
 
     private int id;
+    private int imgId;
     private int miniMapId;
+    private int collisionVersion;
 
     private int[][] collisionMatrix;
-    private int[][] hostileMatrix;
-
-    private ArrayList<ArrayList<Character>> matrix;
+    private short[] hostileCounts;
+    private int[] hostileTiles = new int[8];
+    private int hostileTileCount;
+    private int hostileGeneration;
+
+    private char[] matrix;
+    private int rows;
+    private int cols;
     private ArrayList<Integer> bgm = new ArrayList<>();
 
 
-    private HashMap<Character, Tile> tiles;
-    private HashMap<Point, DoorTileStructure> doorPoint = new HashMap<>();
-    private HashMap<Point, InteractiveTileStructure> interactivePoints = new HashMap<>();
-    private HashMap<Point, TileBehaviourStructure> behaviourPoints = new HashMap<>();
+    private Tile[] tiles;
+    private short[] featureIndex;
+    private int featureCount;
+    private DoorTileStructure[] doors = new DoorTileStructure[8];
+    private InteractiveTileStructure[] interactiveTiles = new InteractiveTileStructure[8];
+    private TileBehaviourStructure[] tileBehaviours = new TileBehaviourStructure[8];
     private HashMap<Point, Tile> animatedTiles = new HashMap<>();
 
     private Tile[][] tilesInView = new Tile[CAMERA_HEIGHT + (2 * Y_PADDING) + 1]
             [CAMERA_WIDTH + (2 * X_PADDING) + 1];
+    private int viewX;
+    private int viewY;
 
     private SparseArray<ArrayList<NPC>> npcs = new SparseArray<>();
 
+    private PathFinder pathFinder;
 
     /*---------------------------------------------------------------------------------------------
     | Constructors
@@ -84,31 +128,25 @@ public class TileMap {
                    int doorDatId, int interactiveDatId, int npcDatId, int miniMapId, int bgmId,
                    int behaviourDatId) {
         this.id = id;
+        this.imgId = imgId;
         this.miniMapId = miniMapId;
 
-        InputStream inputStream = context.getResources().openRawResource(txtId);
-
-        InputStreamReader inputStreamReader = new InputStreamReader(inputStream);
-        BufferedReader bufferedReader = new BufferedReader(inputStreamReader);
-        String line;
-        matrix = new ArrayList<>();
-        try {
-            while ((line = bufferedReader.readLine()) != null) {
-                ArrayList<Character> row = new ArrayList<>();
-                for (char ch : line.toCharArray()) { row.add(ch); }
-                matrix.add(row);
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
+        String[] lines = RecordReader.readLines(context, txtId);
+        rows = lines.length;
+        cols = lines[0].length();
+        matrix = new char[rows * cols];
+        for (int i = 0; i < rows; i++) {
+            String row = lines[i];
+            row.getChars(0, Math.min(row.length(), cols), matrix, i * cols);
         }
         TileSet tileSet = new TileSet(context, imgId, datId);
         tiles = tileSet.mapTiles();
 
-        collisionMatrix = new int[matrix.size()][matrix.get(0).size()];
-        hostileMatrix = new int[matrix.size()][matrix.get(0).size()];
-        for (int i = 0; i < matrix.size(); i++) {
-            for (int j = 0; j < matrix.get(0).size(); j++) {
-                if (tiles.get(matrix.get(i).get(j)).collision) {
+        collisionMatrix = new int[rows][cols];
+        hostileCounts = new short[rows * cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (getTile(j, i).collision) {
                     collisionMatrix[i][j] = 1;
                 } else {
                     collisionMatrix[i][j] = 0;
@@ -116,13 +154,28 @@ public class TileMap {
             }
         }
 
+        if (USE_JUMP_POINT_SEARCH) {
+            pathFinder = new JumpPointPathFinder(this, MAX_PATH_SEARCH_DISTANCE);
+        } else {
+            pathFinder = new AStarPathFinder(this, MAX_PATH_SEARCH_DISTANCE);
+        }
+
         bgm.add(bgmId);
 
+        featureIndex = new short[rows * cols];
         if (doorDatId >= 0) { initialiseDoorPoints(context, doorDatId); }
         if (interactiveDatId >= 0) { initialiseInteractivePoints(context, interactiveDatId); }
         if (npcDatId >= 0) { initialiseNPCs(context, npcDatId); }
         if (behaviourDatId >= 0) { initialiseBehaviourPoints(context, behaviourDatId); }
 
+        synchronized (tileChanges) {
+            SparseIntArray changes = tileChanges.get(id);
+            if (changes != null) {
+                for (int i = 0; i < changes.size(); i++) {
+                    matrix[changes.keyAt(i)] = (char) changes.valueAt(i);
+                }
+            }
+        }
     }
 
     /*---------------------------------------------------------------------------------------------
@@ -135,12 +188,12 @@ public class TileMap {
 
     char getTileInView(int x, int y) { return tilesInView[y][x].key; }
     void setTileInView(int x, int y, char key) {
-        tilesInView[y][x] = tiles.get(key);
+        tilesInView[y][x] = getTileByKey(key);
     }
 
-    public int getRows() { return matrix.size(); }
+    public int getRows() { return rows; }
 
-    public int getCols() { return matrix.get(0).size(); }
+    public int getCols() { return cols; }
 
     public int[][] getCollisionMatrix() {
         int[][] copy = new int[collisionMatrix.length][collisionMatrix[0].length];
@@ -152,27 +205,89 @@ public class TileMap {
     }
 
     private boolean getCollision(int x, int y) { return collisionMatrix[y][x] > 0; }
-    public void setCollision(int x, int y, int value) { collisionMatrix[y][x] = value; }
+    public void setCollision(int x, int y, int value) {
+        if (collisionMatrix[y][x] != value) {
+            collisionMatrix[y][x] = value;
+            collisionVersion++;
+        }
+    }
     public void removeNPCCollisions() {
         for (int i = 0; i < collisionMatrix.length; i++) {
             for (int j = 0; j < collisionMatrix[0].length; j++) {
                 if (collisionMatrix[i][j] == 2) { collisionMatrix[i][j] = 0;}
             }
         }
+        collisionVersion++;
+    }
+
+    public int getCollisionVersion() { return collisionVersion; }
+
+    private Tile getTileByKey(char key) { return key < tiles.length ? tiles[key] : null; }
+
+    public Tile getTile(int x, int y) { return getTileByKey(matrix[(y * cols) + x]); }
+    private boolean isAnimated(int x, int y) {
+        return x >= 0 && y >= 0 && x < cols && y < rows && getTile(x, y).animation != null;
+    }
+    private void setTile(int x, int y, char key) {
+        matrix[(y * cols) + x] = key;
+        MapChunkCache.invalidate(this, x / MAP_CHUNK_SIZE, y / MAP_CHUNK_SIZE);
+
+        synchronized (tileChanges) {
+            SparseIntArray changes = tileChanges.get(id);
+            if (changes == null) {
+                changes = new SparseIntArray();
+                tileChanges.put(id, changes);
+            }
+            changes.put((y * cols) + x, key);
+        }
+    }
+
+    public PathFinder getPathFinder() { return pathFinder; }
+    public void setPathFinder(PathFinder pathFinder) { this.pathFinder = pathFinder; }
+
+    public static TileMap getMap(int id) { return loadMap(id); }
+
+    public static PortalGraph getPortalGraph() { return portalGraph; }
+
+    /*
+     * Records the map in play, so the prefetcher never evicts it. Called by the game thread
+     * whenever it changes map.
+     */
+    public static void setCurrentMap(TileMap map) {
+        synchronized (residentMaps) { currentMap = map; }
     }
 
-    public Tile getTile(int x, int y) { return tiles.get(matrix.get(y).get(x)); }
+    /*
+     * Door, interactive and behaviour points share one grid of feature IDs, which index the
+     * doors, interactiveTiles and tileBehaviours tables. A tile with no feature has ID 0, and
+     * the tables never hold anything at 0.
+     */
+    private int getFeature(int x, int y) {
+        if (x < 0 || y < 0 || x >= cols || y >= rows) { return NO_FEATURE; }
+        return featureIndex[(y * cols) + x];
+    }
 
-    public static TileMap getMap(int id) { return gameMaps.get(id); }
+    private int addFeature(int x, int y) {
+        int feature = getFeature(x, y);
+        if (feature == NO_FEATURE) {
+            feature = ++featureCount;
+            featureIndex[(y * cols) + x] = (short) feature;
+            if (feature >= doors.length) {
+                doors = Arrays.copyOf(doors, doors.length * 2);
+                interactiveTiles = Arrays.copyOf(interactiveTiles, doors.length);
+                tileBehaviours = Arrays.copyOf(tileBehaviours, doors.length);
+            }
+        }
+        return feature;
+    }
 
-    public boolean isDoorPoint(int x, int y) { return doorPoint.containsKey(new Point(x, y)); }
+    public boolean isDoorPoint(int x, int y) { return doors[getFeature(x, y)] != null; }
     public boolean isDoorLocked(int x, int y) {
-        Point point = new Point(x, y);
-        return doorPoint.containsKey(point) &&
-                ExpressionAnalyser.analyse(doorPoint.get(point).getLockCondition(), null);
+        DoorTileStructure door = doors[getFeature(x, y)];
+        return door != null && door.getLockCondition().evaluate(null);
     }
     public Pair<Integer, Point> getDoorDestination(int x, int y) {
-        DoorTileStructure door = doorPoint.get(new Point(x, y));
+        DoorTileStructure door = doors[getFeature(x, y)];
         return new Pair<>(door.getDestMap(), door.getDestCoordinate());
     }
 
@@ -180,14 +295,18 @@ public class TileMap {
         return getCollision(x, y) || isDoorLocked(x, y);
     }
 
+    @Override
+    public boolean isBlocked(int x, int y) { return isCollidable(x, y) || isDoorPoint(x, y); }
+
     void setAnimatedTile(int x, int y, char key) {
-        animatedTiles.put(new Point(x, y), tiles.get(key));
+        animatedTiles.put(new Point(x, y), getTileByKey(key));
     }
 
     public TextBoxStructure getText(int x, int y) {
-        InteractiveTileStructure interactiveTile = interactivePoints.get(new Point(x, y));
-        for (Map.Entry<String, TextBoxStructure> entry : interactiveTile.getTexts().entrySet()) {
-            if (ExpressionAnalyser.analyse(entry.getKey(), null)) { return entry.getValue(); }
+        InteractiveTileStructure interactiveTile = interactiveTiles[getFeature(x, y)];
+        for (Map.Entry<Condition, TextBoxStructure> entry :
+                interactiveTile.getTexts().entrySet()) {
+            if (entry.getKey().evaluate(null)) { return entry.getValue(); }
         }
         return null;
     }
@@ -195,106 +314,272 @@ public class TileMap {
     public ArrayList<NPC> getNPCs(int time) { return npcs.get(time); }
 
     private boolean hasBehaviour(int x, int y) {
-        return behaviourPoints.get(new Point(x, y)) != null;
+        return tileBehaviours[getFeature(x, y)] != null;
     }
 
-    public int getHostileMatrixRows() { return hostileMatrix.length; }
-    public int getHostileMatrixCols() { return hostileMatrix[0].length; }
-    public boolean isHostile(int x, int y) { return hostileMatrix[y][x] == 1; }
-    public void setHostileTile(int x, int y) { hostileMatrix[y][x] = 1; }
-    public void resetHostileMatrix() { hostileMatrix = new int[matrix.size()][matrix.get(0).size()]; }
+    public int getHostileTileCount() { return hostileTileCount; }
+    public int getHostileTileX(int i) { return hostileTiles[i] % cols; }
+    public int getHostileTileY(int i) { return hostileTiles[i] / cols; }
+    public int getHostileGeneration() { return hostileGeneration; }
+    public boolean isHostile(int x, int y) {
+        return x >= 0 && y >= 0 && x < cols && y < rows && hostileCounts[(y * cols) + x] > 0;
+    }
+
+    /*
+     * Hostile tiles are reference counted, as sight-lines can overlap. Each NPC adds the tiles of
+     * its sight-line when it changes and removes the old ones, and the tiles with a count are
+     * kept in a list for drawing.
+     */
+    public void addHostileTile(int x, int y) {
+        if (x < 0 || y < 0 || x >= cols || y >= rows) { return; }
+        int tile = (y * cols) + x;
+
+        if (hostileCounts[tile]++ == 0) {
+            if (hostileTileCount == hostileTiles.length) {
+                hostileTiles = Arrays.copyOf(hostileTiles, hostileTileCount * 2);
+            }
+            hostileTiles[hostileTileCount++] = tile;
+        }
+    }
+    public void removeHostileTile(int x, int y) {
+        if (x < 0 || y < 0 || x >= cols || y >= rows) { return; }
+        int tile = (y * cols) + x;
+
+        if (hostileCounts[tile] > 0 && --hostileCounts[tile] == 0) {
+            for (int i = 0; i < hostileTileCount; i++) {
+                if (hostileTiles[i] == tile) {
+                    hostileTiles[i] = hostileTiles[--hostileTileCount];
+                    break;
+                }
+            }
+        }
+    }
+
+    /*
+     * Drops every sight-line on the map, e.g. when its NPCs are replaced. NPCs holding a
+     * sight-line from an older generation do not remove its tiles.
+     */
+    public void clearHostileTiles() {
+        for (int i = 0; i < hostileTileCount; i++) { hostileCounts[hostileTiles[i]] = 0; }
+        hostileTileCount = 0;
+        hostileGeneration++;
+    }
 
     public int getBGM() { return bgm.get(0); }
 
+    private int[] getNeighbourIds() {
+        int[] neighbours = new int[featureCount];
+        int count = 0;
+        for (int i = 1; i <= featureCount; i++) {
+            if (doors[i] != null && doors[i].getDestMap() != id) {
+                neighbours[count++] = doors[i].getDestMap();
+            }
+        }
+        return Arrays.copyOf(neighbours, count);
+    }
+
     /*---------------------------------------------------------------------------------------------
     | Methods
     ----------------------------------------------------------------------------------------------*/
 
+    /*
+     * Defines the maps without building any of them. Maps built by an earlier activity are
+     * dropped.
+     */
     public static void loadMaps(Context context) {
-        gameMaps = new SparseArray<>();
+        synchronized (residentMaps) {
+            for (TileMap map : residentMaps.values()) { map.unload(); }
+            residentMaps.clear();
+            currentMap = null;
+        }
+        synchronized (tileChanges) { tileChanges.clear(); }
 
-        gameMaps.put(MAP_SCHOOL_HALL_G_ID, new TileMap(context, MAP_SCHOOL_HALL_G_ID,
+        define(new MapDefinition(context, MAP_SCHOOL_HALL_G_ID,
                 R.drawable._tilesets_maps_school_hall,
                 R.raw._maps_hall_g, R.raw._tilesets_school_hall, R.raw._doors_school_hall_g,
                 R.raw._interactive_school_hall_g, R.raw._npcs_school_hall_g,
                 0, R.raw._music_school, R.raw._behaviour_hall_g));
 
-        gameMaps.put(MAP_SCHOOL_HALL_1F_ID, new TileMap(context, MAP_SCHOOL_HALL_1F_ID,
+        define(new MapDefinition(context, MAP_SCHOOL_HALL_1F_ID,
                 R.drawable._tilesets_maps_school_hall,
                 R.raw._maps_hall_1f, R.raw._tilesets_school_hall, R.raw._doors_school_hall_1f,
                 R.raw._interactive_school_hall_1f, R.raw._npcs_school_hall_1f,
                 1, R.raw._music_school, R.raw._behaviour_hall_1f));
 
-        gameMaps.put(MAP_SCHOOL_CLASSROOM_DT_ID, new TileMap(context, MAP_SCHOOL_CLASSROOM_DT_ID,
+        define(new MapDefinition(context, MAP_SCHOOL_CLASSROOM_DT_ID,
                 R.drawable._tilesets_maps_school_classroom,
                 R.raw._maps_classroom_dt, R.raw._tilesets_school_classroom,
                 R.raw._doors_school_classroom_dt, R.raw._interactive_school_classroom_dt,
                 R.raw._npcs_school_classroom_dt, 0,
                 R.raw._music_school, R.raw._behaviour_classroom_dt));
 
-        gameMaps.put(MAP_SCHOOL_CLASSROOM_FT_ID, new TileMap(context, MAP_SCHOOL_CLASSROOM_FT_ID,
+        define(new MapDefinition(context, MAP_SCHOOL_CLASSROOM_FT_ID,
                 R.drawable._tilesets_maps_school_classroom,
                 R.raw._maps_classroom_ft, R.raw._tilesets_school_classroom,
                 R.raw._doors_school_classroom_ft, R.raw._interactive_school_classroom_ft,
                 R.raw._npcs_school_classroom_ft, 0,
                 R.raw._music_school, R.raw._behaviour_classroom_ft));
 
-        gameMaps.put(MAP_SCHOOL_CLASSROOM_1F_ID, new TileMap(context, MAP_SCHOOL_CLASSROOM_1F_ID,
+        define(new MapDefinition(context, MAP_SCHOOL_CLASSROOM_1F_ID,
                 R.drawable._tilesets_maps_school_classroom,
                 R.raw._maps_classroom_1f, R.raw._tilesets_school_classroom,
                 R.raw._doors_school_classroom_1f, R.raw._interactive_school_classroom_1f,
                 R.raw._npcs_school_classroom_1f, 1, R.raw._music_school,
                 R.raw._behaviour_classroom_1f));
 
-        gameMaps.put(MAP_SCHOOL_CANTEEN_ID, new TileMap(context, MAP_SCHOOL_CANTEEN_ID,
+        define(new MapDefinition(context, MAP_SCHOOL_CANTEEN_ID,
                 R.drawable._tilesets_maps_school_canteen,
                 R.raw._maps_canteen, R.raw._tilesets_school_canteen, R.raw._doors_school_canteen,
                 R.raw._interactive_school_canteen, R.raw._npcs_school_canteen, 0,
                 R.raw._music_school, R.raw._behaviour_canteen));
 
-        gameMaps.put(MAP_SCHOOL_YARD_ID, new TileMap(context, MAP_SCHOOL_YARD_ID,
+        define(new MapDefinition(context, MAP_SCHOOL_YARD_ID,
                 R.drawable._tilesets_maps_school_yard,
                 R.raw._maps_yard, R.raw._tilesets_school_yard, R.raw._doors_school_yard,
                 R.raw._interactive_school_yard, R.raw._npcs_school_yard, 0,
                 R.raw._music_school, R.raw._behaviour_yard));
 
-        gameMaps.put(MAP_BEDROOM_ID, new TileMap(context, MAP_BEDROOM_ID,
+        define(new MapDefinition(context, MAP_BEDROOM_ID,
                 R.drawable._tilesets_maps_bedroom,
                 R.raw._maps_bedroom, R.raw._tilesets_bedroom, NO_DATA,
                 R.raw._interactive_bedroom, NO_DATA, 0, R.raw._music_bedroom, NO_DATA));
 
-        gameMaps.put(MAP_SCHOOL_STAFFROOM_ID, new TileMap(context, MAP_SCHOOL_STAFFROOM_ID,
+        define(new MapDefinition(context, MAP_SCHOOL_STAFFROOM_ID,
                 R.drawable._tilesets_maps_school_staffroom,
                 R.raw._maps_staffroom, R.raw._tilesets_school_staffroom,
                 R.raw._doors_school_staffroom, R.raw._interactive_school_staffroom,
                 R.raw._npcs_school_staffroom, 1, R.raw._music_theme, R.raw._behaviour_staffroom));
 
-        gameMaps.put(MAP_PE_ID, new TileMap(context, MAP_PE_ID,
+        define(new MapDefinition(context, MAP_PE_ID,
                 R.drawable._tilesets_maps_pe, R.raw._maps_pe, R.raw._tilesets_pe, NO_DATA, NO_DATA,
                 NO_DATA, 0, R.raw._music_activity, NO_DATA));
 
-        gameMaps.put(MAP_SCHOOL_EXAM_HALL_ID, new TileMap(context, MAP_SCHOOL_EXAM_HALL_ID,
+        define(new MapDefinition(context, MAP_SCHOOL_EXAM_HALL_ID,
                 R.drawable._tilesets_maps_exam_hall, R.raw._maps_exam_hall,
                 R.raw._tilesets_school_exam, NO_DATA, NO_DATA, R.raw._npcs_school_exam_hall, 0,
                 R.raw._music_theme, NO_DATA));
 
-        gameMaps.put(MAP_SCHOOL_SHOP_ID, new TileMap(context, MAP_SCHOOL_SHOP_ID,
+        define(new MapDefinition(context, MAP_SCHOOL_SHOP_ID,
                 R.drawable._tilesets_maps_school_shop, R.raw._maps_shop,
                 R.raw._tilesets_school_shop, R.raw._doors_school_shop, R.raw._interactive_school_shop,
                 R.raw._npcs_school_shop, 0, R.raw._music_school, R.raw._behaviour_shop));
+
+        SparseArray<PathGrid> grids = new SparseArray<>();
+        SparseArray<String[][]> doors = new SparseArray<>();
+        synchronized (residentMaps) {
+            for (int i = 0; i < mapDefinitions.size(); i++) {
+                MapDefinition definition = mapDefinitions.valueAt(i);
+                String[][] records = definition.readDoors();
+                doors.put(definition.id, records);
+                grids.put(definition.id, definition.readGrid(records));
+            }
+        }
+        portalGraph = new PortalGraph(grids, doors);
     }
 
-    private void initialiseDoorPoints(Context context, int id) {
-        InputStream inputStream = context.getResources().openRawResource(id);
+    private static void define(MapDefinition definition) {
+        synchronized (residentMaps) { mapDefinitions.put(definition.id, definition); }
+    }
+
+    /*
+     * Returns the map, building it on this thread if it is not resident. If the map is already
+     * being built by the prefetcher, this waits for it rather than building it twice.
+     */
+    private static TileMap loadMap(int id) {
+        FutureTask<TileMap> task;
+        boolean builder = false;
+        synchronized (residentMaps) {
+            TileMap map = residentMaps.get(id);
+            if (map != null) { return map; }
+
+            MapDefinition definition = mapDefinitions.get(id);
+            if (definition == null) { return null; }
+
+            task = loadingMaps.get(id);
+            if (task == null) {
+                task = new FutureTask<>(definition);
+                loadingMaps.put(id, task);
+                builder = true;
+            }
+        }
+
+        if (builder) {
+            task.run();
+            synchronized (residentMaps) {
+                loadingMaps.remove(id);
+                try {
+                    residentMaps.put(id, task.get());
+                    evictMaps();
+                } catch (InterruptedException | ExecutionException e) {
+                    // Reported below
+                }
+            }
+        }
 
-        InputStreamReader inputStreamReader = new InputStreamReader(inputStream);
-        BufferedReader bufferedReader = new BufferedReader(inputStreamReader);
-        String line;
         try {
-            while ((line = bufferedReader.readLine()) != null) {
-                String[] split = line.replaceAll("(^.*?\\[|]\\s*$)", "").
-                        split("]\\[");
+            return task.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IllegalStateException("Could not load map " + id, e);
+        }
+    }
 
+    /*
+     * Drops the least recently used maps until there are at most MAP_RESIDENCY_BUDGET. The current
+     * map is kept, as its NPCs are in play. Called with the residentMaps lock held, which also
+     * guards the current map, as this may run on the prefetcher thread.
+     */
+    private static void evictMaps() {
+        Iterator<TileMap> iterator = residentMaps.values().iterator();
+        while (residentMaps.size() > MAP_RESIDENCY_BUDGET && iterator.hasNext()) {
+            TileMap map = iterator.next();
+            if (map == currentMap) { continue; }
+
+            iterator.remove();
+            map.unload();
+        }
+    }
+
+    /*
+     * Releases what the map shares with other maps: its NPCs' sprite sheets, its chunks, its cached
+     * paths and, if no resident map uses it, its tile atlas. Nothing is recycled, as the map may
+     * still be drawn.
+     */
+    private void unload() {
+        for (int i = 0; i < npcs.size(); i++) {
+            for (NPC npc : npcs.valueAt(i)) { npc.release(); }
+        }
+        MapChunkCache.remove(id);
+        PathCache.remove(id);
+
+        for (TileMap map : residentMaps.values()) {
+            if (map.imgId == imgId) { return; }
+        }
+        TextureAtlas.release(imgId);
+    }
+
+    /*
+     * Builds the maps the map's doors lead to in the background, so walking through a door rarely
+     * waits for a map to be built.
+     */
+    public static void prefetchNeighbours(TileMap tileMap) {
+        final int[] neighbours = tileMap.getNeighbourIds();
+        prefetcher.execute(new Runnable() {
+            @Override
+            public void run() {
+                for (int id : neighbours) {
+                    try {
+                        loadMap(id);
+                    } catch (IllegalStateException e) {
+                        e.printStackTrace();
+                    }
+                }
+            }
+        });
+    }
+
+    private void initialiseDoorPoints(Context context, int id) {
+        try {
+            for (String[] split : RecordReader.readRecords(context, id)) {
                 Point point;
                 String[] coordinates = split[0].split(",");
                 point = new Point(Integer.parseInt(coordinates[0]),
@@ -356,495 +641,476 @@ public class TileMap {
                     door.setEffect(effect);
                 }
 
-                doorPoint.put(point, door);
+                doors[addFeature(point.x, point.y)] = door;
             }
-        } catch (IOException | NumberFormatException e) {
+        } catch (NumberFormatException e) {
             e.printStackTrace();
         }
     }
 
     private void initialiseInteractivePoints(Context context, final int id) {
-        InputStream inputStream = context.getResources().openRawResource(id);
+        for (final String[] split : RecordReader.readRecords(context, id)) {
+            Point point;
+            try {
+                String[] coordinates = split[0].split(",");
+                String tag = null;
 
-        InputStreamReader inputStreamReader = new InputStreamReader(inputStream);
-        BufferedReader bufferedReader = new BufferedReader(inputStreamReader);
-        String line;
-        try {
-            while ((line = bufferedReader.readLine()) != null) {
-                final String[] split = line.replaceAll("(^.*?\\[|]\\s*$)", "").
-                        split("]\\[");
+                point = new Point(Integer.parseInt(coordinates[0]),
+                        Integer.parseInt(coordinates[1]));
+                int feature = addFeature(point.x, point.y);
+                if (interactiveTiles[feature] == null) {
+                    interactiveTiles[feature] = new InteractiveTileStructure();
+                }
+                InteractiveTileStructure interactiveTile = interactiveTiles[feature];
 
-                Point point;
-                try {
-                    String[] coordinates = split[0].split(",");
-                    String tag = null;
+                String[] keyData = split[1].split(";");
+                String condition = keyData[0];
+                if (keyData.length > 1) { tag = keyData[1]; }
 
-                    point = new Point(Integer.parseInt(coordinates[0]),
-                            Integer.parseInt(coordinates[1]));
-                    if (interactivePoints.get(point) == null) { interactivePoints.put(point,
-                            new InteractiveTileStructure());
-                    }
+                if (split.length < 4) {
+                    interactiveTile.setText(condition,
+                            new TextBoxStructure(split[2]));
+                } else {
+                    final String[] runnableData = split[3].split("\\|");
+                    Runnable runnable1 = null;
+                    final int mapId = this.id;
+                    switch (runnableData[0]) {
+                        case "study":
+                            runnable1 = new Runnable() {
+                                @Override
+                                public void run() {
+                                    ConstraintLayout gameLayout = GameActivity.getInstance().
+                                            findViewById(R.id.game_layout);
+                                    ConstraintLayout studyMenu = GameActivity.getInstance().
+                                            findViewById(R.id.study_menu);
+                                    gameLayout.setAlpha(0.5f);
+                                    studyMenu.setVisibility(View.VISIBLE);
+                                    GAME.getPlayer().resetMoving();
+                                }
+                            };
+                            break;
 
-                    String[] keyData = split[1].split(";");
-                    String condition = keyData[0];
-                    if (keyData.length > 1) { tag = keyData[1]; }
+                        case "game":
+                            runnable1 = new Runnable() {
+                                @Override
+                                public void run() {
+                                    GAME.game();
+                                }
+                            };
+                            break;
 
-                    if (split.length < 4) {
-                        interactivePoints.get(point).setText(condition,
-                                new TextBoxStructure(split[2]));
-                    } else {
-                        final String[] runnableData = split[3].split("\\|");
-                        Runnable runnable1 = null;
-                        final int mapId = this.id;
-                        switch (runnableData[0]) {
-                            case "study":
-                                runnable1 = new Runnable() {
-                                    @Override
-                                    public void run() {
-                                        ConstraintLayout gameLayout = GameActivity.getInstance().
-                                                findViewById(R.id.game_layout);
-                                        ConstraintLayout studyMenu = GameActivity.getInstance().
-                                                findViewById(R.id.study_menu);
-                                        gameLayout.setAlpha(0.5f);
-                                        studyMenu.setVisibility(View.VISIBLE);
-                                        GAME.getPlayer().resetMoving();
-                                    }
-                                };
-                                break;
-
-                            case "game":
-                                runnable1 = new Runnable() {
-                                    @Override
-                                    public void run() {
-                                        GAME.game();
-                                    }
-                                };
-                                break;
-
-                            case "sleep":
-                                runnable1 = new Runnable() {
-                                    @Override
-                                    public void run() {
-                                        if (GAME.getDay() < 30) { GAME.newDay(); }
-                                        else {
-                                            GAME.setLoadingScreen(true, -1);
-                                            GAME.pauseMusic();
-                                            GameActivity.getInstance().displayTextBox(
-                                                    GAME.startExam(
-                                                            (GAME.getDay() + 1) % NUMBER_OF_DAYS));
-                                        }
-                                    }
-                                };
-                                break;
-
-                            case "craft":
-                                runnable1 = new Runnable() {
-                                    @Override
-                                    public void run() {
-                                        ArrayList<Item> items = new ArrayList<>();
-                                        switch (mapId) {
-                                            case MAP_SCHOOL_CLASSROOM_DT_ID:
-                                                if (GAME.getProgressDataStructure().isMadeCraftD()) {
-                                                    items.add(Item.getItem(CRAFT_D_INDEX));
-                                                }
-                                                if (GAME.getProgressDataStructure().isMadeCraftC()) {
-                                                    items.add(Item.getItem(CRAFT_C_INDEX));
-                                                }
-                                                if (GAME.getProgressDataStructure().isMadeCraftB()) {
-                                                    items.add(Item.getItem(CRAFT_B_INDEX));
-                                                }
-                                                if (GAME.getProgressDataStructure().isMadeCraftA()) {
-                                                    items.add(Item.getItem(CRAFT_A_INDEX));
-                                                }
-                                                break;
-                                            case MAP_SCHOOL_CLASSROOM_FT_ID:
-                                                if (GAME.getProgressDataStructure().isMadeSnackD()) {
-                                                    items.add(Item.getItem(FOOD_D_INDEX));
-                                                }
-                                                if (GAME.getProgressDataStructure().isMadeSnackC()) {
-                                                    items.add(Item.getItem(FOOD_C_INDEX));
-                                                }
-                                                if (GAME.getProgressDataStructure().isMadeSnackB()) {
-                                                    items.add(Item.getItem(FOOD_B_INDEX));
-                                                }
-                                                if (GAME.getProgressDataStructure().isMadeSnackA()) {
-                                                    items.add(Item.getItem(FOOD_A_INDEX));
-                                                }
-                                                if (GAME.hasItem(Item.getItem(KEY1_INDEX))) {
-                                                    items.add(Item.getItem(KEY5_INDEX));
-                                                }
-                                                break;
-                                        }
-                                        GAME.getPlayer().resetMoving();
-                                        GameActivity.getInstance().displayCraftMenu(items);
-                                    }
-                                };
-                                break;
-
-                            case "heist":
-                                runnable1 = new Runnable() {
-                                    @Override
-                                    public void run() {
-                                        GAME.startHeist();
-                                    }
-                                };
-                                break;
-
-                            case "hack":
-                                runnable1 = new Runnable() {
-                                    @Override
-                                    public void run() {
-                                        GAME.hack();
-                                    }
-                                };
-                                break;
-
-                            case "warp":
-                                runnable1 = new Runnable() {
-                                    @Override
-                                    public void run() {
-                                        Player player = GAME.getPlayer();
-                                        int x = player.getX();
-                                        int y = player.getY();
-                                        switch (player.getDirection()) {
-                                            case OBJECT_DIRECTION_UP:
-                                                y--;
-                                                break;
-                                            case OBJECT_DIRECTION_DOWN:
-                                                y++;
-                                                break;
-                                            case OBJECT_DIRECTION_LEFT:
-                                                x--;
-                                                break;
-                                            case OBJECT_DIRECTION_RIGHT:
-                                                x++;
-                                                break;
-                                        }
-                                        Pair<Integer, Point> doorDestination =
-                                                GAME.getTileMap().getDoorDestination(x, y);
-                                        GAME.getTileMap().runDoorEffect(x, y);
-                                        GAME.loadMap(doorDestination);
-                                    }
-                                };
-                                break;
-
-                            case "book":
-                                runnable1 = new Runnable() {
-                                    @Override
-                                    public void run() {
-                                        GameActivity.getInstance().displayTextBox(new TextBoxStructure(
-                                                "> ...? You found a weird page taped inside. " +
-                                                        "Maybe an old student wrote it?",
-                                                new Runnable() {
-                                                    @Override
-                                                    public void run() {
-                                                        GAME.playJingle(R.raw._jingle_get_item);
-                                                        GameActivity.getInstance().displayTextBox(
-                                                                new TextBoxStructure(
-                                                                        "> You discovered " +
-                                                                        "the heist plan!")
-                                                        );
-                                                        GAME.getProgressDataStructure().
-                                                                setHeistPlan();
-                                                        GameActivity.getInstance().enableHeistUI();
-                                                    }
-                                                }, true, null));
-                                    }
-                                };
-                                break;
-
-                            case "npc":
-                                runnable1 = new Runnable() {
-                                    @Override
-                                    public void run() {
-                                        int id = Integer.parseInt(split[4]);
-                                        for (NPC npc : getNPCs(GAME.getTime())) {
-                                            if (npc.getId() == id) {
-                                                GameActivity.getInstance().displayTextBox(
-                                                        npc.getText()
-                                                );
-                                                return;
-                                            }
-                                        } GameActivity.getInstance().displayTextBox(
-                                                new TextBoxStructure(
-                                                        "ERROR - NPC " + id + " NOT FOUND")
-                                        );
+                        case "sleep":
+                            runnable1 = new Runnable() {
+                                @Override
+                                public void run() {
+                                    if (GAME.getDay() < 30) { GAME.newDay(); }
+                                    else {
+                                        GAME.setLoadingScreen(true, -1);
+                                        GAME.pauseMusic();
+                                        GameActivity.getInstance().displayTextBox(
+                                                GAME.startExam(
+                                                        (GAME.getDay() + 1) % NUMBER_OF_DAYS));
                                     }
-                                };
-                                break;
-
-                            case "whiteboard":
-                                final int lessonIndex;
-                                switch (split[4]) {
-                                    case "dt":
-                                        lessonIndex = DT_INDEX;
-                                        break;
-                                    case "ft":
-                                        lessonIndex = FT_INDEX;
-                                        break;
-                                    case "pe":
-                                        lessonIndex = PE_INDEX;
-                                        break;
-                                    case "chem":
-                                        lessonIndex = CHEMISTRY_INDEX;
-                                        break;
-                                    case "ict":
-                                        lessonIndex = ICT_INDEX;
-                                        break;
-                                    default:
-                                        return;
                                 }
-                                switch (lessonIndex) {
-                                    case DT_INDEX:
-                                    case FT_INDEX:
-                                        runnable1 = new Runnable() {
-                                            @Override
-                                            public void run() {
-                                                GAME.setMiniGame(new LessonB(lessonIndex));
-
-                                                final LessonB gameLessonB =
-                                                        (LessonB) GAME.getMiniGame();
-                                                gameLessonB.refreshHUD();
-                                                gameLessonB.setCraftBarWidth();
-                                                gameLessonB.exampleQuestion();
-
-                                                GameActivity.getInstance().displayLessonBUI();
-                                                final GameActivity gameActivity =
-                                                        GameActivity.getInstance();
-                                                final ImageView craftBarSlider =
-                                                        gameActivity.findViewById(
-                                                                R.id.lesson_b_craft_bar_slider);
-                                                final ImageView help = gameActivity.
-                                                        findViewById(R.id.lesson_b_help_button);
-                                                final ImageView back = gameActivity.
-                                                        findViewById(R.id.lesson_b_back_button);
-
-                                                help.setVisibility(View.INVISIBLE);
-                                                craftBarSlider.setVisibility(View.GONE);
-                                                gameActivity.findViewById(R.id.game_surface).
-                                                        setAlpha(0.25f);
-                                                gameLessonB.setHelp(true);
-                                                gameLessonB.setButtons();
-                                                ((GameTextView) gameActivity.findViewById(
-                                                        R.id.lesson_b_textbox_label_text)).
-                                                        setText("Help");
-                                                gameLessonB.displayText(
-                                                        "> Tap an icon to get an in-depth " +
-                                                                "description.");
-                                                back.setVisibility(View.VISIBLE);
-
-                                                back.setOnClickListener(new View.OnClickListener() {
-                                                    @Override
-                                                    public void onClick(View v) {
-                                                        GAME.playSFX(SFX_MOVE);
-                                                        back.setVisibility(View.GONE);
-                                                        gameActivity.findViewById(
-                                                                R.id.game_surface).setAlpha(1f);
-                                                        gameLessonB.setHelp(false);
-                                                        gameLessonB.setButtons();
-                                                        gameLessonB.resetBars();
-                                                        gameLessonB.displayText(
-                                                                gameLessonB.getQuestionText());
-                                                        help.setVisibility(View.VISIBLE);
-                                                        gameActivity.findViewById(
-                                                                R.id.lesson_b).setAlpha(1f);
-                                                        gameActivity.findViewById(
-                                                                R.id.lesson_b).
-                                                                setVisibility(View.GONE);
-                                                        gameActivity.findViewById(
-                                                                R.id.lesson_b_textbox).
-                                                                setVisibility(View.GONE);
-                                                        gameActivity.findViewById(
-                                                                R.id.lesson_b_craft_bar_slider).
-                                                                setVisibility(View.VISIBLE);
-                                                        gameActivity.showButtons();
-                                                        GAME.setMiniGame(null);
-                                                    }
-                                                });
+                            };
+                            break;
+
+                        case "craft":
+                            runnable1 = new Runnable() {
+                                @Override
+                                public void run() {
+                                    ArrayList<Item> items = new ArrayList<>();
+                                    switch (mapId) {
+                                        case MAP_SCHOOL_CLASSROOM_DT_ID:
+                                            if (GAME.getProgressDataStructure().isMadeCraftD()) {
+                                                items.add(Item.getItem(CRAFT_D_INDEX));
+                                            }
+                                            if (GAME.getProgressDataStructure().isMadeCraftC()) {
+                                                items.add(Item.getItem(CRAFT_C_INDEX));
+                                            }
+                                            if (GAME.getProgressDataStructure().isMadeCraftB()) {
+                                                items.add(Item.getItem(CRAFT_B_INDEX));
+                                            }
+                                            if (GAME.getProgressDataStructure().isMadeCraftA()) {
+                                                items.add(Item.getItem(CRAFT_A_INDEX));
+                                            }
+                                            break;
+                                        case MAP_SCHOOL_CLASSROOM_FT_ID:
+                                            if (GAME.getProgressDataStructure().isMadeSnackD()) {
+                                                items.add(Item.getItem(FOOD_D_INDEX));
+                                            }
+                                            if (GAME.getProgressDataStructure().isMadeSnackC()) {
+                                                items.add(Item.getItem(FOOD_C_INDEX));
+                                            }
+                                            if (GAME.getProgressDataStructure().isMadeSnackB()) {
+                                                items.add(Item.getItem(FOOD_B_INDEX));
                                             }
-                                        };
-                                        break;
-                                    case PE_INDEX:
-                                        runnable1 = new Runnable() {
-                                            @Override
-                                            public void run() {
-                                                GAME.getPlayer().resetMoving();
-                                                final int speed = GAME.getPlayer().getSpeed();
-                                                GAME.setMiniGame(new LessonC());
-                                                GameActivity.getInstance().displayLessonCUI();
-                                                final LessonC gameLessonC =
-                                                        (LessonC) GAME.getMiniGame();
-                                                final GameActivity gameActivity =
-                                                        GameActivity.getInstance();
-                                                gameLessonC.refreshHUD();
-
-                                                final ConstraintLayout lessonCTextbox =
-                                                        gameActivity.findViewById(
-                                                                R.id.lesson_c_textbox);
-                                                final ConstraintLayout textBox =
-                                                        gameActivity.findViewById(
-                                                                R.id.lesson_c_textbox_box);
-                                                final ImageView help =
-                                                        gameActivity.findViewById(
-                                                                R.id.lesson_c_help_button);
-                                                final ImageView back =
-                                                        gameActivity.findViewById(
-                                                                R.id.lesson_c_back_button);
-
-                                                final ImageView points =
-                                                        gameActivity.findViewById(
-                                                                R.id.lesson_c_points);
-                                                final GameTextView pointsTitle =
-                                                        gameActivity.findViewById(
-                                                                R.id.lesson_c_points_text_title);
-                                                final GameTextView pointsSubtitle =
-                                                        gameActivity.findViewById(
-                                                                R.id.lesson_c_points_text_subtitle);
-
-                                                points.setVisibility(View.GONE);
-                                                pointsTitle.setVisibility(View.GONE);
-                                                pointsSubtitle.setVisibility(View.GONE);
-
-                                                help.setVisibility(View.GONE);
-                                                gameActivity.findViewById(R.id.game_surface).
-                                                        setAlpha(0.25f);
-                                                gameLessonC.setHelp(true);
-                                                gameLessonC.setButtons();
-                                                textBox.setVisibility(View.VISIBLE);
-                                                gameLessonC.displayText(
-                                                        "> Tap an icon to get an in-depth " +
-                                                                "description.");
-                                                back.setVisibility(View.VISIBLE);
-
-                                                back.setOnClickListener(new View.OnClickListener() {
-                                                    @Override
-                                                    public void onClick(View v) {
-                                                        GAME.playSFX(SFX_MOVE);
-                                                        back.setVisibility(View.GONE);
-                                                        gameActivity.findViewById(
-                                                                R.id.game_surface).setAlpha(1f);
-                                                        gameLessonC.setHelp(false);
-                                                        textBox.setVisibility(View.GONE);
-                                                        lessonCTextbox.setClickable(false);
-                                                        gameLessonC.setButtons();
-                                                        gameLessonC.resetBars();
-                                                        help.setVisibility(View.VISIBLE);
-                                                        gameActivity.findViewById(R.id.lesson_c).
-                                                                setAlpha(1f);
-                                                        gameActivity.findViewById(R.id.lesson_c).
-                                                                setVisibility(View.GONE);
-
-                                                        points.setVisibility(View.VISIBLE);
-                                                        pointsTitle.setVisibility(View.VISIBLE);
-                                                        pointsSubtitle.setVisibility(View.VISIBLE);
-
-                                                        lessonCTextbox.setVisibility(View.GONE);
-                                                        gameActivity.showButtons();
-                                                        GAME.setMiniGame(null);
-                                                        GAME.getPlayer().setSpeed(speed);
-                                                    }
-                                                });
+                                            if (GAME.getProgressDataStructure().isMadeSnackA()) {
+                                                items.add(Item.getItem(FOOD_A_INDEX));
                                             }
-                                        };
-                                        break;
-                                    case CHEMISTRY_INDEX:
-                                    case ICT_INDEX:
-                                        runnable1 = new Runnable() {
-                                            @Override
-                                            public void run() {
-                                                GAME.setMiniGame(new LessonA(lessonIndex));
-                                                GameActivity.getInstance().displayLessonAUI();
-                                                final LessonA gameLessonA =
-                                                        (LessonA) GAME.getMiniGame();
-                                                final GameActivity gameActivity =
-                                                        GameActivity.getInstance();
-                                                gameLessonA.refreshHUD();
-                                                final ImageView help = gameActivity.
-                                                        findViewById(R.id.lesson_a_help_button);
-                                                final ImageView back = gameActivity.
-                                                        findViewById(R.id.lesson_a_back_button);
-
-                                                help.setVisibility(View.GONE);
-                                                gameActivity.findViewById(R.id.game_surface).
-                                                        setAlpha(0.25f);
-                                                gameLessonA.setHelp(true);
-                                                gameLessonA.setButtons();
-                                                ((GameTextView) gameActivity.findViewById(
-                                                        R.id.lesson_a_textbox_label_text))
-                                                        .setText("Help");
-                                                gameLessonA.displayText(
-                                                        "> Tap an icon to get an in-depth " +
-                                                                "description.");
-                                                back.setVisibility(View.VISIBLE);
-
-                                                back.setOnClickListener(new View.OnClickListener() {
-                                                    @Override
-                                                    public void onClick(View v) {
-                                                        GAME.playSFX(SFX_MOVE);
-                                                        back.setVisibility(View.GONE);
-                                                        gameActivity.findViewById(
-                                                                R.id.game_surface).setAlpha(1f);
-                                                        gameLessonA.setHelp(false);
-                                                        gameLessonA.setButtons();
-                                                        gameLessonA.resetBars();
-                                                        gameLessonA.displayText(
-                                                                gameLessonA.getQuestionText());
-                                                        help.setVisibility(View.VISIBLE);
-                                                        gameActivity.findViewById(
-                                                                R.id.lesson_a).setAlpha(1f);
-                                                        gameActivity.findViewById(
-                                                                R.id.lesson_a).
-                                                                setVisibility(View.GONE);
-                                                        gameActivity.findViewById(
-                                                                R.id.lesson_a_textbox).
-                                                                setVisibility(View.GONE);
-                                                        gameActivity.showButtons();
-                                                        GAME.setMiniGame(null);
-                                                    }
-                                                });
+                                            if (GAME.hasItem(Item.getItem(KEY1_INDEX))) {
+                                                items.add(Item.getItem(KEY5_INDEX));
                                             }
-                                        };
-                                        break;
+                                            break;
+                                    }
+                                    GAME.getPlayer().resetMoving();
+                                    GameActivity.getInstance().displayCraftMenu(items);
+                                }
+                            };
+                            break;
+
+                        case "heist":
+                            runnable1 = new Runnable() {
+                                @Override
+                                public void run() {
+                                    GAME.startHeist();
                                 }
-                                break;
-                        }
+                            };
+                            break;
 
-                        if (runnableData.length > 1) {
-                            interactivePoints.get(point).setText(condition,
-                                    new TextBoxStructure(split[2], runnableData[1], runnableData[2],
-                                            runnable1, null, null));
-                        } else {
-                            interactivePoints.get(point).setText(condition,
-                                    new TextBoxStructure(split[2], runnable1, false,
-                                            null));
-                        }
+                        case "hack":
+                            runnable1 = new Runnable() {
+                                @Override
+                                public void run() {
+                                    GAME.hack();
+                                }
+                            };
+                            break;
 
+                        case "warp":
+                            runnable1 = new Runnable() {
+                                @Override
+                                public void run() {
+                                    Player player = GAME.getPlayer();
+                                    int x = player.getX();
+                                    int y = player.getY();
+                                    switch (player.getDirection()) {
+                                        case OBJECT_DIRECTION_UP:
+                                            y--;
+                                            break;
+                                        case OBJECT_DIRECTION_DOWN:
+                                            y++;
+                                            break;
+                                        case OBJECT_DIRECTION_LEFT:
+                                            x--;
+                                            break;
+                                        case OBJECT_DIRECTION_RIGHT:
+                                            x++;
+                                            break;
+                                    }
+                                    Pair<Integer, Point> doorDestination =
+                                            GAME.getTileMap().getDoorDestination(x, y);
+                                    GAME.getTileMap().runDoorEffect(x, y);
+                                    GAME.loadMap(doorDestination);
+                                }
+                            };
+                            break;
 
+                        case "book":
+                            runnable1 = new Runnable() {
+                                @Override
+                                public void run() {
+                                    GameActivity.getInstance().displayTextBox(new TextBoxStructure(
+                                            "> ...? You found a weird page taped inside. " +
+                                                    "Maybe an old student wrote it?",
+                                            new Runnable() {
+                                                @Override
+                                                public void run() {
+                                                    GAME.playJingle(R.raw._jingle_get_item);
+                                                    GameActivity.getInstance().displayTextBox(
+                                                            new TextBoxStructure(
+                                                                    "> You discovered " +
+                                                                    "the heist plan!")
+                                                    );
+                                                    GAME.getProgressDataStructure().
+                                                            setHeistPlan();
+                                                    GameActivity.getInstance().enableHeistUI();
+                                                }
+                                            }, true, null));
+                                }
+                            };
+                            break;
+
+                        case "npc":
+                            runnable1 = new Runnable() {
+                                @Override
+                                public void run() {
+                                    int id = Integer.parseInt(split[4]);
+                                    for (NPC npc : getNPCs(GAME.getTime())) {
+                                        if (npc.getId() == id) {
+                                            GameActivity.getInstance().displayTextBox(
+                                                    npc.getText()
+                                            );
+                                            return;
+                                        }
+                                    } GameActivity.getInstance().displayTextBox(
+                                            new TextBoxStructure(
+                                                    "ERROR - NPC " + id + " NOT FOUND")
+                                    );
+                                }
+                            };
+                            break;
+
+                        case "whiteboard":
+                            final int lessonIndex;
+                            switch (split[4]) {
+                                case "dt":
+                                    lessonIndex = DT_INDEX;
+                                    break;
+                                case "ft":
+                                    lessonIndex = FT_INDEX;
+                                    break;
+                                case "pe":
+                                    lessonIndex = PE_INDEX;
+                                    break;
+                                case "chem":
+                                    lessonIndex = CHEMISTRY_INDEX;
+                                    break;
+                                case "ict":
+                                    lessonIndex = ICT_INDEX;
+                                    break;
+                                default:
+                                    return;
+                            }
+                            switch (lessonIndex) {
+                                case DT_INDEX:
+                                case FT_INDEX:
+                                    runnable1 = new Runnable() {
+                                        @Override
+                                        public void run() {
+                                            GAME.setMiniGame(new LessonB(lessonIndex));
+
+                                            final LessonB gameLessonB =
+                                                    (LessonB) GAME.getMiniGame();
+                                            gameLessonB.refreshHUD();
+                                            gameLessonB.setCraftBarWidth();
+                                            gameLessonB.exampleQuestion();
+
+                                            GameActivity.getInstance().displayLessonBUI();
+                                            final GameActivity gameActivity =
+                                                    GameActivity.getInstance();
+                                            final ImageView craftBarSlider =
+                                                    gameActivity.findViewById(
+                                                            R.id.lesson_b_craft_bar_slider);
+                                            final ImageView help = gameActivity.
+                                                    findViewById(R.id.lesson_b_help_button);
+                                            final ImageView back = gameActivity.
+                                                    findViewById(R.id.lesson_b_back_button);
+
+                                            help.setVisibility(View.INVISIBLE);
+                                            craftBarSlider.setVisibility(View.GONE);
+                                            gameActivity.findViewById(R.id.game_surface).
+                                                    setAlpha(0.25f);
+                                            gameLessonB.setHelp(true);
+                                            gameLessonB.setButtons();
+                                            ((GameTextView) gameActivity.findViewById(
+                                                    R.id.lesson_b_textbox_label_text)).
+                                                    setText("Help");
+                                            gameLessonB.displayText(
+                                                    "> Tap an icon to get an in-depth " +
+                                                            "description.");
+                                            back.setVisibility(View.VISIBLE);
+
+                                            back.setOnClickListener(new View.OnClickListener() {
+                                                @Override
+                                                public void onClick(View v) {
+                                                    GAME.playSFX(SFX_MOVE);
+                                                    back.setVisibility(View.GONE);
+                                                    gameActivity.findViewById(
+                                                            R.id.game_surface).setAlpha(1f);
+                                                    gameLessonB.setHelp(false);
+                                                    gameLessonB.setButtons();
+                                                    gameLessonB.resetBars();
+                                                    gameLessonB.displayText(
+                                                            gameLessonB.getQuestionText());
+                                                    help.setVisibility(View.VISIBLE);
+                                                    gameActivity.findViewById(
+                                                            R.id.lesson_b).setAlpha(1f);
+                                                    gameActivity.findViewById(
+                                                            R.id.lesson_b).
+                                                            setVisibility(View.GONE);
+                                                    gameActivity.findViewById(
+                                                            R.id.lesson_b_textbox).
+                                                            setVisibility(View.GONE);
+                                                    gameActivity.findViewById(
+                                                            R.id.lesson_b_craft_bar_slider).
+                                                            setVisibility(View.VISIBLE);
+                                                    gameActivity.showButtons();
+                                                    GAME.setMiniGame(null);
+                                                }
+                                            });
+                                        }
+                                    };
+                                    break;
+                                case PE_INDEX:
+                                    runnable1 = new Runnable() {
+                                        @Override
+                                        public void run() {
+                                            GAME.getPlayer().resetMoving();
+                                            final int speed = GAME.getPlayer().getSpeed();
+                                            GAME.setMiniGame(new LessonC());
+                                            GameActivity.getInstance().displayLessonCUI();
+                                            final LessonC gameLessonC =
+                                                    (LessonC) GAME.getMiniGame();
+                                            final GameActivity gameActivity =
+                                                    GameActivity.getInstance();
+                                            gameLessonC.refreshHUD();
+
+                                            final ConstraintLayout lessonCTextbox =
+                                                    gameActivity.findViewById(
+                                                            R.id.lesson_c_textbox);
+                                            final ConstraintLayout textBox =
+                                                    gameActivity.findViewById(
+                                                            R.id.lesson_c_textbox_box);
+                                            final ImageView help =
+                                                    gameActivity.findViewById(
+                                                            R.id.lesson_c_help_button);
+                                            final ImageView back =
+                                                    gameActivity.findViewById(
+                                                            R.id.lesson_c_back_button);
+
+                                            final ImageView points =
+                                                    gameActivity.findViewById(
+                                                            R.id.lesson_c_points);
+                                            final GameTextView pointsTitle =
+                                                    gameActivity.findViewById(
+                                                            R.id.lesson_c_points_text_title);
+                                            final GameTextView pointsSubtitle =
+                                                    gameActivity.findViewById(
+                                                            R.id.lesson_c_points_text_subtitle);
+
+                                            points.setVisibility(View.GONE);
+                                            pointsTitle.setVisibility(View.GONE);
+                                            pointsSubtitle.setVisibility(View.GONE);
+
+                                            help.setVisibility(View.GONE);
+                                            gameActivity.findViewById(R.id.game_surface).
+                                                    setAlpha(0.25f);
+                                            gameLessonC.setHelp(true);
+                                            gameLessonC.setButtons();
+                                            textBox.setVisibility(View.VISIBLE);
+                                            gameLessonC.displayText(
+                                                    "> Tap an icon to get an in-depth " +
+                                                            "description.");
+                                            back.setVisibility(View.VISIBLE);
+
+                                            back.setOnClickListener(new View.OnClickListener() {
+                                                @Override
+                                                public void onClick(View v) {
+                                                    GAME.playSFX(SFX_MOVE);
+                                                    back.setVisibility(View.GONE);
+                                                    gameActivity.findViewById(
+                                                            R.id.game_surface).setAlpha(1f);
+                                                    gameLessonC.setHelp(false);
+                                                    textBox.setVisibility(View.GONE);
+                                                    lessonCTextbox.setClickable(false);
+                                                    gameLessonC.setButtons();
+                                                    gameLessonC.resetBars();
+                                                    help.setVisibility(View.VISIBLE);
+                                                    gameActivity.findViewById(R.id.lesson_c).
+                                                            setAlpha(1f);
+                                                    gameActivity.findViewById(R.id.lesson_c).
+                                                            setVisibility(View.GONE);
+
+                                                    points.setVisibility(View.VISIBLE);
+                                                    pointsTitle.setVisibility(View.VISIBLE);
+                                                    pointsSubtitle.setVisibility(View.VISIBLE);
+
+                                                    lessonCTextbox.setVisibility(View.GONE);
+                                                    gameActivity.showButtons();
+                                                    GAME.setMiniGame(null);
+                                                    GAME.getPlayer().setSpeed(speed);
+                                                }
+                                            });
+                                        }
+                                    };
+                                    break;
+                                case CHEMISTRY_INDEX:
+                                case ICT_INDEX:
+                                    runnable1 = new Runnable() {
+                                        @Override
+                                        public void run() {
+                                            GAME.setMiniGame(new LessonA(lessonIndex));
+                                            GameActivity.getInstance().displayLessonAUI();
+                                            final LessonA gameLessonA =
+                                                    (LessonA) GAME.getMiniGame();
+                                            final GameActivity gameActivity =
+                                                    GameActivity.getInstance();
+                                            gameLessonA.refreshHUD();
+                                            final ImageView help = gameActivity.
+                                                    findViewById(R.id.lesson_a_help_button);
+                                            final ImageView back = gameActivity.
+                                                    findViewById(R.id.lesson_a_back_button);
+
+                                            help.setVisibility(View.GONE);
+                                            gameActivity.findViewById(R.id.game_surface).
+                                                    setAlpha(0.25f);
+                                            gameLessonA.setHelp(true);
+                                            gameLessonA.setButtons();
+                                            ((GameTextView) gameActivity.findViewById(
+                                                    R.id.lesson_a_textbox_label_text))
+                                                    .setText("Help");
+                                            gameLessonA.displayText(
+                                                    "> Tap an icon to get an in-depth " +
+                                                            "description.");
+                                            back.setVisibility(View.VISIBLE);
+
+                                            back.setOnClickListener(new View.OnClickListener() {
+                                                @Override
+                                                public void onClick(View v) {
+                                                    GAME.playSFX(SFX_MOVE);
+                                                    back.setVisibility(View.GONE);
+                                                    gameActivity.findViewById(
+                                                            R.id.game_surface).setAlpha(1f);
+                                                    gameLessonA.setHelp(false);
+                                                    gameLessonA.setButtons();
+                                                    gameLessonA.resetBars();
+                                                    gameLessonA.displayText(
+                                                            gameLessonA.getQuestionText());
+                                                    help.setVisibility(View.VISIBLE);
+                                                    gameActivity.findViewById(
+                                                            R.id.lesson_a).setAlpha(1f);
+                                                    gameActivity.findViewById(
+                                                            R.id.lesson_a).
+                                                            setVisibility(View.GONE);
+                                                    gameActivity.findViewById(
+                                                            R.id.lesson_a_textbox).
+                                                            setVisibility(View.GONE);
+                                                    gameActivity.showButtons();
+                                                    GAME.setMiniGame(null);
+                                                }
+                                            });
+                                        }
+                                    };
+                                    break;
+                            }
+                            break;
                     }
-                    if (interactivePoints.get(point).getText(condition) != null) {
-                        interactivePoints.get(point).getText(condition).setTag(tag);
+
+                    if (runnableData.length > 1) {
+                        interactiveTile.setText(condition,
+                                new TextBoxStructure(split[2], runnableData[1], runnableData[2],
+                                        runnable1, null, null));
+                    } else {
+                        interactiveTile.setText(condition,
+                                new TextBoxStructure(split[2], runnable1, false,
+                                        null));
                     }
-                } catch (NumberFormatException e) {
-                    e.printStackTrace();
+
+
+                }
+                if (interactiveTile.getText(condition) != null) {
+                    interactiveTile.getText(condition).setTag(tag);
                 }
+            } catch (NumberFormatException e) {
+                e.printStackTrace();
             }
-        } catch (IOException e) {
-            e.printStackTrace();
         }
     }
 
     private void initialiseNPCs(Context context, int id) {
-
-        InputStream inputStream = context.getResources().openRawResource(id);
-
-        InputStreamReader inputStreamReader = new InputStreamReader(inputStream);
-        BufferedReader bufferedReader = new BufferedReader(inputStreamReader);
-        String line;
         try {
-            while ((line = bufferedReader.readLine()) != null) {
-                String[] split = line.replaceAll("(^.*?\\[|]\\s*$)", "").
-                        split("]\\[");
-
+            for (String[] split : RecordReader.readRecords(context, id)) {
                 int time = -1;
                 switch (split[0]) {
                     case "morning":
@@ -946,65 +1212,54 @@ public class TileMap {
                 npcs.get(time).add(npc);
 
             }
-        } catch (IOException | NumberFormatException e) {
+        } catch (NumberFormatException e) {
             e.printStackTrace();
         }
     }
 
     private void initialiseBehaviourPoints(Context context, int id) {
-        InputStream inputStream = context.getResources().openRawResource(id);
-
-        InputStreamReader inputStreamReader = new InputStreamReader(inputStream);
-        BufferedReader bufferedReader = new BufferedReader(inputStreamReader);
-        String line;
-        try {
-            while ((line = bufferedReader.readLine()) != null) {
-                final String[] split = line.replaceAll("(^.*?\\[|]\\s*$)", "").
-                        split("]\\[");
-
-                Point point;
-                try {
-                    String[] coordinates = split[0].split(",");
-                    point = new Point(Integer.parseInt(coordinates[0]),
-                            Integer.parseInt(coordinates[1]));
-                    if (behaviourPoints.get(point) == null) { behaviourPoints.put(point,
-                            new TileBehaviourStructure());
-                    }
-                    final String[] runnableData = split[2].split("\\|");
-                    Runnable runnable = null;
-                    switch (runnableData[0]) {
-                        case "change":
-                            runnable = new Runnable() {
-                                @Override
-                                public void run() {
-                                    String[] coordinates = runnableData[1].split(",");
-                                    int x = Integer.parseInt(coordinates[0]);
-                                    int y = Integer.parseInt(coordinates[1]);
-                                    matrix.get(y).set(x, runnableData[2].charAt(0));
-                                }
-                            };
-                            break;
-                    }
-
-                    behaviourPoints.get(point).setRunnables(split[1], runnable);
-                } catch (NumberFormatException e) {
-                    e.printStackTrace();
+        for (final String[] split : RecordReader.readRecords(context, id)) {
+            Point point;
+            try {
+                String[] coordinates = split[0].split(",");
+                point = new Point(Integer.parseInt(coordinates[0]),
+                        Integer.parseInt(coordinates[1]));
+                int feature = addFeature(point.x, point.y);
+                if (tileBehaviours[feature] == null) {
+                    tileBehaviours[feature] = new TileBehaviourStructure();
+                }
+                final String[] runnableData = split[2].split("\\|");
+                Runnable runnable = null;
+                switch (runnableData[0]) {
+                    case "change":
+                        runnable = new Runnable() {
+                            @Override
+                            public void run() {
+                                String[] coordinates = runnableData[1].split(",");
+                                int x = Integer.parseInt(coordinates[0]);
+                                int y = Integer.parseInt(coordinates[1]);
+                                setTile(x, y, runnableData[2].charAt(0));
+                            }
+                        };
+                        break;
                 }
+
+                tileBehaviours[feature].setRunnables(split[1], runnable);
+            } catch (NumberFormatException e) {
+                e.printStackTrace();
             }
-        } catch (IOException e) {
-            e.printStackTrace();
         }
     }
 
     public void runDoorEffect(int x, int y) {
-        Runnable effect = doorPoint.get(new Point(x, y)).getEffect();
+        Runnable effect = doors[getFeature(x, y)].getEffect();
         if (effect != null) { effect.run(); }
     }
 
     private void runBehaviour(int x, int y) {
-        TileBehaviourStructure tileBehaviour = behaviourPoints.get(new Point(x, y));
-        for (Map.Entry<String, Runnable> entry : tileBehaviour.getRunnables().entrySet()) {
-            if (ExpressionAnalyser.analyse(entry.getKey(), null)) {
+        TileBehaviourStructure tileBehaviour = tileBehaviours[getFeature(x, y)];
+        for (Map.Entry<Condition, Runnable> entry : tileBehaviour.getRunnables().entrySet()) {
+            if (entry.getKey().evaluate(null)) {
                 entry.getValue().run();
                 return;
             }
@@ -1015,13 +1270,13 @@ public class TileMap {
         animatedTiles.clear();
         int x = GAME.getCamera().getX() - X_PADDING;
         int y = GAME.getCamera().getY() - Y_PADDING;
+        viewX = x;
+        viewY = y;
         for (int j = 0; j < tilesInView.length; j++) {
             for (int i = 0; i < tilesInView[0].length; i++) {
                 Tile tile;
-                if (y + j >= 0  && y + j < matrix.size()
-                        && x + i >= 0 && x + i < matrix.get(0).size()) {
-                    tile = tiles.get(matrix.get(y + j)
-                            .get(x + i));
+                if (y + j >= 0  && y + j < rows && x + i >= 0 && x + i < cols) {
+                    tile = getTile(x + i, y + j);
                     if (hasBehaviour(x + i, y + j)) { runBehaviour(x + i, y + j);}
                     if (tile.animation != null) { animatedTiles.put(new Point(i, j), tile); }
                 } else { tile = null; }
@@ -1040,20 +1295,153 @@ public class TileMap {
         }
     }
 
-    public void draw(Canvas canvas, Paint paint) {
+    /*
+     * Renders the static tiles of a chunk into one bitmap. Animated tiles are left out, as they
+     * are drawn on top of the chunk each frame.
+     */
+    Bitmap renderChunk(int chunkX, int chunkY) {
+        int firstX = chunkX * MAP_CHUNK_SIZE;
+        int firstY = chunkY * MAP_CHUNK_SIZE;
+        int width = Math.min(MAP_CHUNK_SIZE, cols - firstX);
+        int height = Math.min(MAP_CHUNK_SIZE, rows - firstY);
+
+        Bitmap chunk = Bitmap.createBitmap(width * SCALED_TILE_SIZE, height * SCALED_TILE_SIZE,
+                Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(chunk);
+        for (int j = 0; j < height; j++) {
+            for (int i = 0; i < width; i++) {
+                Tile tile = getTile(firstX + i, firstY + j);
+                if (tile == null || tile.animation != null) { continue; }
+                tile.draw(canvas, i * SCALED_TILE_SIZE, j * SCALED_TILE_SIZE, null);
+            }
+        }
+        return chunk;
+    }
+
+    /*
+     * Copies the tiles in view that are drawn over the chunks into the frame. Called by the game
+     * thread when it publishes a frame for the renderer.
+     */
+    public void publishView(TileMapFrame frame) {
+        frame.clear(viewX, viewY);
+        boolean drawEmotions = !GAME.getProgressDataStructure().isCatchInteractiveTile();
         for (int j = 0; j < tilesInView.length; j++) {
             for (int i = 0; i < tilesInView[0].length; i++) {
-                if (tilesInView[j][i] == null) { continue; }
-                canvas.drawBitmap(tilesInView[j][i].image,
-                        ((i - X_PADDING) * SCALED_TILE_SIZE) - GAME.getCamera().getDiffX(),
-                        ((j - Y_PADDING) * SCALED_TILE_SIZE) - GAME.getCamera().getDiffY(),
-                        paint);
-                if (tilesInView[j][i] instanceof InteractiveTile &&
-                        ((InteractiveTile) tilesInView[j][i]).getEmotion() != null &&
-                        !GAME.getProgressDataStructure().isCatchInteractiveTile()) {
-                    ((InteractiveTile) tilesInView[j][i]).getEmotion().draw(canvas, paint);
+                Tile tile = tilesInView[j][i];
+                if (tile == null) { continue; }
+                if (isAnimated(viewX + i, viewY + j)) {
+                    frame.addTile(viewX + i, viewY + j, tile.key);
+                }
+                if (drawEmotions && tile instanceof InteractiveTile &&
+                        ((InteractiveTile) tile).getEmotion() != null) {
+                    frame.addEmotion(viewX + i, viewY + j,
+                            ((InteractiveTile) tile).getEmotion().getId());
                 }
             }
         }
     }
+
+    /*
+     * Draws the map at the camera position and view published for the renderer, rather than
+     * reading them while the game thread may be changing them.
+     */
+    public void draw(Canvas canvas, Paint paint, TileMapFrame frame, int cameraX, int cameraY,
+                     int cameraGX, int cameraGY, int diffX, int diffY) {
+        int originX = cameraX - X_PADDING;
+        int originY = cameraY - Y_PADDING;
+
+        int firstX = Math.max(originX, 0);
+        int firstY = Math.max(originY, 0);
+        int lastX = Math.min(originX + tilesInView[0].length, cols) - 1;
+        int lastY = Math.min(originY + tilesInView.length, rows) - 1;
+        if (firstX <= lastX && firstY <= lastY) {
+            for (int chunkY = firstY / MAP_CHUNK_SIZE; chunkY <= lastY / MAP_CHUNK_SIZE;
+                 chunkY++) {
+                for (int chunkX = firstX / MAP_CHUNK_SIZE; chunkX <= lastX / MAP_CHUNK_SIZE;
+                     chunkX++) {
+                    canvas.drawBitmap(MapChunkCache.get(this, chunkX, chunkY),
+                            (((chunkX * MAP_CHUNK_SIZE) - cameraX) * SCALED_TILE_SIZE) - diffX,
+                            (((chunkY * MAP_CHUNK_SIZE) - cameraY) * SCALED_TILE_SIZE) - diffY,
+                            paint);
+                }
+            }
+        }
+
+        int[] tiles = frame.tiles;
+        for (int i = 0; i < frame.tileCount; i++) {
+            int x = tiles[i * 3];
+            int y = tiles[(i * 3) + 1];
+            getTileByKey((char) tiles[(i * 3) + 2]).draw(canvas,
+                    ((x - cameraX) * SCALED_TILE_SIZE) - diffX,
+                    ((y - cameraY) * SCALED_TILE_SIZE) - diffY, paint);
+        }
+
+        int[] emotions = frame.emotions;
+        for (int i = 0; i < frame.emotionCount; i++) {
+            int x = emotions[i * 3];
+            int y = emotions[(i * 3) + 1];
+            Emotion.getEmotionTile(emotions[(i * 3) + 2]).draw(canvas,
+                    (x * SCALED_TILE_SIZE) - cameraGX, ((y - 1) * SCALED_TILE_SIZE) - cameraGY,
+                    paint);
+        }
+    }
+}
+
+class MapDefinition implements Callable<TileMap> {
+
+    final int id;
+
+    private final Context context;
+    private final int imgId;
+    private final int txtId;
+    private final int datId;
+    private final int doorDatId;
+    private final int interactiveDatId;
+    private final int npcDatId;
+    private final int miniMapId;
+    private final int bgmId;
+    private final int behaviourDatId;
+
+    /*---------------------------------------------------------------------------------------------
+    | Constructors
+    ----------------------------------------------------------------------------------------------*/
+
+    MapDefinition(Context context, int id, int imgId, int txtId, int datId,
+                  int doorDatId, int interactiveDatId, int npcDatId, int miniMapId, int bgmId,
+                  int behaviourDatId) {
+        this.context = context.getApplicationContext();
+        this.id = id;
+        this.imgId = imgId;
+        this.txtId = txtId;
+        this.datId = datId;
+        this.doorDatId = doorDatId;
+        this.interactiveDatId = interactiveDatId;
+        this.npcDatId = npcDatId;
+        this.miniMapId = miniMapId;
+        this.bgmId = bgmId;
+        this.behaviourDatId = behaviourDatId;
+    }
+
+    /*---------------------------------------------------------------------------------------------
+    | Methods
+    ----------------------------------------------------------------------------------------------*/
+
+    @Override
+    public TileMap call() {
+        return new TileMap(context, id, imgId, txtId, datId, doorDatId, interactiveDatId,
+                npcDatId, miniMapId, bgmId, behaviourDatId);
+    }
+
+    String[][] readDoors() {
+        return doorDatId < 0 ? null : RecordReader.readRecords(context, doorDatId);
+    }
+
+    /*
+     * The blocked tiles of the map, read from its text without building it.
+     */
+    CollisionGrid readGrid(String[][] doors) {
+        return new CollisionGrid(id, RecordReader.readLines(context, txtId),
+                RecordReader.readLines(context, datId), doors);
+    }
+
 }
@@ -0,0 +1,62 @@
+package com.lmweav.schoolquest.tiles;
+
+import java.util.Arrays;
+
+/*
+ * School Quest: TileMapFrame
+ * This class holds what is drawn of a tile map on top of its chunks in one frame: the origin of
+ * the view, the animated tiles in view and the emotions of the interactive tiles in view.
+ *
+ * It is filled by the game thread when it publishes a frame (see TileMap.publishView) and read by
+ * the renderer (see TileMap.draw), so the renderer never reads the view while update() is
+ * rewriting it. Tiles are kept by their key and emotions by their id, not as references.
+ *
+ * @author Luke Weaver
+ * @version 1.0.9
+ * @since 2019-10-16
+ */
+public class TileMapFrame {
+
+    int viewX;
+    int viewY;
+
+    // { x, y, key } of each animated tile
+    int tileCount;
+    int[] tiles = new int[0];
+
+    // { x, y, emotion id } of each interactive tile with an emotion
+    int emotionCount;
+    int[] emotions = new int[0];
+
+    /*---------------------------------------------------------------------------------------------
+    | Methods
+    ----------------------------------------------------------------------------------------------*/
+
+    void clear(int viewX, int viewY) {
+        this.viewX = viewX;
+        this.viewY = viewY;
+        tileCount = 0;
+        emotionCount = 0;
+    }
+
+    void addTile(int x, int y, char key) {
+        if ((tileCount + 1) * 3 > tiles.length) {
+            tiles = Arrays.copyOf(tiles, Math.max(48, tiles.length * 2));
+        }
+        tiles[tileCount * 3] = x;
+        tiles[(tileCount * 3) + 1] = y;
+        tiles[(tileCount * 3) + 2] = key;
+        tileCount++;
+    }
+
+    void addEmotion(int x, int y, int id) {
+        if ((emotionCount + 1) * 3 > emotions.length) {
+            emotions = Arrays.copyOf(emotions, Math.max(12, emotions.length * 2));
+        }
+        emotions[emotionCount * 3] = x;
+        emotions[(emotionCount * 3) + 1] = y;
+        emotions[(emotionCount * 3) + 2] = id;
+        emotionCount++;
+    }
+
+}
@@ -1,8 +1,6 @@
 package com.lmweav.schoolquest.tiles;
 
 import android.content.Context;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.util.Pair;
 
 import com.lmweav.schoolquest.characters.GameCharacter;
@@ -13,15 +11,14 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 
 import static com.lmweav.schoolquest.Constants.*;
 
 /*
  * School Quest: TileSet
- * This class holds the images used for a game character or tile map. A tile map's tile set
- * also holds data used to determine the properties of each tile (such as type, collision,
- * animation, etc.).
+ * This class holds the images used for a game character or tile map, as a shared TextureAtlas.
+ * A tile map's tile set also holds data used to determine the properties of each tile (such as
+ * type, collision, animation, etc.).
  *
  * Methods in this class read the data needed to create the tile set, then creates and maps the
  * tile objects.
@@ -32,7 +29,7 @@ import static com.lmweav.schoolquest.Constants.*;
  */
 public class TileSet {
 
-    private Bitmap[] images;
+    private TextureAtlas atlas;
     private ArrayList<ArrayList<String>> tileSetData;
 
     /*---------------------------------------------------------------------------------------------
@@ -41,35 +38,11 @@ public class TileSet {
 
     TileSet(Context context, int imgId, int datId) {
         tileSetData = readTileData(context, datId);
-        Bitmap tileset = BitmapFactory.decodeResource(context.getResources(), imgId);
-        int rows = tileset.getHeight() / RAW_TILE_SIZE;
-        int cols = tileset.getWidth() / RAW_TILE_SIZE;
-        images = new Bitmap[rows * cols];
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                Bitmap rawImage = Bitmap.createBitmap(tileset, j * RAW_TILE_SIZE,
-                        i * RAW_TILE_SIZE, RAW_TILE_SIZE, RAW_TILE_SIZE);
-                images[(i * cols) + j] = Bitmap.createScaledBitmap(rawImage,
-                        SCALED_TILE_SIZE, SCALED_TILE_SIZE, false);
-                rawImage.recycle();
-            }
-        }
+        atlas = TextureAtlas.getAtlas(context, imgId);
     }
 
     public TileSet(Context context, int imgId) {
-        Bitmap tileset = BitmapFactory.decodeResource(context.getResources(), imgId);
-        int rows = tileset.getHeight() / RAW_TILE_SIZE;
-        int cols = tileset.getWidth() / RAW_TILE_SIZE;
-        images = new Bitmap[rows * cols];
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                Bitmap rawImage = Bitmap.createBitmap(tileset, j * RAW_TILE_SIZE,
-                        i * RAW_TILE_SIZE, RAW_TILE_SIZE,
-                        RAW_TILE_SIZE);
-                images[(i * cols) + j] = Bitmap.createScaledBitmap(rawImage,
-                        SCALED_TILE_SIZE, SCALED_TILE_SIZE, false);
-            }
-        }
+        atlas = TextureAtlas.getAtlas(context, imgId);
     }
 
     /*---------------------------------------------------------------------------------------------
@@ -95,7 +68,7 @@ public class TileSet {
         return matrix;
     }
 
-    private Tile createTile(ArrayList<String> data, Bitmap image) {
+    private Tile createTile(ArrayList<String> data, int index) {
         boolean collision;
         Pair<Character, Integer> animation = null;
         if (data.size() >= 4) {
@@ -108,47 +81,57 @@ public class TileSet {
         switch (Integer.parseInt(data.get(0))) {
             case 0:
                 collision = Integer.parseInt(data.get(1)) != 0;
-                if (animation == null) { return new Tile(image, collision, data.get(2).charAt(0)); }
-                else { return new Tile(image, collision, data.get(2).charAt(0), animation); }
+                if (animation == null) {
+                    return new Tile(atlas, index, collision, data.get(2).charAt(0));
+                } else {
+                    return new Tile(atlas, index, collision, data.get(2).charAt(0), animation);
+                }
             case 1:
-                if (animation == null) { return new DoorTile(image, data.get(1).charAt(0)); }
-                else { return new DoorTile(image, data.get(1).charAt(0), animation); }
+                if (animation == null) { return new DoorTile(atlas, index, data.get(1).charAt(0)); }
+                else { return new DoorTile(atlas, index, data.get(1).charAt(0), animation); }
             case 2:
                 collision = Integer.parseInt(data.get(1)) != 0;
                 if (animation == null) {
-                    return new InteractiveTile(image, collision, data.get(2).charAt(0));
+                    return new InteractiveTile(atlas, index, collision, data.get(2).charAt(0));
                 } else {
-                    return new InteractiveTile(image, collision, data.get(2).charAt(0), animation);
+                    return new InteractiveTile(atlas, index, collision, data.get(2).charAt(0),
+                            animation);
                 }
             default:
                 return null;
         }
     }
 
-    private Tile createGameCharacterTile(Bitmap image) {
-        return new Tile(image, true, GameCharacter.getKey());
+    private Tile createGameCharacterTile(int index) {
+        return new Tile(atlas, index, true, GameCharacter.getKey());
     }
 
     public ArrayList<Tile> createGameCharacterTileList() {
         ArrayList<Tile> tiles = new ArrayList<>();
-        for (Bitmap image : images) {
-            tiles.add(createGameCharacterTile(image));
+        for (int i = 0; i < atlas.getCount(); i++) {
+            tiles.add(createGameCharacterTile(i));
         }
         return tiles;
     }
 
-    HashMap<Character, Tile> mapTiles() {
-        HashMap<Character, Tile> tiles = new HashMap<>();
-        Tile tile;
-        for (int i = 0; i < images.length; i++) {
+    /*
+     * Returns the tiles of this set indexed by their character key.
+     */
+    Tile[] mapTiles() {
+        Tile[] created = new Tile[atlas.getCount()];
+        char maxKey = 0;
+        for (int i = 0; i < created.length; i++) {
             try {
-                tile = createTile(tileSetData.get(i), images[i]);
+                created[i] = createTile(tileSetData.get(i), i);
             } catch (IndexOutOfBoundsException e) {
-                tile = createTile(tileSetData.get(0), images[0]);
+                created[i] = createTile(tileSetData.get(0), 0);
             }
-            assert tile != null;
-            tiles.put(tile.key, tile);
+            assert created[i] != null;
+            if (created[i].key > maxKey) { maxKey = created[i].key; }
         }
+
+        Tile[] tiles = new Tile[maxKey + 1];
+        for (Tile tile : created) { tiles[tile.key] = tile; }
         return tiles;
     }
 }
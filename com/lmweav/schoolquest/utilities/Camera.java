@@ -20,6 +20,8 @@ public class Camera {
     private int y;
     private int gX;
     private int gY;
+    private int previousGX;
+    private int previousGY;
 
     private int diffX = gX - (x * SCALED_TILE_SIZE);
     private int diffY = gY - (y * SCALED_TILE_SIZE);
@@ -55,6 +57,10 @@ public class Camera {
     public int getGY() { return gY; }
     public void setGY(int gY) { this.gY = gY; }
 
+    public int getPreviousGX() { return previousGX; }
+
+    public int getPreviousGY() { return previousGY; }
+
     public int getDiffX() { return diffX; }
 
     public int getDiffY() { return diffY; }
@@ -74,6 +80,11 @@ public class Camera {
         diffY = gY - (y * SCALED_TILE_SIZE);
     }
 
+    public void savePosition() {
+        previousGX = gX;
+        previousGY = gY;
+    }
+
     public void reset() {
         this.x = GAME.getPlayer().getX() - (CAMERA_WIDTH / 2);
         this.y = GAME.getPlayer().getY() - (CAMERA_HEIGHT / 2);
@@ -0,0 +1,130 @@
+package com.lmweav.schoolquest.utilities;
+
+import com.lmweav.schoolquest.characters.NPC;
+
+/*
+ * School Quest: Condition
+ * This class is a condition expression compiled by the ExpressionAnalyser.
+ *
+ * A condition is a list of terms joined by AND and OR, which are applied from left to right. A
+ * term is either a (possibly negated) boolean variable, or a comparison between two numeric
+ * variables or integers. Variables are stored as integer slots and read when the condition is
+ * evaluated, so evaluating allocates nothing.
+ *
+ * The inputs are the ConditionState inputs the condition reads, as a bit mask, so a result can be
+ * kept until one of them changes.
+ *
+ * Conditions are shared (see ExpressionAnalyser.compile), so the same expression text always
+ * gives the same object, and conditions can be used as map keys.
+ *
+ * @author Luke Weaver
+ * @version 1.0.9
+ * @since 2019-10-16
+ */
+public class Condition {
+
+    static final int TERM_BOOLEAN = 0;
+    static final int TERM_EQUAL = 1;
+    static final int TERM_NOT_EQUAL = 2;
+    static final int TERM_GREATER = 3;
+    static final int TERM_LESS = 4;
+    static final int TERM_GREATER_EQUAL = 5;
+    static final int TERM_LESS_EQUAL = 6;
+
+    private final String expression;
+
+    private final int[] terms;
+    private final int[] lefts;
+    private final int[] rights;
+    private final boolean[] leftLiterals;
+    private final boolean[] rightLiterals;
+    private final boolean[] negations;
+    private final boolean[] ors;
+
+    private long inputs;
+
+    /*---------------------------------------------------------------------------------------------
+    | Constructors
+    ----------------------------------------------------------------------------------------------*/
+
+    Condition(String expression, int size) {
+        this.expression = expression;
+
+        terms = new int[size];
+        lefts = new int[size];
+        rights = new int[size];
+        leftLiterals = new boolean[size];
+        rightLiterals = new boolean[size];
+        negations = new boolean[size];
+        ors = new boolean[size];
+    }
+
+    /*---------------------------------------------------------------------------------------------
+    | Getters and Setters
+    ----------------------------------------------------------------------------------------------*/
+
+    public long getInputs() { return inputs; }
+
+    void addInputs(long inputs) { this.inputs |= inputs; }
+
+    /*
+     * The join is how the term is applied to the result of the terms before it, and is ignored
+     * for the first term.
+     */
+    void setBooleanTerm(int i, boolean or, int variable, boolean negated) {
+        terms[i] = TERM_BOOLEAN;
+        ors[i] = or;
+        lefts[i] = variable;
+        negations[i] = negated;
+    }
+
+    void setComparisonTerm(int i, boolean or, int term, int left, boolean leftLiteral,
+                           int right, boolean rightLiteral) {
+        terms[i] = term;
+        ors[i] = or;
+        lefts[i] = left;
+        leftLiterals[i] = leftLiteral;
+        rights[i] = right;
+        rightLiterals[i] = rightLiteral;
+    }
+
+    /*---------------------------------------------------------------------------------------------
+    | Methods
+    ----------------------------------------------------------------------------------------------*/
+
+    public boolean evaluate(NPC npc) {
+        boolean result = evaluateTerm(0, npc);
+        for (int i = 1; i < terms.length; i++) {
+            if (ors[i]) { result = result || evaluateTerm(i, npc); }
+            else { result = result && evaluateTerm(i, npc); }
+        }
+        return result;
+    }
+
+    private boolean evaluateTerm(int i, NPC npc) {
+        if (terms[i] == TERM_BOOLEAN) {
+            return ExpressionAnalyser.getBoolean(lefts[i], npc) != negations[i];
+        }
+
+        int left = leftLiterals[i] ? lefts[i] : ExpressionAnalyser.getNumber(lefts[i], npc);
+        int right = rightLiterals[i] ? rights[i] : ExpressionAnalyser.getNumber(rights[i], npc);
+        switch (terms[i]) {
+            case TERM_EQUAL:
+                return left == right;
+            case TERM_NOT_EQUAL:
+                return left != right;
+            case TERM_GREATER:
+                return left > right;
+            case TERM_LESS:
+                return left < right;
+            case TERM_GREATER_EQUAL:
+                return left >= right;
+            default:
+                return left <= right;
+        }
+    }
+
+    @Override
+    public String toString() { return expression; }
+
+}
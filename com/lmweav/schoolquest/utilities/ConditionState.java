@@ -0,0 +1,109 @@
+package com.lmweav.schoolquest.utilities;
+
+import com.lmweav.schoolquest.characters.Player;
+
+import static com.lmweav.schoolquest.Game.GAME;
+
+/*
+ * School Quest: ConditionState
+ * This class tracks the game state that conditions read, so that a condition's result can be kept
+ * until one of its inputs changes.
+ *
+ * The inputs are sampled once per tick (see sample), before the NPCs check their events. Each
+ * input remembers the generation it last changed in, and the generation only moves on when some
+ * input has changed. A result worked out at generation g is still valid if none of the inputs it
+ * read have changed since g (see hasChanged). Collections such as the inventory are tracked by a
+ * version number that the game bumps whenever they are changed.
+ *
+ * The state is only sampled and read on the game thread.
+ *
+ * @author Luke Weaver
+ * @version 1.0.9
+ * @since 2019-10-16
+ */
+public class ConditionState {
+
+    static final int FP0 = 0;
+    static final int GP0 = 5;
+    static final int TIME = 10;
+    static final int RESPONSE = 11;
+    static final int CONDITION = 12;
+    static final int PLAYER_X = 13;
+    static final int PLAYER_Y = 14;
+    static final int GF_INDEX = 15;
+    static final int PLAN = 16;
+    static final int WON = 17;
+    static final int SUSPENDED = 18;
+    static final int MINIGAME = 19;
+    static final int INVENTORY = 20;
+    static final int NPC_LISTS = 21;
+    private static final int INPUT_COUNT = 22;
+
+    private static final int[] values = new int[INPUT_COUNT];
+    private static final int[] changedAt = new int[INPUT_COUNT];
+    private static final int[] sample = new int[INPUT_COUNT];
+
+    private static int generation;
+
+    /*---------------------------------------------------------------------------------------------
+    | Constructors
+    ----------------------------------------------------------------------------------------------*/
+
+    private ConditionState() { }
+
+    /*---------------------------------------------------------------------------------------------
+    | Getters and Setters
+    ----------------------------------------------------------------------------------------------*/
+
+    public static int getGeneration() { return generation; }
+
+    static long getInput(int input) { return 1L << input; }
+
+    /*---------------------------------------------------------------------------------------------
+    | Methods
+    ----------------------------------------------------------------------------------------------*/
+
+    public static void sample() {
+        Player player = GAME.getPlayer();
+
+        for (int i = 0; i < 5; i++) {
+            sample[FP0 + i] = GAME.getFriendScore(i);
+            sample[GP0 + i] = GAME.getGradeScore(i);
+        }
+        sample[TIME] = GAME.getTime();
+        sample[RESPONSE] = player.getResponseIndex();
+        sample[CONDITION] = player.getCondition();
+        sample[PLAYER_X] = player.getX();
+        sample[PLAYER_Y] = player.getY();
+        sample[GF_INDEX] = GAME.getGfIndex();
+        sample[PLAN] = GAME.getProgressDataStructure().hasHeistPlan() ? 1 : 0;
+        sample[WON] = GAME.getProgressDataStructure().hasWonHeist() ? 1 : 0;
+        sample[SUSPENDED] = GAME.getProgressDataStructure().hasLostHeist() ? 1 : 0;
+        sample[MINIGAME] = GAME.getMiniGame() != null ? 1 : 0;
+        sample[INVENTORY] = GAME.getInventoryVersion();
+        sample[NPC_LISTS] = GAME.getNpcListVersion();
+
+        boolean changed = false;
+        for (int i = 0; i < INPUT_COUNT; i++) {
+            if (sample[i] != values[i]) {
+                if (!changed) {
+                    generation++;
+                    changed = true;
+                }
+                values[i] = sample[i];
+                changedAt[i] = generation;
+            }
+        }
+    }
+
+    /*
+     * Checks whether any of the inputs in the mask have changed since the given generation.
+     */
+    public static boolean hasChanged(long inputs, int since) {
+        for (int i = 0; inputs != 0; i++, inputs >>>= 1) {
+            if ((inputs & 1) != 0 && changedAt[i] > since) { return true; }
+        }
+        return false;
+    }
+
+}
@@ -3,8 +3,8 @@ package com.lmweav.schoolquest.utilities;
 import com.lmweav.schoolquest.characters.NPC;
 import com.lmweav.schoolquest.items.Item;
 
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.lmweav.schoolquest.Game.GAME;
 import static com.lmweav.schoolquest.Constants.*;
@@ -13,7 +13,12 @@ import static com.lmweav.schoolquest.Constants.*;
  * School Quest: ExpressionAnalyser
  * This class is a small expression analyser for reading text files that are used in the game.
  *
- * Methods in this class tokenise, parse and analyse the supplied data.
+ * Methods in this class tokenise and parse the supplied data into a Condition, which is then
+ * evaluated. Conditions are compiled when the text files are loaded and cached by their text, so a
+ * malformed expression fails at load rather than mid-frame, and nothing is parsed afterwards.
+ *
+ * Each condition also records the ConditionState inputs its variables read. ITEM and ID belong to
+ * the NPC rather than the game, so they are not inputs.
  *
  * @author Luke Weaver
  * @version 1.0.9
@@ -21,66 +26,78 @@ import static com.lmweav.schoolquest.Constants.*;
  */
 public class ExpressionAnalyser {
 
-    private static ArrayList<String> numericVariables = new ArrayList<>();
-    private static ArrayList<String> booleanVariables = new ArrayList<>();
-    private static ArrayList<String> inequalityOperators = new ArrayList<>();
-    private static ArrayList<String> booleanOperators = new ArrayList<>();
+    private static final int FP0 = 0;
+    private static final int GP0 = 5;
+    private static final int ITEM = 10;
+    private static final int TIME = 11;
+    private static final int RESPONSE = 12;
+    private static final int ID = 13;
+    private static final int CONDITION = 14;
+    private static final int PLAYER_X = 15;
+    private static final int PLAYER_Y = 16;
+
+    private static final int TRUE = 0;
+    private static final int FALSE = 1;
+    private static final int SPOKEN = 2;
+    private static final int GIVE = 3;
+    private static final int KEY0 = 4;
+    private static final int GF = 10;
+    private static final int HAS_GF = 11;
+    private static final int PLAN = 12;
+    private static final int HEIST = 13;
+    private static final int WON = 14;
+    private static final int SUSPENDED = 15;
+    private static final int MINIGAME = 16;
+
+    private static final int[] KEY_INDICES = { KEY0_INDEX, KEY1_INDEX, KEY2_INDEX, KEY3_INDEX,
+            KEY4_INDEX, KEY5_INDEX };
+
+    private static HashMap<String, Integer> numericVariables = new HashMap<>();
+    private static HashMap<String, Integer> booleanVariables = new HashMap<>();
+    private static HashMap<String, Integer> inequalityOperators = new HashMap<>();
+
+    private static final ConcurrentHashMap<String, Condition> conditions =
+            new ConcurrentHashMap<>();
 
     static {
-        numericVariables.add("FP0");
-        numericVariables.add("FP1");
-        numericVariables.add("FP2");
-        numericVariables.add("FP3");
-        numericVariables.add("FP4");
-
-        numericVariables.add("GP0");
-        numericVariables.add("GP1");
-        numericVariables.add("GP2");
-        numericVariables.add("GP3");
-        numericVariables.add("GP4");
-
-        numericVariables.add("ITEM");
-
-        numericVariables.add("TIME");
-        numericVariables.add("RESPONSE");
-        numericVariables.add("ID");
-        numericVariables.add("CONDITION");
-
-        numericVariables.add("PLAYER_X");
-        numericVariables.add("PLAYER_Y");
-
-        booleanVariables.add("TRUE");
-        booleanVariables.add("FALSE");
-
-        booleanVariables.add("SPOKEN");
-
-        booleanVariables.add("GIVE");
-
-        booleanVariables.add("KEY0");
-        booleanVariables.add("KEY1");
-        booleanVariables.add("KEY2");
-        booleanVariables.add("KEY3");
-        booleanVariables.add("KEY4");
-        booleanVariables.add("KEY5");
-
-        booleanVariables.add("GF");
-        booleanVariables.add("HAS_GF");
-        booleanVariables.add("PLAN");
-        booleanVariables.add("HEIST");
-        booleanVariables.add("WON");
-        booleanVariables.add("SUSPENDED");
-        booleanVariables.add("MINIGAME");
-
-        booleanOperators.add("AND");
-        booleanOperators.add("OR");
-        booleanOperators.add("NOT");
-
-        inequalityOperators.add("==");
-        inequalityOperators.add("!=");
-        inequalityOperators.add(">");
-        inequalityOperators.add("<");
-        inequalityOperators.add(">=");
-        inequalityOperators.add("<=");
+        for (int i = 0; i < 5; i++) {
+            numericVariables.put("FP" + i, FP0 + i);
+            numericVariables.put("GP" + i, GP0 + i);
+        }
+
+        numericVariables.put("ITEM", ITEM);
+
+        numericVariables.put("TIME", TIME);
+        numericVariables.put("RESPONSE", RESPONSE);
+        numericVariables.put("ID", ID);
+        numericVariables.put("CONDITION", CONDITION);
+
+        numericVariables.put("PLAYER_X", PLAYER_X);
+        numericVariables.put("PLAYER_Y", PLAYER_Y);
+
+        booleanVariables.put("TRUE", TRUE);
+        booleanVariables.put("FALSE", FALSE);
+
+        booleanVariables.put("SPOKEN", SPOKEN);
+
+        booleanVariables.put("GIVE", GIVE);
+
+        for (int i = 0; i < KEY_INDICES.length; i++) { booleanVariables.put("KEY" + i, KEY0 + i); }
+
+        booleanVariables.put("GF", GF);
+        booleanVariables.put("HAS_GF", HAS_GF);
+        booleanVariables.put("PLAN", PLAN);
+        booleanVariables.put("HEIST", HEIST);
+        booleanVariables.put("WON", WON);
+        booleanVariables.put("SUSPENDED", SUSPENDED);
+        booleanVariables.put("MINIGAME", MINIGAME);
+
+        inequalityOperators.put("==", Condition.TERM_EQUAL);
+        inequalityOperators.put("!=", Condition.TERM_NOT_EQUAL);
+        inequalityOperators.put(">", Condition.TERM_GREATER);
+        inequalityOperators.put("<", Condition.TERM_LESS);
+        inequalityOperators.put(">=", Condition.TERM_GREATER_EQUAL);
+        inequalityOperators.put("<=", Condition.TERM_LESS_EQUAL);
     }
 
     /*---------------------------------------------------------------------------------------------
@@ -96,231 +113,220 @@ public class ExpressionAnalyser {
         return true;
     }
 
-    private static boolean isOperator(String token) {
-        return booleanOperators.contains(token) || inequalityOperators.contains(token);
+    private static boolean isBooleanOperator(String token) {
+        return token.equals("AND") || token.equals("OR") || token.equals("NOT");
     }
 
-    private static boolean isVariable(String token) {
-        return booleanVariables.contains(token) || numericVariables.contains(token);
+    private static boolean isValid(String token) {
+        return booleanVariables.containsKey(token) || numericVariables.containsKey(token)
+                || isBooleanOperator(token) || inequalityOperators.containsKey(token)
+                || isInteger(token);
     }
 
-    private static boolean isValid(String token) {
-        return isVariable(token) || isOperator(token) || isInteger(token);
+    private static IllegalStateException malformed(String expression) {
+        return new IllegalStateException("Malformed condition: \"" + expression + "\"");
     }
 
-    private static ArrayList<String> tokenise(String expression) {
-        String[] tokens = expression.split("\\s+");
-        for (String token : tokens) {
-            if (!isValid(token)) {
-                throw new IllegalStateException(); }
+    /*
+     * Returns the compiled condition for an expression, compiling it on first use. The text files
+     * compile their conditions as they are read.
+     */
+    public static Condition compile(String expression) {
+        Condition condition = conditions.get(expression);
+        if (condition == null) {
+            condition = parse(expression);
+            Condition existing = conditions.putIfAbsent(expression, condition);
+            if (existing != null) { condition = existing; }
         }
-        return new ArrayList<>(Arrays.asList(tokens));
+        return condition;
     }
 
-    private static void splitExpressions(ArrayList<String> tokens,
-                                         ArrayList<ArrayList<String>> exps,
-                                         ArrayList<String> boolOps) {
-        int i = 0;
-        exps.add(new ArrayList<String>());
+    /*
+     * Terms are split on AND and OR. As before, tokens after a complete term are ignored.
+     */
+    private static Condition parse(String expression) {
+        String[] tokens = expression.split("\\s+");
+        int size = 1;
         for (String token : tokens) {
-            if (booleanOperators.contains(token) && !token.equals("NOT")) {
-                boolOps.add(token);
-                exps.add(new ArrayList<String>());
-                i++;
-            } else { exps.get(i).add(token); }
+            if (!isValid(token)) { throw malformed(expression); }
+            if (token.equals("AND") || token.equals("OR")) { size++; }
         }
+
+        Condition condition = new Condition(expression, size);
+        int start = 0;
+        boolean or = false;
+        int term = 0;
+        for (int i = 0; i <= tokens.length; i++) {
+            if (i == tokens.length || tokens[i].equals("AND") || tokens[i].equals("OR")) {
+                parseTerm(expression, tokens, start, i, condition, term++, or);
+                if (i < tokens.length) { or = tokens[i].equals("OR"); }
+                start = i + 1;
+            }
+        }
+        return condition;
     }
 
-    private static Object setVariable(String token, NPC npc) {
-        switch (token) {
-            case "FP0":
-                return GAME.getFriendScore(0);
-            case "FP1":
-                return GAME.getFriendScore(1);
-            case "FP2":
-                return GAME.getFriendScore(2);
-            case "FP3":
-                return GAME.getFriendScore(3);
-            case "FP4":
-                return GAME.getFriendScore(4);
-
-            case "GP0":
-                return GAME.getGradeScore(0);
-            case "GP1":
-                return GAME.getGradeScore(1);
-            case "GP2":
-                return GAME.getGradeScore(2);
-            case "GP3":
-                return GAME.getGradeScore(3);
-            case "GP4":
-                return GAME.getGradeScore(4);
-
-            case "PLAYER_X":
-                return GAME.getPlayer().getX();
-            case "PLAYER_Y":
-                return GAME.getPlayer().getY();
+    private static void parseTerm(String expression, String[] tokens, int start, int end,
+                                  Condition condition, int term, boolean or) {
+        int i = start;
+        boolean not = false;
 
-            case "KEY0":
-                return GAME.hasItem(Item.getItem(KEY0_INDEX));
-            case "KEY1":
-                return GAME.hasItem(Item.getItem(KEY1_INDEX));
-            case "KEY2":
-                return GAME.hasItem(Item.getItem(KEY2_INDEX));
-            case "KEY3":
-                return GAME.hasItem(Item.getItem(KEY3_INDEX));
-            case "KEY4":
-                return GAME.hasItem(Item.getItem(KEY4_INDEX));
-            case "KEY5":
-                return GAME.hasItem(Item.getItem(KEY5_INDEX));
-
-            case "GIVE":
-                return npc.canGive() && GAME.getPlayer().getResponseIndex() != 3;
+        if (i < end && tokens[i].equals("NOT")) {
+            not = true;
+            i++;
+        }
+        if (i >= end) { throw malformed(expression); }
+
+        Integer variable = booleanVariables.get(tokens[i]);
+        if (variable != null) {
+            condition.setBooleanTerm(term, or, variable, not);
+            condition.addInputs(getBooleanInputs(variable));
+            return;
+        }
+        if (not || i + 2 >= end) { throw malformed(expression); }
+
+        Integer operator = inequalityOperators.get(tokens[i + 1]);
+        String right = tokens[i + 2];
+        if (operator == null || right.equals("NOT") || booleanVariables.containsKey(right)) {
+            throw malformed(expression);
+        }
 
-            case "ITEM":
+        String left = tokens[i];
+        int leftOperand = getOperand(expression, left);
+        int rightOperand = getOperand(expression, right);
+        condition.setComparisonTerm(term, or, operator, leftOperand, isInteger(left),
+                rightOperand, isInteger(right));
+        if (!isInteger(left)) { condition.addInputs(getNumberInputs(leftOperand)); }
+        if (!isInteger(right)) { condition.addInputs(getNumberInputs(rightOperand)); }
+    }
+
+    private static int getOperand(String expression, String token) {
+        Integer variable = numericVariables.get(token);
+        if (variable != null) { return variable; }
+        if (isInteger(token)) { return Integer.parseInt(token); }
+        throw malformed(expression);
+    }
+
+    static int getNumber(int variable, NPC npc) {
+        switch (variable) {
+            case ITEM:
                 return npc.getItemResponseIndex();
 
-            case "TIME":
+            case TIME:
                 return GAME.getTime();
-            case "RESPONSE":
+            case RESPONSE:
                 return GAME.getPlayer().getResponseIndex();
-            case "ID":
+            case ID:
                 return npc.getId();
-            case "CONDITION":
+            case CONDITION:
                 return GAME.getPlayer().getCondition();
 
-            case "TRUE":
+            case PLAYER_X:
+                return GAME.getPlayer().getX();
+            case PLAYER_Y:
+                return GAME.getPlayer().getY();
+
+            default:
+                if (variable < GP0) { return GAME.getFriendScore(variable - FP0); }
+                return GAME.getGradeScore(variable - GP0);
+        }
+    }
+
+    static boolean getBoolean(int variable, NPC npc) {
+        switch (variable) {
+            case TRUE:
                 return true;
-            case "FALSE":
+            case FALSE:
                 return false;
 
-            case "GF":
+            case SPOKEN:
+                return GAME.spokenTo(npc);
+
+            case GIVE:
+                return npc.canGive() && GAME.getPlayer().getResponseIndex() != 3;
+
+            case GF:
                 return GAME.getGfIndex() == npc.getId();
-            case "HAS_GF":
+            case HAS_GF:
                 return GAME.getGfIndex() >= 0;
-            case "PLAN":
+            case PLAN:
                 return GAME.getProgressDataStructure().hasHeistPlan();
-            case "HEIST":
+            case HEIST:
                 return GAME.hasItem(Item.getItem(KEY0_INDEX)) &&
                         GAME.hasItem(Item.getItem(KEY3_INDEX)) &&
                         GAME.hasItem(Item.getItem(KEY4_INDEX));
-            case "WON":
+            case WON:
                 return GAME.getProgressDataStructure().hasWonHeist();
-            case "SUSPENDED":
+            case SUSPENDED:
                 return GAME.getProgressDataStructure().hasLostHeist();
 
-            case "MINIGAME":
+            case MINIGAME:
                 return GAME.getMiniGame() != null;
 
-            case "SPOKEN":
-                return GAME.spokenTo(npc);
-
             default:
-                if (isInteger(token)) {
-                    return Integer.parseInt(token);
-                }
-                throw new IllegalStateException();
+                return GAME.hasItem(Item.getItem(KEY_INDICES[variable - KEY0]));
         }
     }
 
-    private static boolean evaluateExpression(ArrayList<String> expression, NPC npc) {
-        boolean not = false;
-        Object var1, var2;
-        int i = 0, operatorIndex;
-
-        if (expression.get(i).equals("NOT")) {
-            not = true;
-            i++;
-        }
-        if (not && !booleanVariables.contains(expression.get(i))) {
-            throw new IllegalStateException();
-        }
-
-        var1 = setVariable(expression.get(i), npc);
-        i++;
-        if (var1 instanceof Boolean) {
-            if (not) { return !((Boolean) var1);}
-            return (Boolean) var1;
-        }
-        if (!inequalityOperators.contains(expression.get(i))) {
-            throw new IllegalStateException();
-        }
-        operatorIndex = i;
-        i++;
-
-        if (expression.get(i).equals("NOT")) {
-            throw new IllegalStateException();
-        }
-
-        var2 = setVariable(expression.get(i), npc);
+    private static long getNumberInputs(int variable) {
+        switch (variable) {
+            case ITEM:
+            case ID:
+                return 0;
 
-        if (var2 instanceof Boolean) {
-            throw new IllegalStateException();
-        }
+            case TIME:
+                return ConditionState.getInput(ConditionState.TIME);
+            case RESPONSE:
+                return ConditionState.getInput(ConditionState.RESPONSE);
+            case CONDITION:
+                return ConditionState.getInput(ConditionState.CONDITION);
 
-        switch (expression.get(operatorIndex)) {
-            case "==":
-                return var1 == var2;
-            case "!=":
-                return var1 != var2;
-            case ">":
-                return (Integer) var1 > (Integer) var2;
-            case "<":
-                return (Integer) var1 < (Integer) var2;
-            case ">=":
-                return (Integer) var1 >= (Integer) var2;
-            case "<=":
-                return (Integer) var1 <= (Integer) var2;
+            case PLAYER_X:
+                return ConditionState.getInput(ConditionState.PLAYER_X);
+            case PLAYER_Y:
+                return ConditionState.getInput(ConditionState.PLAYER_Y);
 
             default:
-                throw new IllegalStateException();
+                if (variable < GP0) {
+                    return ConditionState.getInput(ConditionState.FP0 + variable - FP0);
+                }
+                return ConditionState.getInput(ConditionState.GP0 + variable - GP0);
         }
     }
 
-    public static boolean analyse(String expression, NPC npc) {
-        ArrayList<String> tokens = tokenise(expression);
-        ArrayList<Boolean> evals = new ArrayList<>();
-
-        ArrayList<ArrayList<String>> exps = new ArrayList<>();
-        ArrayList<String> boolOps = new ArrayList<>();
-
-        boolean result;
-
-
-        splitExpressions(tokens, exps, boolOps);
-
-        for (ArrayList<String> exp : exps) {
-            evals.add(evaluateExpression(exp, npc));
-        }
-
-        if (boolOps.size() == 0) { return evals.get(0); }
-
-        switch (boolOps.get(0)) {
-            case "AND":
-                result = evals.get(0) && evals.get(1);
-                break;
-            case "OR":
-                result = evals.get(0) || evals.get(1);
-                break;
+    private static long getBooleanInputs(int variable) {
+        switch (variable) {
+            case TRUE:
+            case FALSE:
+                return 0;
+
+            case SPOKEN:
+                return ConditionState.getInput(ConditionState.NPC_LISTS);
+
+            case GIVE:
+                return ConditionState.getInput(ConditionState.NPC_LISTS)
+                        | ConditionState.getInput(ConditionState.INVENTORY)
+                        | ConditionState.getInput(ConditionState.RESPONSE);
+
+            case GF:
+            case HAS_GF:
+                return ConditionState.getInput(ConditionState.GF_INDEX);
+            case PLAN:
+                return ConditionState.getInput(ConditionState.PLAN);
+            case WON:
+                return ConditionState.getInput(ConditionState.WON);
+            case SUSPENDED:
+                return ConditionState.getInput(ConditionState.SUSPENDED);
+
+            case MINIGAME:
+                return ConditionState.getInput(ConditionState.MINIGAME);
 
             default:
-                throw new IllegalStateException();
-
-        }
-
-        for (int i = 2; i < evals.size(); i++) {
-            switch (boolOps.get(i - 1)) {
-                case "AND":
-                    result = result && evals.get(i);
-                    break;
-                case "OR":
-                    result = result || evals.get(i);
-                    break;
-
-                default:
-                    throw new IllegalStateException();
-            }
+                return ConditionState.getInput(ConditionState.INVENTORY);
         }
+    }
 
-        return result;
+    public static boolean analyse(String expression, NPC npc) {
+        return compile(expression).evaluate(npc);
     }
 }
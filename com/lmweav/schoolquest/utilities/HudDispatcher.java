@@ -0,0 +1,89 @@
+package com.lmweav.schoolquest.utilities;
+
+import com.lmweav.schoolquest.GameActivity;
+
+import static com.lmweav.schoolquest.Constants.*;
+
+/*
+ * School Quest: HudDispatcher
+ * This class publishes the enabled state of the HUD buttons from the game thread to the UI thread.
+ *
+ * Each tick requests a state, and flush is called once at the end of the tick. A message is only
+ * posted when the request differs from the state last shown, and at most one message is queued at
+ * a time; if more ticks flush before it runs, it shows the latest state. The button methods in
+ * GameActivity report what they show, so a state set elsewhere (e.g. by a text box) is corrected
+ * on the next tick, as before.
+ *
+ * @author Luke Weaver
+ * @version 1.0.9
+ * @since 2019-10-16
+ */
+public class HudDispatcher implements Runnable {
+
+    private final GameActivity gameActivity;
+
+    private int requested = HUD_STATE_NONE;
+    private int pending = HUD_STATE_NONE;
+    private int published = HUD_STATE_NONE;
+
+    private boolean posted;
+
+    /*---------------------------------------------------------------------------------------------
+    | Constructors
+    ----------------------------------------------------------------------------------------------*/
+
+    public HudDispatcher(GameActivity gameActivity) {
+        this.gameActivity = gameActivity;
+    }
+
+    /*---------------------------------------------------------------------------------------------
+    | Getters and Setters
+    ----------------------------------------------------------------------------------------------*/
+
+    public synchronized void setPublished(int state) { published = state; }
+
+    /*---------------------------------------------------------------------------------------------
+    | Methods
+    ----------------------------------------------------------------------------------------------*/
+
+    public synchronized void request(int state) { requested = state; }
+
+    public void flush() {
+        synchronized (this) {
+            int state = requested;
+            requested = HUD_STATE_NONE;
+
+            if (state == HUD_STATE_NONE || (state == published && !posted)) { return; }
+            pending = state;
+            if (posted) { return; }
+            posted = true;
+        }
+        gameActivity.runOnUiThread(this);
+    }
+
+    @Override
+    public void run() {
+        int state;
+        synchronized (this) {
+            state = pending;
+            posted = false;
+            if (state == published) { return; }
+        }
+
+        switch (state) {
+            case HUD_STATE_BUTTONS_ENABLED:
+                gameActivity.enableButtons();
+                break;
+            case HUD_STATE_BUTTONS_DISABLED:
+                gameActivity.disableButtons();
+                break;
+            case HUD_STATE_LESSON_C_ENABLED:
+                gameActivity.enableLessonCButtons();
+                break;
+            case HUD_STATE_LESSON_C_DISABLED:
+                gameActivity.disableLessonCButtons();
+                break;
+        }
+    }
+
+}
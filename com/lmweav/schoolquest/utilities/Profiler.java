@@ -0,0 +1,262 @@
+package com.lmweav.schoolquest.utilities;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.os.Build;
+import android.os.Debug;
+
+import com.lmweav.schoolquest.utilities.pathfinding.PathCache;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.Locale;
+
+import static com.lmweav.schoolquest.Constants.*;
+
+/*
+ * School Quest: Profiler
+ * This class times the phases of the game's update and draw methods, and keeps the last
+ * PROFILER_HISTORY frames in a ring buffer.
+ *
+ * A frame is recorded when a draw ends. It holds the time since the previous frame, the number of
+ * objects allocated by the process since then, the time spent drawing, and the update time of
+ * every tick run since the previous frame, along with how many times each counted event happened.
+ * Allocations are read from the runtime's "art.gc.objects-allocated" stat, which is not reported
+ * before Android 6.0, where the column is 0.
+ * The overlay shows frame time percentiles, average phase times, average counts and the path
+ * cache's hits and misses, and is rebuilt every PROFILER_REFRESH frames. The trace can be written
+ * to a CSV file for offline analysis.
+ *
+ * Profiling is off unless the game is started with the "profile" intent extra, and costs a single
+ * check per call when off.
+ *
+ * @author Luke Weaver
+ * @version 1.0.9
+ * @since 2019-10-16
+ */
+public class Profiler {
+
+    public static final int PHASE_UPDATE = 0;
+    public static final int PHASE_UPDATE_EMOTIONS = 1;
+    public static final int PHASE_UPDATE_TILES = 2;
+    public static final int PHASE_UPDATE_CHARACTERS = 3;
+    public static final int PHASE_UPDATE_SCRIPT = 4;
+    public static final int PHASE_UPDATE_CAMERA = 5;
+    public static final int PHASE_DRAW = 6;
+    public static final int PHASE_DRAW_TILES = 7;
+    public static final int PHASE_DRAW_CHARACTERS = 8;
+    public static final int PHASE_DRAW_HOSTILE = 9;
+
+    private static final String[] PHASE_NAMES = { "update", "emotions", "animateTiles",
+            "characters", "script", "camera", "draw", "tiles", "characters", "hostile" };
+    private static final int PHASE_COUNT = PHASE_NAMES.length;
+
+    public static final int COUNTER_CHUNK_RENDERS = 0;
+
+    private static final String[] COUNTER_NAMES = { "chunk renders" };
+    private static final int COUNTER_COUNT = COUNTER_NAMES.length;
+
+    private static final int COLUMN_FRAME = 0;
+    private static final int COLUMN_ALLOCATIONS = 1;
+    private static final int COLUMN_COUNTERS = PHASE_COUNT + 2;
+    private static final int COLUMN_COUNT = COLUMN_COUNTERS + COUNTER_COUNT;
+
+    private static volatile boolean enabled;
+    private static volatile boolean overlayVisible;
+
+    private static final long[] starts = new long[PHASE_COUNT];
+    private static final long[] totals = new long[PHASE_COUNT];
+    private static final long[] counts = new long[COUNTER_COUNT];
+
+    private static final long[] frames = new long[PROFILER_HISTORY * COLUMN_COUNT];
+    private static final long[] sorted = new long[PROFILER_HISTORY];
+    private static int frameCount;
+
+    private static long previousFrameTime;
+    private static long previousAllocations;
+
+    private static final Paint overlayPaint = new Paint();
+    private static String[] overlayLines = new String[0];
+
+    /*---------------------------------------------------------------------------------------------
+    | Constructors
+    ----------------------------------------------------------------------------------------------*/
+
+    private Profiler() { }
+
+    /*---------------------------------------------------------------------------------------------
+    | Getters and Setters
+    ----------------------------------------------------------------------------------------------*/
+
+    public static boolean isEnabled() { return enabled; }
+
+    public static synchronized void setEnabled(boolean enabled) {
+        if (enabled == Profiler.enabled) { return; }
+
+        if (enabled) {
+            previousAllocations = getAllocatedObjects();
+            previousFrameTime = 0;
+            frameCount = 0;
+            Arrays.fill(totals, 0);
+            Arrays.fill(counts, 0);
+            overlayLines = new String[0];
+        }
+        Profiler.enabled = enabled;
+    }
+
+    public static void toggleOverlay() { overlayVisible = !overlayVisible; }
+
+    private static long getAllocatedObjects() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) { return 0; }
+
+        String stat = Debug.getRuntimeStat("art.gc.objects-allocated");
+        if (stat == null) { return 0; }
+        try {
+            return Long.parseLong(stat);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /*---------------------------------------------------------------------------------------------
+    | Methods
+    ----------------------------------------------------------------------------------------------*/
+
+    /*
+     * Phases are timed by the thread that runs them. Update phases run on the game thread and draw
+     * phases on whichever thread draws, so no phase is begun on one thread and ended on another.
+     */
+    public static void begin(int phase) {
+        if (enabled) { starts[phase] = System.nanoTime(); }
+    }
+
+    public static void end(int phase) {
+        if (!enabled) { return; }
+        long time = System.nanoTime() - starts[phase];
+        synchronized (Profiler.class) { totals[phase] += time; }
+    }
+
+    public static void count(int counter) {
+        if (!enabled) { return; }
+        synchronized (Profiler.class) { counts[counter]++; }
+    }
+
+    public static synchronized void endFrame() {
+        if (!enabled) { return; }
+
+        long now = System.nanoTime();
+        long allocations = getAllocatedObjects();
+
+        if (previousFrameTime != 0) {
+            int offset = (frameCount % PROFILER_HISTORY) * COLUMN_COUNT;
+            frames[offset + COLUMN_FRAME] = now - previousFrameTime;
+            frames[offset + COLUMN_ALLOCATIONS] = allocations - previousAllocations;
+            System.arraycopy(totals, 0, frames, offset + 2, PHASE_COUNT);
+            System.arraycopy(counts, 0, frames, offset + COLUMN_COUNTERS, COUNTER_COUNT);
+            frameCount++;
+
+            if (overlayVisible && frameCount % PROFILER_REFRESH == 0) { buildOverlay(); }
+        }
+
+        Arrays.fill(totals, 0);
+        Arrays.fill(counts, 0);
+        previousFrameTime = now;
+        previousAllocations = allocations;
+    }
+
+    private static void buildOverlay() {
+        int count = Math.min(frameCount, PROFILER_HISTORY);
+        long[] averages = new long[COLUMN_COUNT];
+
+        for (int i = 0; i < count; i++) {
+            int offset = i * COLUMN_COUNT;
+            sorted[i] = frames[offset + COLUMN_FRAME];
+            for (int j = 0; j < COLUMN_COUNT; j++) { averages[j] += frames[offset + j]; }
+        }
+        Arrays.sort(sorted, 0, count);
+
+        String[] lines = new String[PHASE_COUNT + COUNTER_COUNT + 3];
+        lines[0] = String.format(Locale.UK, "frame ms p50 %.1f p90 %.1f p99 %.1f max %.1f",
+                getPercentile(count, 50), getPercentile(count, 90), getPercentile(count, 99),
+                sorted[count - 1] / 1000000f);
+        lines[1] = String.format(Locale.UK, "allocations/frame %d",
+                averages[COLUMN_ALLOCATIONS] / count);
+        for (int i = 0; i < PHASE_COUNT; i++) {
+            lines[i + 2] = String.format(Locale.UK, "%s%s %.2f ms",
+                    i == PHASE_UPDATE || i == PHASE_DRAW ? "" : "  ", PHASE_NAMES[i],
+                    averages[i + 2] / (count * 1000000f));
+        }
+        for (int i = 0; i < COUNTER_COUNT; i++) {
+            lines[i + PHASE_COUNT + 2] = String.format(Locale.UK, "%s/frame %.2f",
+                    COUNTER_NAMES[i], averages[i + COLUMN_COUNTERS] / (float) count);
+        }
+        lines[lines.length - 1] = String.format(Locale.UK, "path cache hits %d misses %d",
+                PathCache.getHits(), PathCache.getMisses());
+        overlayLines = lines;
+    }
+
+    private static float getPercentile(int count, int percentile) {
+        return sorted[Math.min(count - 1, (count * percentile) / 100)] / 1000000f;
+    }
+
+    public static void drawOverlay(Canvas canvas) {
+        if (!enabled || !overlayVisible) { return; }
+
+        String[] lines = overlayLines;
+        float lineHeight = PROFILER_TEXT_SIZE * 1.2f;
+
+        overlayPaint.setColor(Color.argb(160, 0, 0, 0));
+        canvas.drawRect(0, 0, PROFILER_TEXT_SIZE * 20, lineHeight * (lines.length + 0.5f),
+                overlayPaint);
+
+        overlayPaint.setColor(Color.WHITE);
+        overlayPaint.setTextSize(PROFILER_TEXT_SIZE);
+        for (int i = 0; i < lines.length; i++) {
+            canvas.drawText(lines[i], PROFILER_TEXT_SIZE / 2f, lineHeight * (i + 1), overlayPaint);
+        }
+    }
+
+    /*
+     * Writes every recorded frame, oldest first, with times in nanoseconds and counts per frame.
+     */
+    public static synchronized void dumpTrace(Context context) {
+        if (!enabled || frameCount == 0) { return; }
+
+        String fileName = "profile-" + System.currentTimeMillis() + ".csv";
+        try {
+            FileOutputStream traceData = context.openFileOutput(fileName, Context.MODE_PRIVATE);
+            PrintWriter out = new PrintWriter(traceData);
+
+            out.print("frame,allocations");
+            for (int i = 0; i < PHASE_COUNT; i++) {
+                if (i == PHASE_UPDATE || i == PHASE_DRAW) { out.print(','); }
+                else { out.print(i > PHASE_DRAW ? ",draw." : ",update."); }
+                out.print(PHASE_NAMES[i]);
+            }
+            for (int i = 0; i < COUNTER_COUNT; i++) {
+                out.print(",count.");
+                out.print(COUNTER_NAMES[i].replace(' ', '_'));
+            }
+            out.println();
+
+            int count = Math.min(frameCount, PROFILER_HISTORY);
+            for (int i = frameCount - count; i < frameCount; i++) {
+                int offset = (i % PROFILER_HISTORY) * COLUMN_COUNT;
+                for (int j = 0; j < COLUMN_COUNT; j++) {
+                    if (j > 0) { out.print(','); }
+                    out.print(frames[offset + j]);
+                }
+                out.println();
+            }
+            out.close();
+            traceData.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.lmweav.schoolquest.utilities;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/*
+ * School Quest: RecordFormat
+ * This class reads and writes the compiled form of the text resources.
+ *
+ * A text resource is a list of records, one per line. A record line such as [a][b][c] is split
+ * into its fields a, b and c, and any other line, e.g. a row of a map, is kept whole as a
+ * single field. The compiled form stores the records already split, with each distinct string
+ * stored once in a table at the start of the file and the records made of indices into it:
+ *
+ *     int magic, short version, byte flags,
+ *     int source length, int source CRC32,
+ *     int string count, the strings (modified UTF-8),
+ *     int record count, for each record: short field count, the fields (short string indices).
+ *
+ * The length and checksum are those of the text the file was compiled from. A file with a
+ * different version, or compiled from text other than the resource's current text, is rejected
+ * rather than read, so the game falls back to the text resource until the bundle is compiled
+ * again (see tools/AssetCompiler).
+ *
+ * This class does not use the Android API, so it can be run by the compiler on a desktop JVM.
+ *
+ * @author Luke Weaver
+ * @version 1.0.9
+ * @since 2019-10-16
+ */
+public class RecordFormat {
+
+    public static final String EXTENSION = ".bin";
+
+    private static final int MAGIC = 0x53514442;
+    private static final int VERSION = 2;
+    private static final int FLAG_LINES = 1;
+
+    private static final int MAX_STRINGS = 0xFFFF;
+
+    private static final Pattern BRACKETS = Pattern.compile("(^.*?\\[|]\\s*$)");
+    private static final Pattern SEPARATOR = Pattern.compile("]\\[");
+
+    /*---------------------------------------------------------------------------------------------
+    | Constructors
+    ----------------------------------------------------------------------------------------------*/
+
+    private RecordFormat() { }
+
+    /*---------------------------------------------------------------------------------------------
+    | Methods
+    ----------------------------------------------------------------------------------------------*/
+
+    /*
+     * Splits a record line in the same way the text parsers always have, so a line that is not in
+     * brackets is returned as a single field.
+     */
+    public static String[] split(String line) {
+        return SEPARATOR.split(BRACKETS.matcher(line).replaceAll(""));
+    }
+
+    /*
+     * Adds each line read to the records, split into fields unless the file is read as lines. The
+     * records read before an IOException are kept.
+     */
+    public static void read(BufferedReader reader, boolean lines, List<String[]> records)
+            throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            records.add(lines ? new String[] { line } : split(line));
+        }
+    }
+
+    /*
+     * Reads the source to its end, adding its bytes to the checksum, and returns its length.
+     */
+    public static int fingerprint(InputStream source, CRC32 checksum) throws IOException {
+        byte[] buffer = new byte[8192];
+        int length = 0;
+        int count;
+        while ((count = source.read(buffer)) != -1) {
+            checksum.update(buffer, 0, count);
+            length += count;
+        }
+        return length;
+    }
+
+    public static String[][] read(DataInputStream in, boolean lines, int sourceLength,
+                                  int sourceChecksum) throws IOException {
+        if (in.readInt() != MAGIC) { throw new IOException("Not a compiled resource"); }
+        int version = in.readUnsignedShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported compiled resource version " + version);
+        }
+        if (((in.readByte() & FLAG_LINES) != 0) != lines) {
+            throw new IOException("Compiled resource is not in the expected layout");
+        }
+        if (in.readInt() != sourceLength || in.readInt() != sourceChecksum) {
+            throw new IOException("Compiled resource is out of date");
+        }
+
+        String[] strings = new String[in.readInt()];
+        for (int i = 0; i < strings.length; i++) { strings[i] = in.readUTF(); }
+
+        String[][] records = new String[in.readInt()][];
+        for (int i = 0; i < records.length; i++) {
+            String[] fields = new String[in.readUnsignedShort()];
+            for (int j = 0; j < fields.length; j++) {
+                fields[j] = strings[in.readUnsignedShort()];
+            }
+            records[i] = fields;
+        }
+        return records;
+    }
+
+    public static void write(List<String[]> records, boolean lines, int sourceLength,
+                             int sourceChecksum, DataOutputStream out) throws IOException {
+        HashMap<String, Integer> indices = new HashMap<>();
+        ArrayList<String> strings = new ArrayList<>();
+        for (String[] fields : records) {
+            if (fields.length > 0xFFFF) { throw new IOException("Too many fields in a record"); }
+            for (String field : fields) {
+                if (!indices.containsKey(field)) {
+                    indices.put(field, strings.size());
+                    strings.add(field);
+                }
+            }
+        }
+        if (strings.size() > MAX_STRINGS) { throw new IOException("Too many distinct strings"); }
+
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeByte(lines ? FLAG_LINES : 0);
+        out.writeInt(sourceLength);
+        out.writeInt(sourceChecksum);
+
+        out.writeInt(strings.size());
+        for (String string : strings) { out.writeUTF(string); }
+
+        out.writeInt(records.size());
+        for (String[] fields : records) {
+            out.writeShort(fields.length);
+            for (String field : fields) { out.writeShort(indices.get(field)); }
+        }
+    }
+
+}
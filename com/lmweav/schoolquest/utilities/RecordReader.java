@@ -0,0 +1,136 @@
+package com.lmweav.schoolquest.utilities;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.zip.CRC32;
+
+import static com.lmweav.schoolquest.Constants.*;
+
+/*
+ * School Quest: RecordReader
+ * This class reads the records of a text resource, from its compiled form if it has one.
+ *
+ * The compiled resources are assets in RECORD_BUNDLE_DIR, named after the resource they were
+ * compiled from (see tools/AssetCompiler), and are read already split into fields. A resource
+ * that has not been compiled, or whose compiled form cannot be read, is read from its text
+ * instead, so a bundle that is missing or out of date never stops the game loading. A compiled
+ * resource is out of date if the length or checksum of the text it was compiled from differs from
+ * the text resource's.
+ *
+ * The readers may be called from several threads at once while the game is starting up.
+ *
+ * @author Luke Weaver
+ * @version 1.0.9
+ * @since 2019-10-16
+ */
+public class RecordReader {
+
+    private static final String TAG = "RecordReader";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static HashSet<String> bundled;
+
+    /*---------------------------------------------------------------------------------------------
+    | Constructors
+    ----------------------------------------------------------------------------------------------*/
+
+    private RecordReader() { }
+
+    /*---------------------------------------------------------------------------------------------
+    | Getters and Setters
+    ----------------------------------------------------------------------------------------------*/
+
+    private static synchronized boolean isBundled(Context context, String name) {
+        if (bundled == null) {
+            bundled = new HashSet<>();
+            try {
+                String[] files = context.getAssets().list(RECORD_BUNDLE_DIR);
+                if (files != null) { bundled.addAll(Arrays.asList(files)); }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        return bundled.contains(name + RecordFormat.EXTENSION);
+    }
+
+    /*---------------------------------------------------------------------------------------------
+    | Methods
+    ----------------------------------------------------------------------------------------------*/
+
+    /*
+     * Each line of the resource split into its fields, e.g. [a][b] gives { a, b }.
+     */
+    public static String[][] readRecords(Context context, int id) {
+        return read(context, id, false);
+    }
+
+    /*
+     * Each line of the resource, unsplit.
+     */
+    public static String[] readLines(Context context, int id) {
+        String[][] records = read(context, id, true);
+        String[] lines = new String[records.length];
+        for (int i = 0; i < records.length; i++) { lines[i] = records[i][0]; }
+        return lines;
+    }
+
+    private static String[][] read(Context context, int id, boolean lines) {
+        Resources resources = context.getResources();
+        String name = resources.getResourceEntryName(id);
+
+        if (isBundled(context, name)) {
+            InputStream source = null;
+            DataInputStream in = null;
+            try {
+                CRC32 checksum = new CRC32();
+                source = resources.openRawResource(id);
+                int length = RecordFormat.fingerprint(source, checksum);
+
+                in = new DataInputStream(new BufferedInputStream(context.getAssets().open(
+                        RECORD_BUNDLE_DIR + "/" + name + RecordFormat.EXTENSION)));
+                return RecordFormat.read(in, lines, length, (int) checksum.getValue());
+            } catch (IOException e) {
+                Log.w(TAG, "Could not read compiled " + name + ", reading the text instead", e);
+            } finally {
+                close(source);
+                close(in);
+            }
+        }
+
+        ArrayList<String[]> records = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                resources.openRawResource(id), UTF_8));
+        try {
+            RecordFormat.read(reader, lines, records);
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            close(reader);
+        }
+        return records.toArray(new String[records.size()][]);
+    }
+
+    private static void close(Closeable closeable) {
+        if (closeable == null) { return; }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+}
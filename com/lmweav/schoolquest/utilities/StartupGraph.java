@@ -0,0 +1,160 @@
+package com.lmweav.schoolquest.utilities;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.lmweav.schoolquest.Constants.*;
+
+/*
+ * School Quest: StartupGraph
+ * This class runs the loading work done when the game starts as a graph of named tasks.
+ *
+ * Each task declares the tasks it depends on, which must have been added before it, so the graph
+ * cannot have a cycle. Tasks are run on a pool of at most STARTUP_MAX_WORKERS threads as soon as
+ * their dependencies have finished, and run blocks until every task has finished, so it is called
+ * off the main thread. The progress may be read from any thread while it runs. The time of each
+ * task and of the whole graph is logged, so a slow phase shows up in the log.
+ *
+ * There is 1 support class declared here: StartupTask - which holds a task and the tasks waiting
+ * on it.
+ *
+ * @author Luke Weaver
+ * @version 1.0.9
+ * @since 2019-10-16
+ */
+public class StartupGraph {
+
+    private static final String TAG = "StartupGraph";
+
+    private final ArrayList<StartupTask> tasks = new ArrayList<>();
+    private final HashMap<String, StartupTask> tasksByName = new HashMap<>();
+
+    private int finishedCount;
+    private long taskTime;
+    private Throwable failure;
+
+    /*---------------------------------------------------------------------------------------------
+    | Getters and Setters
+    ----------------------------------------------------------------------------------------------*/
+
+    /*
+     * The fraction of tasks finished, which may be read from any thread, e.g. by a loading screen.
+     */
+    public synchronized float getProgress() {
+        return tasks.isEmpty() ? 1 : (float) finishedCount / tasks.size();
+    }
+
+    /*---------------------------------------------------------------------------------------------
+    | Methods
+    ----------------------------------------------------------------------------------------------*/
+
+    public void add(String name, Runnable runnable, String... dependencies) {
+        if (tasksByName.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate startup task: " + name);
+        }
+
+        StartupTask task = new StartupTask(name, runnable);
+        for (String dependency : dependencies) {
+            StartupTask required = tasksByName.get(dependency);
+            if (required == null) {
+                throw new IllegalArgumentException("Startup task " + name +
+                        " depends on unknown task " + dependency);
+            }
+            required.dependents.add(task);
+            task.remaining++;
+        }
+        tasks.add(task);
+        tasksByName.put(name, task);
+    }
+
+    /*
+     * Runs every task and waits for them to finish. If a task throws, no more tasks are started
+     * and the exception is rethrown here, without waiting for the tasks already running.
+     */
+    public void run() {
+        int workers = Math.max(1, Math.min(STARTUP_MAX_WORKERS,
+                Runtime.getRuntime().availableProcessors()));
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        long startTime = System.nanoTime();
+
+        try {
+            synchronized (this) {
+                for (StartupTask task : tasks) {
+                    if (task.remaining == 0) { submit(pool, task); }
+                }
+                while (finishedCount < tasks.size() && failure == null) { wait(); }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while starting up", e);
+        } finally {
+            pool.shutdown();
+        }
+
+        if (failure instanceof Error) { throw (Error) failure; }
+        if (failure != null) { throw (RuntimeException) failure; }
+
+        Log.i(TAG, String.format(Locale.UK, "%d tasks on %d workers: %.1f ms (%.1f ms of work)",
+                tasks.size(), workers, (System.nanoTime() - startTime) / 1000000f,
+                taskTime / 1000000f));
+    }
+
+    /*
+     * Called with the graph's lock held.
+     */
+    private void submit(final ExecutorService pool, final StartupTask task) {
+        pool.execute(new Runnable() {
+            @Override
+            public void run() {
+                long startTime = System.nanoTime();
+                try {
+                    task.runnable.run();
+                } catch (RuntimeException | Error e) {
+                    synchronized (StartupGraph.this) {
+                        if (failure == null) { failure = e; }
+                        StartupGraph.this.notifyAll();
+                    }
+                    return;
+                }
+                long time = System.nanoTime() - startTime;
+                Log.i(TAG, String.format(Locale.UK, "%s: %.1f ms", task.name, time / 1000000f));
+
+                synchronized (StartupGraph.this) {
+                    finishedCount++;
+                    taskTime += time;
+                    if (failure == null) {
+                        for (StartupTask dependent : task.dependents) {
+                            if (--dependent.remaining == 0) { submit(pool, dependent); }
+                        }
+                    }
+                    StartupGraph.this.notifyAll();
+                }
+            }
+        });
+    }
+
+}
+
+class StartupTask {
+
+    final String name;
+    final Runnable runnable;
+    final ArrayList<StartupTask> dependents = new ArrayList<>();
+
+    int remaining;
+
+    /*---------------------------------------------------------------------------------------------
+    | Constructors
+    ----------------------------------------------------------------------------------------------*/
+
+    StartupTask(String name, Runnable runnable) {
+        this.name = name;
+        this.runnable = runnable;
+    }
+
+}
@@ -1,84 +1,119 @@
 package com.lmweav.schoolquest.utilities.pathfinding;
 
-import androidx.annotation.NonNull;
-
-import com.lmweav.schoolquest.tiles.TileMap;
-
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.BitSet;
 
 /*
  * School Quest: AStarPathfinder
  * This class is an implementation of the A Star search algorithm.
  *
- * There are 2 support classes declared here: An implementation of A Star's 'node' and a
- * sorted list.
+ * One path finder is shared by every search on a grid (see TileMap.getPathFinder). Nodes are
+ * not objects, but indices (y * cols + x) into primitive arrays that are reused across searches.
+ * Each node is stamped with the generation of the search that last touched it, so it is reset
+ * lazily rather than reallocated. Results are kept in the PathCache until the map's collisions
+ * change.
+ *
+ * There is 1 support class declared here: An indexed binary heap of node indices, which is used
+ * as the open set.
  *
  * @author Luke Weaver
  * @version 1.0.9
  * @since 2019-10-16
  */
-public class AStarPathFinder {
+public class AStarPathFinder implements PathFinder {
+
+    private static final int NO_PARENT = -1;
 
-    private ArrayList<Node> closed = new ArrayList<>();
-    private SortedList<Node> open = new SortedList<>();
+    private BitSet closed;
+    private NodeHeap open;
 
     private AStarHeuristic heuristic;
-    private TileMap tileMap;
+    private PathGrid grid;
 
-    private int[][] collisionMatrix;
-    private Node[][] nodes;
+    private int rows;
+    private int cols;
+
+    private float[] costs;
+    private float[] heuristics;
+    private int[] parents;
+    private int[] depths;
+    private int[] generations;
 
     private int maxSearchDistance = 30;
+    private int generation;
+    private int expansions;
 
     /*---------------------------------------------------------------------------------------------
     | Constructors
     ----------------------------------------------------------------------------------------------*/
 
-    public AStarPathFinder(TileMap tileMap, int maxSearchDistance) {
-        this(tileMap, maxSearchDistance, new ManhattanHeuristic());
+    public AStarPathFinder(PathGrid grid, int maxSearchDistance) {
+        this(grid, maxSearchDistance, new ManhattanHeuristic());
     }
 
-    private AStarPathFinder(TileMap tileMap, int maxSearchDistance, AStarHeuristic heuristic) {
+    private AStarPathFinder(PathGrid grid, int maxSearchDistance, AStarHeuristic heuristic) {
         this.heuristic = heuristic;
-        this.tileMap = tileMap;
-        this.collisionMatrix = tileMap.getCollisionMatrix();
+        this.grid = grid;
         this.maxSearchDistance = maxSearchDistance;
 
-        nodes = new Node[collisionMatrix.length][collisionMatrix[0].length];
-        for (int y = 0; y < collisionMatrix.length; y++) {
-            for (int x = 0; x < collisionMatrix[0].length; x++) {
-                nodes[y][x] = new Node(x, y);
-            }
-        }
+        rows = grid.getRows();
+        cols = grid.getCols();
+
+        int size = rows * cols;
+        costs = new float[size];
+        heuristics = new float[size];
+        parents = new int[size];
+        depths = new int[size];
+        generations = new int[size];
+
+        closed = new BitSet(size);
+        open = new NodeHeap(costs, heuristics, size);
     }
 
     /*---------------------------------------------------------------------------------------------
     | Methods
     ----------------------------------------------------------------------------------------------*/
 
-    public Path findPath(int startX, int startY, int goalX, int goalY) {
+    @Override
+    public synchronized Path findPath(int startX, int startY, int goalX, int goalY) {
 
-        if (goalX < 0 || goalY < 0 || goalX >= collisionMatrix[0].length
-                || goalY >= collisionMatrix.length) {
+        if (goalX < 0 || goalY < 0 || goalX >= cols || goalY >= rows) {
             return null;
         }
 
+        Path cached = PathCache.get(grid, PathCache.A_STAR, startX, startY, goalX, goalY);
+        if (cached != null) { return cached == PathCache.NO_PATH ? null : cached; }
+
+        Path path = search(startX, startY, goalX, goalY);
+        PathCache.put(grid, PathCache.A_STAR, startX, startY, goalX, goalY, path);
+        return path;
+    }
+
+    /*
+     * Searches without the PathCache. The number of nodes expanded is added to the expansions.
+     */
+    synchronized Path search(int startX, int startY, int goalX, int goalY) {
+        generation++;
+
+        int start = (startY * cols) + startX;
+        int goal = (goalY * cols) + goalX;
 
-        nodes[startY][startX].setCost(0);
-        nodes[startY][startX].setDepth();
+        reset(start);
 
         closed.clear();
         open.clear();
-        open.add(nodes[startY][startX]);
+        open.add(start);
 
         int maxDepth = 0;
         while ((maxDepth < maxSearchDistance) && (open.size() != 0)) {
-            Node current = open.getFirst();
-            if (current == nodes[goalY][goalX]) { break; }
+            int current = open.getFirst();
+            if (current == goal) { break; }
 
-            open.remove(current);
-            closed.add(current);
+            open.poll();
+            closed.set(current);
+            expansions++;
+
+            int currentX = current % cols;
+            int currentY = current / cols;
 
             for (int x = -1; x < 2; x++) {
                 for (int y = -1; y < 2; y++) {
@@ -86,138 +121,175 @@ public class AStarPathFinder {
 
                     if ((x != 0) && (y != 0)) { continue; }
 
-                    int xp = x + current.getX();
-                    int yp = y + current.getY();
+                    int xp = x + currentX;
+                    int yp = y + currentY;
 
 
                     if (isValidLocation(startX, startY, goalX, goalY, xp, yp)) {
-                        float nextStepCost = current.getCost() + 1;
-                        Node neighbour = nodes[yp][xp];
-
-                        if (nextStepCost < neighbour.getCost()) {
-                            open.remove(neighbour);
-                            closed.remove(neighbour);
-                        }
-
-                        if (!open.contains(neighbour) && !closed.contains(neighbour)) {
-                            neighbour.setCost(nextStepCost);
-                            neighbour.setHeuristic(heuristic.getCost(xp, yp, goalX, goalY));
-                            maxDepth = Math.max(maxDepth, neighbour.setParent(current));
-                            open.add(neighbour);
-                        }
+                        float nextStepCost = costs[current] + 1;
+                        int neighbour = (yp * cols) + xp;
+
+                        if (generations[neighbour] != generation) {
+                            reset(neighbour);
+                        } else if (nextStepCost < costs[neighbour]) {
+                            closed.clear(neighbour);
+                        } else { continue; }
+
+                        costs[neighbour] = nextStepCost;
+                        heuristics[neighbour] = heuristic.getCost(xp, yp, goalX, goalY);
+                        parents[neighbour] = current;
+                        depths[neighbour] = depths[current] + 1;
+                        maxDepth = Math.max(maxDepth, depths[neighbour]);
+
+                        if (open.contains(neighbour)) { open.update(neighbour); }
+                        else { open.add(neighbour); }
                     }
                 }
             }
         }
 
-        if (nodes[goalY][goalX].getParent() == null) { return null; }
+        if (generations[goal] != generation || parents[goal] == NO_PARENT) { return null; }
 
-        Path path = new Path();
-        Node goal;
-        goal = nodes[goalY][goalX];
-        while (goal != nodes[startY][startX]) {
-            path.prependStep(goal.getX(), goal.getY());
-            goal = goal.getParent();
+        Path path = new Path(depths[goal] + 1);
+        while (goal != start) {
+            path.prependStep(goal % cols, goal / cols);
+            goal = parents[goal];
         }
         path.prependStep(startX, startY);
         return path;
     }
 
+    synchronized int getExpansions() { return expansions; }
+
+    private void reset(int node) {
+        generations[node] = generation;
+        costs[node] = 0;
+        heuristics[node] = 0;
+        parents[node] = NO_PARENT;
+        depths[node] = 0;
+    }
+
     private boolean isValidLocation(int startX, int startY, int goalX, int goalY, int x, int y) {
-        boolean invalid = x < 0 || y < 0 || x >= collisionMatrix[0].length
-                || y >= collisionMatrix.length;
+        boolean invalid = x < 0 || y < 0 || x >= cols || y >= rows;
 
         if (!invalid && (startX != x || startY != y)) {
-            invalid = ((tileMap.isCollidable(x, y) ||
-                    tileMap.isDoorPoint(x, y)) && (goalX != x || goalY != y));
+            invalid = grid.isBlocked(x, y) && (goalX != x || goalY != y);
         }
 
         return !invalid;
     }
 }
 
-class SortedList<E extends Comparable<E>> extends ArrayList<E> {
+class NodeHeap {
 
-    /*---------------------------------------------------------------------------------------------
-    | Getters and Setters
-    ----------------------------------------------------------------------------------------------*/
+    private float[] costs;
+    private float[] heuristics;
 
-    E getFirst() { return get(0); }
+    private int[] heap;
+    private int[] heapIndices;
+    private int[] orders;
 
-    /*---------------------------------------------------------------------------------------------
-    | Methods
-    ----------------------------------------------------------------------------------------------*/
-
-    @Override
-    public boolean add(E o) {
-        boolean result = super.add(o);
-        if (result) { Collections.sort(this); }
-
-        return result;
-    }
-
-}
-
-class Node implements Comparable<Node> {
-
-    private int x;
-    private int y;
-    private int depth;
-    private float cost;
-    private float heuristic;
-
-    private Node parent;
+    private int size;
+    private int order;
 
     /*---------------------------------------------------------------------------------------------
     | Constructors
     ----------------------------------------------------------------------------------------------*/
 
-    Node(int x, int y) {
-        this.x = x;
-        this.y = y;
-        parent = null;
+    NodeHeap(float[] costs, float[] heuristics, int capacity) {
+        this.costs = costs;
+        this.heuristics = heuristics;
+
+        heap = new int[capacity];
+        heapIndices = new int[capacity];
+        orders = new int[capacity];
+        for (int i = 0; i < capacity; i++) { heapIndices[i] = -1; }
     }
 
     /*---------------------------------------------------------------------------------------------
     | Getters and Setters
     ----------------------------------------------------------------------------------------------*/
 
-    public int getX() { return x; }
-
-    public int getY() { return y; }
-
-    float getCost() { return cost; }
-    void setCost(float cost) { this.cost = cost; }
-
-    void setDepth() { this.depth = 0; }
-
-    void setHeuristic(float heuristic) { this.heuristic = heuristic; }
+    int getFirst() { return heap[0]; }
 
-    public Node getParent() { return parent; }
+    int size() { return size; }
 
     /*---------------------------------------------------------------------------------------------
     | Methods
     ----------------------------------------------------------------------------------------------*/
 
-    int setParent(Node parent) {
-        depth = parent.depth + 1;
-        this.parent = parent;
+    boolean contains(int node) { return heapIndices[node] >= 0; }
 
-        return depth;
+    void clear() {
+        for (int i = 0; i < size; i++) { heapIndices[heap[i]] = -1; }
+        size = 0;
+        order = 0;
     }
 
-    @Override
-    public String toString() {
-        return "(" + x + ", " + y + ")";
+    void add(int node) {
+        orders[node] = order++;
+        heap[size] = node;
+        heapIndices[node] = size;
+        siftUp(size++);
     }
 
-    @Override
-    public int compareTo(@NonNull Node o) {
+    void update(int node) {
+        orders[node] = order++;
+        siftUp(heapIndices[node]);
+        siftDown(heapIndices[node]);
+    }
+
+    int poll() {
+        int first = heap[0];
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            heapIndices[heap[0]] = 0;
+            siftDown(0);
+        }
+        heapIndices[first] = -1;
+        return first;
+    }
 
-        float f = heuristic + cost;
-        float otherF = o.heuristic + o.cost;
+    /*
+     * Nodes are ordered by f-cost, with ties broken by the order they were (re)inserted. This
+     * keeps the same routes as a stable sorted list.
+     */
+    private boolean less(int a, int b) {
+        float f = costs[a] + heuristics[a];
+        float otherF = costs[b] + heuristics[b];
 
-        return Float.compare(f, otherF);
+        if (f != otherF) { return f < otherF; }
+        return orders[a] < orders[b];
+    }
+
+    private void siftUp(int index) {
+        int node = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!less(node, heap[parent])) { break; }
+            heap[index] = heap[parent];
+            heapIndices[heap[index]] = index;
+            index = parent;
+        }
+        heap[index] = node;
+        heapIndices[node] = index;
+    }
+
+    private void siftDown(int index) {
+        int node = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = (index << 1) + 1;
+            int right = child + 1;
+            if (right < size && less(heap[right], heap[child])) { child = right; }
+            if (!less(heap[child], node)) { break; }
+            heap[index] = heap[child];
+            heapIndices[heap[index]] = index;
+            index = child;
+        }
+        heap[index] = node;
+        heapIndices[node] = index;
     }
 
 }
@@ -0,0 +1,89 @@
+package com.lmweav.schoolquest.utilities.pathfinding;
+
+import java.util.BitSet;
+
+/*
+ * School Quest: CollisionGrid
+ * This class is a grid of the tiles of a map that are always blocked, read from the map's text
+ * without building the map.
+ *
+ * A tile is blocked if its tile set data gives it a collision, or if it is a door point. Nothing
+ * that changes as the game is played, such as characters or locked doors, is counted, so the grid
+ * never changes. It is read from the same text as the tile map: the rows of the map, the lines of
+ * its tile set data (type,collision,key or 1,key for doors) and its door records ([x,y][...]).
+ *
+ * @author Luke Weaver
+ * @version 1.0.9
+ * @since 2019-10-16
+ */
+public class CollisionGrid implements PathGrid {
+
+    private static final int DOOR_TILE = 1;
+
+    private int id;
+    private int rows;
+    private int cols;
+
+    private BitSet blocked;
+
+    /*---------------------------------------------------------------------------------------------
+    | Constructors
+    ----------------------------------------------------------------------------------------------*/
+
+    public CollisionGrid(int id, String[] lines, String[] tileData, String[][] doors) {
+        this.id = id;
+        rows = lines.length;
+        cols = lines[0].length();
+
+        BitSet collisions = new BitSet();
+        BitSet keys = new BitSet();
+        for (String line : tileData) {
+            String[] split = line.split(",");
+            if (split.length < 2) { continue; }
+
+            if (Integer.parseInt(split[0]) == DOOR_TILE) {
+                keys.set(split[1].charAt(0));
+            } else if (split.length > 2) {
+                keys.set(split[2].charAt(0));
+                if (Integer.parseInt(split[1]) != 0) { collisions.set(split[2].charAt(0)); }
+            }
+        }
+
+        blocked = new BitSet(rows * cols);
+        for (int y = 0; y < rows; y++) {
+            String row = lines[y];
+            for (int x = 0; x < cols; x++) {
+                char key = x < row.length() ? row.charAt(x) : 0;
+                if (!keys.get(key) || collisions.get(key)) { blocked.set((y * cols) + x); }
+            }
+        }
+
+        if (doors == null) { return; }
+        for (String[] door : doors) {
+            String[] coordinates = door[0].split(",");
+            int x = Integer.parseInt(coordinates[0]);
+            int y = Integer.parseInt(coordinates[1]);
+            if (x >= 0 && y >= 0 && x < cols && y < rows) { blocked.set((y * cols) + x); }
+        }
+    }
+
+    /*---------------------------------------------------------------------------------------------
+    | Getters and Setters
+    ----------------------------------------------------------------------------------------------*/
+
+    @Override
+    public int getId() { return id; }
+
+    @Override
+    public int getRows() { return rows; }
+
+    @Override
+    public int getCols() { return cols; }
+
+    @Override
+    public int getCollisionVersion() { return 0; }
+
+    @Override
+    public boolean isBlocked(int x, int y) { return blocked.get((y * cols) + x); }
+
+}
@@ -0,0 +1,247 @@
+package com.lmweav.schoolquest.utilities.pathfinding;
+
+import java.util.BitSet;
+
+/*
+ * School Quest: JumpPointPathFinder
+ * This class is an implementation of Jump Point Search for 4-connected tile maps.
+ *
+ * Every tile costs the same to walk on, so straight runs of open tiles are skipped over and only
+ * tiles where a route may turn (jump points) are added to the open set. The jump points are
+ * joined back up into a step-by-step path, the same as the A Star path finder returns.
+ *
+ * Routes are as short as the A Star path finder's, but may take a different turn when two routes
+ * are the same length. A route is found if it is no longer than the search distance. Jumps stop at
+ * tiles that could only be on longer routes (see jump), so a search for a goal that is too far
+ * away gives up without searching the tiles around it.
+ *
+ * @author Luke Weaver
+ * @version 1.0.9
+ * @since 2019-10-16
+ */
+public class JumpPointPathFinder implements PathFinder {
+
+    private static final int NO_PARENT = -1;
+
+    private static final int[][] ALL_DIRECTIONS = { {-1, 0}, {0, -1}, {0, 1}, {1, 0} };
+    private static final int[][] LEFT_DIRECTIONS = { {0, -1}, {0, 1}, {-1, 0} };
+    private static final int[][] RIGHT_DIRECTIONS = { {0, -1}, {0, 1}, {1, 0} };
+    private static final int[][] UP_DIRECTIONS = { {-1, 0}, {1, 0}, {0, -1} };
+    private static final int[][] DOWN_DIRECTIONS = { {-1, 0}, {1, 0}, {0, 1} };
+
+    private BitSet closed;
+    private NodeHeap open;
+
+    private AStarHeuristic heuristic;
+    private PathGrid grid;
+
+    private int rows;
+    private int cols;
+
+    private float[] costs;
+    private float[] heuristics;
+    private int[] parents;
+    private int[] generations;
+
+    private int maxSearchDistance;
+    private int generation;
+    private int expansions;
+
+    private int startX;
+    private int startY;
+    private int goalX;
+    private int goalY;
+
+    /*---------------------------------------------------------------------------------------------
+    | Constructors
+    ----------------------------------------------------------------------------------------------*/
+
+    public JumpPointPathFinder(PathGrid grid, int maxSearchDistance) {
+        this.heuristic = new ManhattanHeuristic();
+        this.grid = grid;
+        this.maxSearchDistance = maxSearchDistance;
+
+        rows = grid.getRows();
+        cols = grid.getCols();
+
+        int size = rows * cols;
+        costs = new float[size];
+        heuristics = new float[size];
+        parents = new int[size];
+        generations = new int[size];
+
+        closed = new BitSet(size);
+        open = new NodeHeap(costs, heuristics, size);
+    }
+
+    /*---------------------------------------------------------------------------------------------
+    | Methods
+    ----------------------------------------------------------------------------------------------*/
+
+    @Override
+    public synchronized Path findPath(int startX, int startY, int goalX, int goalY) {
+
+        if (goalX < 0 || goalY < 0 || goalX >= cols || goalY >= rows) {
+            return null;
+        }
+
+        Path cached = PathCache.get(grid, PathCache.JUMP_POINT, startX, startY, goalX, goalY);
+        if (cached != null) { return cached == PathCache.NO_PATH ? null : cached; }
+
+        Path path = search(startX, startY, goalX, goalY);
+        PathCache.put(grid, PathCache.JUMP_POINT, startX, startY, goalX, goalY, path);
+        return path;
+    }
+
+    /*
+     * Searches without the PathCache. The number of nodes expanded is added to the expansions.
+     */
+    synchronized Path search(int startX, int startY, int goalX, int goalY) {
+        this.startX = startX;
+        this.startY = startY;
+        this.goalX = goalX;
+        this.goalY = goalY;
+        generation++;
+
+        int start = (startY * cols) + startX;
+        int goal = (goalY * cols) + goalX;
+
+        reset(start);
+
+        closed.clear();
+        open.clear();
+        open.add(start);
+
+        while (open.size() != 0) {
+            int current = open.getFirst();
+            if (current == goal) { break; }
+
+            open.poll();
+            closed.set(current);
+            expansions++;
+
+            identifySuccessors(current);
+        }
+
+        if (generations[goal] != generation || parents[goal] == NO_PARENT) { return null; }
+
+        Path path = new Path((int) costs[goal] + 1);
+        int node = goal;
+        while (node != start) {
+            int parent = parents[node];
+            int x = node % cols;
+            int y = node / cols;
+            int parentX = parent % cols;
+            int parentY = parent / cols;
+            int dx = Integer.signum(parentX - x);
+            int dy = Integer.signum(parentY - y);
+
+            while (x != parentX || y != parentY) {
+                path.prependStep(x, y);
+                x += dx;
+                y += dy;
+            }
+            node = parent;
+        }
+        path.prependStep(startX, startY);
+        return path;
+    }
+
+    synchronized int getExpansions() { return expansions; }
+
+    private void identifySuccessors(int current) {
+        int currentX = current % cols;
+        int currentY = current / cols;
+        int parent = parents[current];
+
+        int[][] directions;
+        if (parent == NO_PARENT) {
+            directions = ALL_DIRECTIONS;
+        } else {
+            int dx = Integer.signum(currentX - (parent % cols));
+            int dy = Integer.signum(currentY - (parent / cols));
+
+            if (dx != 0) { directions = dx < 0 ? LEFT_DIRECTIONS : RIGHT_DIRECTIONS; }
+            else { directions = dy < 0 ? UP_DIRECTIONS : DOWN_DIRECTIONS; }
+        }
+
+        for (int[] direction : directions) {
+            int jumpPoint = jump(currentX + direction[0], currentY + direction[1],
+                    direction[0], direction[1], (int) costs[current]);
+            if (jumpPoint == NO_PARENT || closed.get(jumpPoint)) { continue; }
+
+            int jumpX = jumpPoint % cols;
+            int jumpY = jumpPoint / cols;
+            float nextStepCost = costs[current] + Math.abs(jumpX - currentX) +
+                    Math.abs(jumpY - currentY);
+
+            if (generations[jumpPoint] != generation) {
+                reset(jumpPoint);
+            } else if (nextStepCost >= costs[jumpPoint]) { continue; }
+
+            costs[jumpPoint] = nextStepCost;
+            heuristics[jumpPoint] = heuristic.getCost(jumpX, jumpY, goalX, goalY);
+            parents[jumpPoint] = current;
+
+            if (open.contains(jumpPoint)) { open.update(jumpPoint); }
+            else { open.add(jumpPoint); }
+        }
+    }
+
+    /*
+     * Walks from (x, y) in a straight line until it reaches the goal, a tile with a forced
+     * neighbour, or a blocked tile. Vertical jumps also stop where a horizontal jump would find
+     * a jump point. (x, y) is one step from where the jump starts, which is cost steps from the
+     * start.
+     *
+     * A route through a tile is at least its steps from the start plus its distance to the goal
+     * long, so a tile where that is more than the search distance is not searched past. Along a
+     * straight line each step costs 1 and gets at most 1 closer to the goal, so the sum never
+     * falls and the jump gives up at the first such tile. This also stops the horizontal jumps
+     * made at each step of a vertical jump once they head too far from the goal.
+     */
+    private int jump(int x, int y, int dx, int dy, int cost) {
+        while (true) {
+            cost++;
+            if (!isValidLocation(x, y)) { return NO_PARENT; }
+            if (cost + heuristic.getCost(x, y, goalX, goalY) > maxSearchDistance) {
+                return NO_PARENT;
+            }
+
+            if (x == goalX && y == goalY) { return (y * cols) + x; }
+
+            if (dx != 0) {
+                if ((isValidLocation(x, y - 1) && !isValidLocation(x - dx, y - 1)) ||
+                        (isValidLocation(x, y + 1) && !isValidLocation(x - dx, y + 1))) {
+                    return (y * cols) + x;
+                }
+            } else {
+                if ((isValidLocation(x - 1, y) && !isValidLocation(x - 1, y - dy)) ||
+                        (isValidLocation(x + 1, y) && !isValidLocation(x + 1, y - dy))) {
+                    return (y * cols) + x;
+                }
+                if (jump(x + 1, y, 1, 0, cost) != NO_PARENT ||
+                        jump(x - 1, y, -1, 0, cost) != NO_PARENT) {
+                    return (y * cols) + x;
+                }
+            }
+
+            x += dx;
+            y += dy;
+        }
+    }
+
+    private void reset(int node) {
+        generations[node] = generation;
+        costs[node] = 0;
+        heuristics[node] = 0;
+        parents[node] = NO_PARENT;
+    }
+
+    private boolean isValidLocation(int x, int y) {
+        if (x < 0 || y < 0 || x >= cols || y >= rows) { return false; }
+        if ((startX == x && startY == y) || (goalX == x && goalY == y)) { return true; }
+
+        return !grid.isBlocked(x, y);
+    }
+}
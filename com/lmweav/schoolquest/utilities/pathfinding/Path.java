@@ -1,12 +1,11 @@
 package com.lmweav.schoolquest.utilities.pathfinding;
 
-import java.util.ArrayList;
-
 /*
  * School Quest: Path
  * This class is an implementation of a path to be used in path finding.
  *
- * There is 1 support class declared here: Step - which makes up a path object.
+ * Each step is packed into one int (x << 16 | y). Paths are built from the goal back to the start,
+ * so steps are filled in from the end of the array.
  *
  * @author Luke Weaver
  * @version 1.0.9
@@ -14,83 +13,59 @@ import java.util.ArrayList;
  */
 public class Path {
 
-    private ArrayList<Step> steps = new ArrayList<>();
+    private int[] steps;
+    private int first;
 
     /*---------------------------------------------------------------------------------------------
     | Constructors
     ----------------------------------------------------------------------------------------------*/
 
-    Path() { }
-
-    /*---------------------------------------------------------------------------------------------
-    | Getters and Setters
-    ----------------------------------------------------------------------------------------------*/
-
-    public int getLength() { return steps.size(); }
-
-    private Step getStep(int index) { return steps.get(index); }
-
-    public int getX(int index) { return getStep(index).getX(); }
+    Path() { this(0); }
 
-    public int getY(int index) { return getStep(index).getY(); }
+    Path(int capacity) {
+        steps = new int[capacity];
+        first = capacity;
+    }
 
     /*---------------------------------------------------------------------------------------------
-    | Methods
+    | Getters and Setters
     ----------------------------------------------------------------------------------------------*/
 
-    void prependStep(int x, int y) { steps.add(0, new Step(x, y)); }
+    public int getLength() { return steps.length - first; }
 
-    @Override
-    public String toString() {
-        StringBuilder path = new StringBuilder();
-        for (Step step : steps) {
-            path.append(step);
-            if (steps.indexOf(step) != steps.size() - 1) { path.append(" -> "); }
+    private int getStep(int index) {
+        if (index < 0 || index >= getLength()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + getLength());
         }
-        return path.toString();
+        return steps[first + index];
     }
-}
 
-class Step {
+    public int getX(int index) { return getStep(index) >>> 16; }
 
-    private int x;
-    private int y;
-
-    /*---------------------------------------------------------------------------------------------
-    | Constructors
-    ----------------------------------------------------------------------------------------------*/
-
-    Step (int x, int y) {
-        this.x = x;
-        this.y = y;
-    }
-
-    /*---------------------------------------------------------------------------------------------
-    | Getters and Setters
-    ----------------------------------------------------------------------------------------------*/
-
-    public int getX() { return x; }
-
-    public int getY() { return y; }
+    public int getY(int index) { return getStep(index) & 0xFFFF; }
 
     /*---------------------------------------------------------------------------------------------
     | Methods
     ----------------------------------------------------------------------------------------------*/
 
-    @Override
-    public String toString() {
-        return "(" + x + ", " + y + ")";
+    void prependStep(int x, int y) {
+        if (first == 0) {
+            int length = getLength();
+            int[] grown = new int[Math.max(4, length * 2)];
+            System.arraycopy(steps, 0, grown, grown.length - length, length);
+            first = grown.length - length;
+            steps = grown;
+        }
+        steps[--first] = (x << 16) | y;
     }
 
     @Override
-    public boolean equals(Object o) {
-        if (o instanceof Step) {
-            Step other = (Step) o;
-
-            return (other.x == x) && (other.y == y);
+    public String toString() {
+        StringBuilder path = new StringBuilder();
+        for (int i = 0; i < getLength(); i++) {
+            if (i > 0) { path.append(" -> "); }
+            path.append("(").append(getX(i)).append(", ").append(getY(i)).append(")");
         }
-
-        return false;
+        return path.toString();
     }
-
 }
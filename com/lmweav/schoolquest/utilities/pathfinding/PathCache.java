@@ -0,0 +1,133 @@
+package com.lmweav.schoolquest.utilities.pathfinding;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * School Quest: PathCache
+ * This class is a least-recently-used cache of computed paths, shared by the path finders of
+ * every tile map.
+ *
+ * Paths are keyed by map, path finder, start and goal, and remember the grid and the collision
+ * version they were found on. The path finder is part of the key as the A Star path finder gives
+ * up at a search depth, and Jump Point Search at a route length, so one may find a route the
+ * other would not. An entry from another build of the map or an older collision version is dropped
+ * on lookup, and a map's entries are dropped when it is unloaded, as a rebuilt map starts counting
+ * its versions again. Failed searches are cached too, as they are the most expensive to repeat.
+ *
+ * The cache size is kept here rather than in Constants, as the path finders do not depend on the
+ * Android API (see PathGrid).
+ *
+ * There is 1 support class declared here: CacheEntry - which holds a path, its grid and its
+ * version.
+ *
+ * @author Luke Weaver
+ * @version 1.0.9
+ * @since 2019-10-16
+ */
+public class PathCache {
+
+    static final Path NO_PATH = new Path();
+
+    static final int A_STAR = 0;
+    static final int JUMP_POINT = 1;
+
+    private static final int SIZE = 64;
+
+    private static final LinkedHashMap<Long, CacheEntry> entries =
+            new LinkedHashMap<Long, CacheEntry>(SIZE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, CacheEntry> eldest) {
+                    return size() > SIZE;
+                }
+            };
+
+    private static int hits;
+    private static int misses;
+
+    /*---------------------------------------------------------------------------------------------
+    | Constructors
+    ----------------------------------------------------------------------------------------------*/
+
+    private PathCache() { }
+
+    /*---------------------------------------------------------------------------------------------
+    | Getters and Setters
+    ----------------------------------------------------------------------------------------------*/
+
+    public static synchronized int getHits() { return hits; }
+
+    public static synchronized int getMisses() { return misses; }
+
+    /*---------------------------------------------------------------------------------------------
+    | Methods
+    ----------------------------------------------------------------------------------------------*/
+
+    private static long getKey(PathGrid grid, int finder, int startX, int startY, int goalX,
+                               int goalY) {
+        return ((long) grid.getId() << 49) | ((long) finder << 48) | ((long) startX << 36)
+                | ((long) startY << 24) | ((long) goalX << 12) | goalY;
+    }
+
+    /*
+     * Returns null on a miss, or NO_PATH if the cached search failed.
+     */
+    static synchronized Path get(PathGrid grid, int finder, int startX, int startY, int goalX,
+                                 int goalY) {
+        long key = getKey(grid, finder, startX, startY, goalX, goalY);
+        CacheEntry entry = entries.get(key);
+
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (entry.grid != grid || entry.version != grid.getCollisionVersion()) {
+            entries.remove(key);
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.path;
+    }
+
+    static synchronized void put(PathGrid grid, int finder, int startX, int startY, int goalX,
+                                 int goalY, Path path) {
+        entries.put(getKey(grid, finder, startX, startY, goalX, goalY),
+                new CacheEntry(path == null ? NO_PATH : path, grid, grid.getCollisionVersion()));
+    }
+
+    /*
+     * Drops every path of a map, when the map is unloaded.
+     */
+    public static synchronized void remove(int mapId) {
+        Iterator<Long> iterator = entries.keySet().iterator();
+        while (iterator.hasNext()) {
+            if ((iterator.next() >>> 49) == mapId) { iterator.remove(); }
+        }
+    }
+
+    public static synchronized void clear() {
+        entries.clear();
+        hits = 0;
+        misses = 0;
+    }
+}
+
+class CacheEntry {
+
+    final Path path;
+    final PathGrid grid;
+    final int version;
+
+    /*---------------------------------------------------------------------------------------------
+    | Constructors
+    ----------------------------------------------------------------------------------------------*/
+
+    CacheEntry(Path path, PathGrid grid, int version) {
+        this.path = path;
+        this.grid = grid;
+        this.version = version;
+    }
+
+}
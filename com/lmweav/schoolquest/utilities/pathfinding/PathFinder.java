@@ -0,0 +1,19 @@
+package com.lmweav.schoolquest.utilities.pathfinding;
+
+/*
+ * School Quest: PathFinder
+ * This interface is to be implemented for path-finding algorithms used on a tile map.
+ *
+ * @author Luke Weaver
+ * @version 1.0.9
+ * @since 2019-10-16
+ */
+public interface PathFinder {
+
+    /*---------------------------------------------------------------------------------------------
+    | Methods
+    ----------------------------------------------------------------------------------------------*/
+
+    Path findPath(int startX, int startY, int goalX, int goalY);
+
+}
@@ -0,0 +1,36 @@
+package com.lmweav.schoolquest.utilities.pathfinding;
+
+/*
+ * School Quest: PathGrid
+ * This interface is to be implemented for the grids searched by the path finders.
+ *
+ * A tile map is the grid searched in the game. The path finders only depend on this interface,
+ * not the Android API, so they can also be run on grids read from the map files on a desktop JVM.
+ *
+ * @author Luke Weaver
+ * @version 1.0.9
+ * @since 2019-10-16
+ */
+public interface PathGrid {
+
+    /*---------------------------------------------------------------------------------------------
+    | Getters and Setters
+    ----------------------------------------------------------------------------------------------*/
+
+    int getId();
+
+    int getRows();
+
+    int getCols();
+
+    /*
+     * Changes whenever a tile is blocked or cleared, so cached paths can be checked.
+     */
+    int getCollisionVersion();
+
+    /*
+     * Whether a route may not pass through the tile (unless it starts or ends there).
+     */
+    boolean isBlocked(int x, int y);
+
+}
@@ -0,0 +1,299 @@
+package com.lmweav.schoolquest.utilities.pathfinding;
+
+import android.util.SparseArray;
+
+import com.lmweav.schoolquest.utilities.Condition;
+import com.lmweav.schoolquest.utilities.ExpressionAnalyser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/*
+ * School Quest: PortalGraph
+ * This class is an abstract graph of the doors between tile maps, used to find routes that go
+ * through more than one map.
+ *
+ * The graph is built once, when the maps are defined, from each map's door records and its
+ * CollisionGrid, so no map is built for it. Each door leads to a tile on another map, and the
+ * walking distance from that tile to every door on the same map is worked out up front. A route
+ * is found by searching the doors only. The path for each map along the route (a leg) is only
+ * worked out when the character enters that map (see PortalRoute.getLeg).
+ *
+ * Distances only count the tiles that are always blocked, so characters do not change the graph.
+ * Doors that are locked when a route is found are skipped.
+ *
+ * @author Luke Weaver
+ * @version 1.0.9
+ * @since 2019-10-16
+ */
+public class PortalGraph {
+
+    private static final int UNREACHABLE = -1;
+
+    private static final int[][] DIRECTIONS = { {-1, 0}, {0, -1}, {0, 1}, {1, 0} };
+
+    private SparseArray<PathGrid> grids;
+
+    private int[] doorMaps;
+    private int[] doorXs;
+    private int[] doorYs;
+    private int[] destMaps;
+    private int[] destXs;
+    private int[] destYs;
+    private Condition[] locks;
+
+    private int[][] distances;
+
+    /*---------------------------------------------------------------------------------------------
+    | Constructors
+    ----------------------------------------------------------------------------------------------*/
+
+    /*
+     * The door records of each map are those of its door resource: [x,y][map,x,y][lock][effect],
+     * where the lock and effect are optional.
+     */
+    public PortalGraph(SparseArray<PathGrid> grids, SparseArray<String[][]> doorRecords) {
+        this.grids = grids;
+
+        ArrayList<String[]> doors = new ArrayList<>();
+        ArrayList<Integer> maps = new ArrayList<>();
+        for (int i = 0; i < doorRecords.size(); i++) {
+            if (doorRecords.valueAt(i) == null) { continue; }
+            for (String[] record : doorRecords.valueAt(i)) {
+                doors.add(record);
+                maps.add(doorRecords.keyAt(i));
+            }
+        }
+
+        int size = doors.size();
+        doorMaps = new int[size];
+        doorXs = new int[size];
+        doorYs = new int[size];
+        destMaps = new int[size];
+        destXs = new int[size];
+        destYs = new int[size];
+        locks = new Condition[size];
+        for (int i = 0; i < size; i++) {
+            String[] record = doors.get(i);
+            String[] coordinates = record[0].split(",");
+            String[] destination = record[1].split(",");
+
+            doorMaps[i] = maps.get(i);
+            doorXs[i] = Integer.parseInt(coordinates[0]);
+            doorYs[i] = Integer.parseInt(coordinates[1]);
+            destMaps[i] = Integer.parseInt(destination[0]);
+            destXs[i] = Integer.parseInt(destination[1]);
+            destYs[i] = Integer.parseInt(destination[2]);
+            if (record.length > 2) { locks[i] = ExpressionAnalyser.compile(record[2]); }
+        }
+
+        distances = new int[size][size];
+        for (int i = 0; i < size; i++) {
+            Arrays.fill(distances[i], UNREACHABLE);
+
+            PathGrid destGrid = grids.get(destMaps[i]);
+            if (destGrid == null) { continue; }
+
+            int[] mapDistances = search(destGrid, destXs[i], destYs[i], null);
+            for (int j = 0; j < size; j++) {
+                if (doorMaps[j] == destMaps[i]) {
+                    distances[i][j] = mapDistances[(doorYs[j] * destGrid.getCols()) + doorXs[j]];
+                }
+            }
+        }
+    }
+
+    /*---------------------------------------------------------------------------------------------
+    | Methods
+    ----------------------------------------------------------------------------------------------*/
+
+    /*
+     * Returns the shortest route through unlocked doors to (goalX, goalY) on the goal map, or null
+     * if there is none.
+     */
+    public PortalRoute findRoute(int startMapId, int startX, int startY,
+                                 int goalMapId, int goalX, int goalY) {
+        PathGrid goalGrid = grids.get(goalMapId);
+        if (goalGrid == null) { return null; }
+
+        return findRoute(startMapId, startX, startY, goalMapId,
+                search(goalGrid, goalX, goalY, null), goalX, goalY);
+    }
+
+    /*
+     * Returns the shortest route through unlocked doors into the goal map, which ends on the tile
+     * the map is entered at, or null if there is none.
+     */
+    public PortalRoute findRoute(int startMapId, int startX, int startY, int goalMapId) {
+        return findRoute(startMapId, startX, startY, goalMapId, null, UNREACHABLE, UNREACHABLE);
+    }
+
+    /*
+     * Dijkstra's algorithm over the doors. The route ends at the goal, whose distance from every
+     * tile of the goal map is toGoal, or at the first tile reached on the goal map if toGoal is
+     * null.
+     */
+    private PortalRoute findRoute(int startMapId, int startX, int startY, int goalMapId,
+                                  int[] toGoal, int goalX, int goalY) {
+        PathGrid startGrid = grids.get(startMapId);
+        PathGrid goalGrid = grids.get(goalMapId);
+        if (startGrid == null || goalGrid == null) { return null; }
+
+        int[] fromStart = search(startGrid, startX, startY, null);
+
+        int size = doorMaps.length;
+        int[] costs = new int[size];
+        int[] previous = new int[size];
+        boolean[] visited = new boolean[size];
+        Arrays.fill(costs, UNREACHABLE);
+        Arrays.fill(previous, UNREACHABLE);
+
+        for (int i = 0; i < size; i++) {
+            if (doorMaps[i] == startMapId) {
+                costs[i] = fromStart[(doorYs[i] * startGrid.getCols()) + doorXs[i]];
+            }
+        }
+
+        int bestCost = UNREACHABLE;
+        int lastDoor = UNREACHABLE;
+        if (startMapId == goalMapId && toGoal != null) {
+            bestCost = fromStart[(goalY * startGrid.getCols()) + goalX];
+        }
+
+        while (true) {
+            int current = UNREACHABLE;
+            for (int i = 0; i < size; i++) {
+                if (!visited[i] && costs[i] != UNREACHABLE &&
+                        (current == UNREACHABLE || costs[i] < costs[current])) {
+                    current = i;
+                }
+            }
+            if (current == UNREACHABLE) { break; }
+            if (bestCost != UNREACHABLE && costs[current] >= bestCost) { break; }
+
+            visited[current] = true;
+            if (locks[current] != null && locks[current].evaluate(null)) { continue; }
+
+            if (destMaps[current] == goalMapId) {
+                int toGoalCost = toGoal == null ? 0 :
+                        toGoal[(destYs[current] * goalGrid.getCols()) + destXs[current]];
+                if (toGoalCost != UNREACHABLE &&
+                        (bestCost == UNREACHABLE || costs[current] + toGoalCost < bestCost)) {
+                    bestCost = costs[current] + toGoalCost;
+                    lastDoor = current;
+                }
+            }
+
+            for (int next = 0; next < size; next++) {
+                int distance = distances[current][next];
+                if (distance == UNREACHABLE || visited[next]) { continue; }
+
+                int cost = costs[current] + distance;
+                if (costs[next] == UNREACHABLE || cost < costs[next]) {
+                    costs[next] = cost;
+                    previous[next] = current;
+                }
+            }
+        }
+
+        if (bestCost == UNREACHABLE) { return null; }
+        if (toGoal == null) {
+            goalX = destXs[lastDoor];
+            goalY = destYs[lastDoor];
+        }
+
+        ArrayList<Integer> doors = new ArrayList<>();
+        for (int door = lastDoor; door != UNREACHABLE; door = previous[door]) {
+            doors.add(0, door);
+        }
+
+        int legCount = doors.size() + 1;
+        int[] legMaps = new int[legCount];
+        int[] legStarts = new int[legCount * 2];
+        int[] legGoals = new int[legCount * 2];
+
+        legMaps[0] = startMapId;
+        legStarts[0] = startX;
+        legStarts[1] = startY;
+        for (int i = 0; i < doors.size(); i++) {
+            int door = doors.get(i);
+            legGoals[i * 2] = doorXs[door];
+            legGoals[(i * 2) + 1] = doorYs[door];
+            legMaps[i + 1] = destMaps[door];
+            legStarts[(i + 1) * 2] = destXs[door];
+            legStarts[((i + 1) * 2) + 1] = destYs[door];
+        }
+        legGoals[(legCount - 1) * 2] = goalX;
+        legGoals[((legCount - 1) * 2) + 1] = goalY;
+
+        return new PortalRoute(legMaps, legStarts, legGoals, bestCost);
+    }
+
+    /*
+     * The shortest path across a grid, which may be longer than the path finders search.
+     */
+    static Path findLeg(PathGrid grid, int startX, int startY, int goalX, int goalY) {
+        int cols = grid.getCols();
+        int[] parents = new int[grid.getRows() * cols];
+        int goal = (goalY * cols) + goalX;
+        int start = (startY * cols) + startX;
+        int[] mapDistances = search(grid, startX, startY, parents);
+
+        if (goal < 0 || goal >= mapDistances.length || mapDistances[goal] == UNREACHABLE) {
+            return null;
+        }
+
+        Path path = new Path(mapDistances[goal] + 1);
+        for (int node = goal; node != start; node = parents[node]) {
+            path.prependStep(node % cols, node / cols);
+        }
+        path.prependStep(startX, startY);
+        return path;
+    }
+
+    /*
+     * A breadth-first search from (startX, startY) over tiles that are not blocked. Blocked tiles
+     * next to the search, such as doors, are given a distance, so they can be a goal, but they are
+     * not searched past.
+     */
+    private static int[] search(PathGrid grid, int startX, int startY, int[] parents) {
+        int cols = grid.getCols();
+        int rows = grid.getRows();
+
+        int[] mapDistances = new int[rows * cols];
+        Arrays.fill(mapDistances, UNREACHABLE);
+        if (startX < 0 || startY < 0 || startX >= cols || startY >= rows) {
+            return mapDistances;
+        }
+
+        int[] queue = new int[rows * cols];
+        int head = 0;
+        int tail = 0;
+
+        int start = (startY * cols) + startX;
+        mapDistances[start] = 0;
+        queue[tail++] = start;
+
+        while (head < tail) {
+            int node = queue[head++];
+            int x = node % cols;
+            int y = node / cols;
+
+            if (node != start && grid.isBlocked(x, y)) { continue; }
+
+            for (int[] direction : DIRECTIONS) {
+                int nextX = x + direction[0];
+                int nextY = y + direction[1];
+                if (nextX < 0 || nextY < 0 || nextX >= cols || nextY >= rows) { continue; }
+
+                int next = (nextY * cols) + nextX;
+                if (mapDistances[next] != UNREACHABLE) { continue; }
+
+                mapDistances[next] = mapDistances[node] + 1;
+                if (parents != null) { parents[next] = node; }
+                queue[tail++] = next;
+            }
+        }
+        return mapDistances;
+    }
+}
@@ -0,0 +1,64 @@
+package com.lmweav.schoolquest.utilities.pathfinding;
+
+/*
+ * School Quest: PortalRoute
+ * This class is a route across tile maps, found by the PortalGraph. The route is split into legs,
+ * one for each map it passes through. Every leg but the last ends on a door.
+ *
+ * The path for a leg is only worked out the first time it is asked for, on the map passed in,
+ * which should be the leg's map once it is the current map.
+ *
+ * @author Luke Weaver
+ * @version 1.0.9
+ * @since 2019-10-16
+ */
+public class PortalRoute {
+
+    private int[] legMaps;
+    private int[] legStarts;
+    private int[] legGoals;
+
+    private Path[] legs;
+
+    private int length;
+
+    /*---------------------------------------------------------------------------------------------
+    | Constructors
+    ----------------------------------------------------------------------------------------------*/
+
+    PortalRoute(int[] legMaps, int[] legStarts, int[] legGoals, int length) {
+        this.legMaps = legMaps;
+        this.legStarts = legStarts;
+        this.legGoals = legGoals;
+        this.length = length;
+
+        legs = new Path[legMaps.length];
+    }
+
+    /*---------------------------------------------------------------------------------------------
+    | Getters and Setters
+    ----------------------------------------------------------------------------------------------*/
+
+    public int getLegCount() { return legMaps.length; }
+
+    public int getLength() { return length; }
+
+    public int getMapId(int leg) { return legMaps[leg]; }
+
+    public int getStartX(int leg) { return legStarts[leg * 2]; }
+
+    public int getStartY(int leg) { return legStarts[(leg * 2) + 1]; }
+
+    public int getGoalX(int leg) { return legGoals[leg * 2]; }
+
+    public int getGoalY(int leg) { return legGoals[(leg * 2) + 1]; }
+
+    public synchronized Path getLeg(int leg, PathGrid grid) {
+        if (legs[leg] == null && grid.getId() == legMaps[leg]) {
+            legs[leg] = PortalGraph.findLeg(grid, getStartX(leg), getStartY(leg),
+                    getGoalX(leg), getGoalY(leg));
+        }
+        return legs[leg];
+    }
+
+}
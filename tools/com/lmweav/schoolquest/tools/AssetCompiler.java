@@ -0,0 +1,127 @@
+package com.lmweav.schoolquest.tools;
+
+import com.lmweav.schoolquest.utilities.RecordFormat;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/*
+ * School Quest: AssetCompiler
+ * This class is a build tool that compiles the text resources the game parses at load time into
+ * the record format read by the RecordReader. It is not part of the game, and is kept out of the
+ * game's sources; it is compiled against RecordFormat, which does not use the Android API.
+ *
+ * It is run on a desktop JVM, with the raw resource directory and the asset directory to write to:
+ *
+ *     java com.lmweav.schoolquest.tools.AssetCompiler app/src/main/res/raw \
+ *             app/src/main/assets/records
+ *
+ * Each map, NPC, door, interactive tile, behaviour, text, shop, item and cutscene file is written
+ * as <name>.bin, and other files are ignored. Each compiled file records the length and checksum
+ * of its text, and the game reads the text instead if it has changed since, so the tool should
+ * be run again whenever one of those files is changed.
+ *
+ * @author Luke Weaver
+ * @version 1.0.9
+ * @since 2019-10-16
+ */
+public class AssetCompiler {
+
+    private static final String[] LINE_PREFIXES = { "_maps_", "_npcs_names" };
+    private static final String[] RECORD_PREFIXES = { "_npcs_", "_doors_", "_interactive_",
+            "_behaviour_", "_texts_", "_shop_", "_items", "_cutscene_" };
+
+    private static final String SOURCE_EXTENSION = ".txt";
+
+    /*---------------------------------------------------------------------------------------------
+    | Constructors
+    ----------------------------------------------------------------------------------------------*/
+
+    private AssetCompiler() { }
+
+    /*---------------------------------------------------------------------------------------------
+    | Methods
+    ----------------------------------------------------------------------------------------------*/
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: AssetCompiler <resource directory> <output directory>");
+            System.exit(1);
+        }
+        File sourceDir = new File(args[0]);
+        File outputDir = new File(args[1]);
+
+        File[] files = sourceDir.listFiles();
+        if (files == null) { throw new IOException("Cannot list " + sourceDir); }
+        if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+            throw new IOException("Cannot create " + outputDir);
+        }
+        Arrays.sort(files);
+
+        int count = 0;
+        long textSize = 0;
+        long compiledSize = 0;
+        for (File file : files) {
+            String fileName = file.getName();
+            if (!fileName.endsWith(SOURCE_EXTENSION)) { continue; }
+            String name = fileName.substring(0, fileName.length() - SOURCE_EXTENSION.length());
+
+            boolean lines = hasPrefix(name, LINE_PREFIXES);
+            if (!lines && !hasPrefix(name, RECORD_PREFIXES)) { continue; }
+
+            File output = new File(outputDir, name + RecordFormat.EXTENSION);
+            compile(file, output, lines);
+
+            count++;
+            textSize += file.length();
+            compiledSize += output.length();
+            System.out.println(name + ": " + file.length() + " -> " + output.length() + " bytes");
+        }
+        System.out.println(count + " files: " + textSize + " -> " + compiledSize + " bytes");
+    }
+
+    private static boolean hasPrefix(String name, String[] prefixes) {
+        for (String prefix : prefixes) {
+            if (name.startsWith(prefix)) { return true; }
+        }
+        return false;
+    }
+
+    private static void compile(File source, File output, boolean lines) throws IOException {
+        CRC32 checksum = new CRC32();
+        int length;
+        FileInputStream input = new FileInputStream(source);
+        try {
+            length = RecordFormat.fingerprint(input, checksum);
+        } finally {
+            input.close();
+        }
+
+        ArrayList<String[]> records = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(source), "UTF-8"));
+        try {
+            RecordFormat.read(reader, lines, records);
+        } finally {
+            reader.close();
+        }
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(output)));
+        try {
+            RecordFormat.write(records, lines, length, (int) checksum.getValue(), out);
+        } finally {
+            out.close();
+        }
+    }
+
+}
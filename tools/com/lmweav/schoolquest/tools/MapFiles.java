@@ -0,0 +1,136 @@
+package com.lmweav.schoolquest.tools;
+
+import com.lmweav.schoolquest.utilities.RecordFormat;
+import com.lmweav.schoolquest.utilities.pathfinding.CollisionGrid;
+import com.lmweav.schoolquest.utilities.pathfinding.PathGrid;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Random;
+
+/*
+ * School Quest: MapFiles
+ * This class reads the collision grids of the game's maps from the raw resource directory, for
+ * the tools that run the path finders on a desktop JVM.
+ *
+ * The maps are listed with the same ids and text resources as TileMap.loadMaps, which should be
+ * kept in step with this table.
+ *
+ * @author Luke Weaver
+ * @version 1.0.9
+ * @since 2019-10-16
+ */
+public class MapFiles {
+
+    public static final String DEFAULT_RESOURCE_DIR = "app/src/main/res/raw";
+
+    /*
+     * As MAX_PATH_SEARCH_DISTANCE, which cannot be read here as Constants uses the Android API.
+     */
+    public static final int MAX_SEARCH_DISTANCE = 30;
+
+    // { map text, tile set data, door records (or null) }, indexed by map id
+    private static final String[][] MAPS = {
+            { "_maps_hall_g", "_tilesets_school_hall", "_doors_school_hall_g" },
+            { "_maps_hall_1f", "_tilesets_school_hall", "_doors_school_hall_1f" },
+            { "_maps_classroom_dt", "_tilesets_school_classroom", "_doors_school_classroom_dt" },
+            { "_maps_classroom_ft", "_tilesets_school_classroom", "_doors_school_classroom_ft" },
+            { "_maps_classroom_1f", "_tilesets_school_classroom", "_doors_school_classroom_1f" },
+            { "_maps_canteen", "_tilesets_school_canteen", "_doors_school_canteen" },
+            { "_maps_yard", "_tilesets_school_yard", "_doors_school_yard" },
+            { "_maps_bedroom", "_tilesets_bedroom", null },
+            { "_maps_staffroom", "_tilesets_school_staffroom", "_doors_school_staffroom" },
+            { "_maps_pe", "_tilesets_pe", null },
+            { "_maps_exam_hall", "_tilesets_school_exam", null },
+            { "_maps_shop", "_tilesets_school_shop", "_doors_school_shop" } };
+
+    private static final String SOURCE_EXTENSION = ".txt";
+
+    /*---------------------------------------------------------------------------------------------
+    | Constructors
+    ----------------------------------------------------------------------------------------------*/
+
+    private MapFiles() { }
+
+    /*---------------------------------------------------------------------------------------------
+    | Getters and Setters
+    ----------------------------------------------------------------------------------------------*/
+
+    public static int getMapCount() { return MAPS.length; }
+
+    public static String getName(int id) { return MAPS[id][0]; }
+
+    /*---------------------------------------------------------------------------------------------
+    | Methods
+    ----------------------------------------------------------------------------------------------*/
+
+    public static PathGrid readGrid(File resourceDir, int id) throws IOException {
+        String[] map = MAPS[id];
+        String[][] doors = null;
+        if (map[2] != null) {
+            ArrayList<String[]> records = read(resourceDir, map[2], false);
+            doors = records.toArray(new String[records.size()][]);
+        }
+        return new CollisionGrid(id, readLines(resourceDir, map[0]),
+                readLines(resourceDir, map[1]), doors);
+    }
+
+    /*
+     * Picks count searches between open tiles no more than MAX_SEARCH_DISTANCE apart on each axis,
+     * as a character on the map might be sent. The searches are packed as { startX, startY, goalX,
+     * goalY } and are the same for the same seed. Fewer are returned if the map is mostly blocked.
+     */
+    public static int[] pickSearches(PathGrid grid, int count, long seed) {
+        int rows = grid.getRows();
+        int cols = grid.getCols();
+        int[] searches = new int[count * 4];
+
+        Random random = new Random(seed);
+        int picked = 0;
+        for (int attempt = 0; attempt < count * 20 && picked < count; attempt++) {
+            int startX = random.nextInt(cols);
+            int startY = random.nextInt(rows);
+            int goalX = startX + random.nextInt((2 * MAX_SEARCH_DISTANCE) + 1)
+                    - MAX_SEARCH_DISTANCE;
+            int goalY = startY + random.nextInt((2 * MAX_SEARCH_DISTANCE) + 1)
+                    - MAX_SEARCH_DISTANCE;
+            if (goalX < 0 || goalY < 0 || goalX >= cols || goalY >= rows) { continue; }
+            if (grid.isBlocked(startX, startY) || grid.isBlocked(goalX, goalY)) { continue; }
+
+            searches[picked * 4] = startX;
+            searches[(picked * 4) + 1] = startY;
+            searches[(picked * 4) + 2] = goalX;
+            searches[(picked * 4) + 3] = goalY;
+            picked++;
+        }
+
+        int[] result = new int[picked * 4];
+        System.arraycopy(searches, 0, result, 0, result.length);
+        return result;
+    }
+
+    private static String[] readLines(File resourceDir, String name) throws IOException {
+        ArrayList<String[]> records = read(resourceDir, name, true);
+        String[] lines = new String[records.size()];
+        for (int i = 0; i < lines.length; i++) { lines[i] = records.get(i)[0]; }
+        return lines;
+    }
+
+    private static ArrayList<String[]> read(File resourceDir, String name, boolean lines)
+            throws IOException {
+        ArrayList<String[]> records = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(new File(resourceDir, name + SOURCE_EXTENSION)), "UTF-8"));
+        try {
+            RecordFormat.read(reader, lines, records);
+        } finally {
+            reader.close();
+        }
+        return records;
+    }
+
+}
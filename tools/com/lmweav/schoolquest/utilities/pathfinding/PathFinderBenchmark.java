@@ -0,0 +1,112 @@
+package com.lmweav.schoolquest.utilities.pathfinding;
+
+import com.lmweav.schoolquest.tools.MapFiles;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * School Quest: PathFinderBenchmark
+ * This class is a JMH benchmark of the A Star path finder against the sorted list version it
+ * replaced (see SortedListPathFinder) and Jump Point Search, on the game's maps. It is not part
+ * of the game.
+ *
+ * Each operation runs the same SEARCHES searches on one map, between open tiles picked at random
+ * within the search distance (see MapFiles.pickSearches), and returns how many found a path. The
+ * path finders are searched without the PathCache, so every search is timed. The nodes each
+ * expands are printed by PathFinderComparison. It is built
+ * against jmh-core, with jmh-generator-annprocess as an annotation processor, and run on a
+ * desktop JVM from the project directory:
+ *
+ *     java -cp <classes and jmh> org.openjdk.jmh.Main PathFinderBenchmark \
+ *             -p resourceDir=app/src/main/res/raw
+ *
+ * @author Luke Weaver
+ * @version 1.0.9
+ * @since 2019-10-16
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class PathFinderBenchmark {
+
+    private static final int SEARCHES = 200;
+
+    @Param({ "0", "1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11" })
+    public int mapId;
+
+    @Param(MapFiles.DEFAULT_RESOURCE_DIR)
+    public String resourceDir;
+
+    private PathGrid grid;
+    private AStarPathFinder binaryHeap;
+    private JumpPointPathFinder jumpPoint;
+    private int[] searches;
+
+    /*---------------------------------------------------------------------------------------------
+    | Methods
+    ----------------------------------------------------------------------------------------------*/
+
+    @Setup
+    public void setUp() throws IOException {
+        grid = MapFiles.readGrid(new File(resourceDir), mapId);
+        binaryHeap = new AStarPathFinder(grid, MapFiles.MAX_SEARCH_DISTANCE);
+        jumpPoint = new JumpPointPathFinder(grid, MapFiles.MAX_SEARCH_DISTANCE);
+        searches = MapFiles.pickSearches(grid, SEARCHES, mapId);
+    }
+
+    @Benchmark
+    public int binaryHeap() {
+        int found = 0;
+        for (int i = 0; i < searches.length; i += 4) {
+            if (binaryHeap.search(searches[i], searches[i + 1], searches[i + 2],
+                    searches[i + 3]) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int jumpPoint() {
+        int found = 0;
+        for (int i = 0; i < searches.length; i += 4) {
+            if (jumpPoint.search(searches[i], searches[i + 1], searches[i + 2],
+                    searches[i + 3]) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int sortedList() {
+        int found = 0;
+        for (int i = 0; i < searches.length; i += 4) {
+            SortedListPathFinder sortedList = new SortedListPathFinder(grid,
+                    MapFiles.MAX_SEARCH_DISTANCE);
+            if (sortedList.findPath(searches[i], searches[i + 1], searches[i + 2],
+                    searches[i + 3]) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.lmweav.schoolquest.utilities.pathfinding;
+
+import com.lmweav.schoolquest.tools.MapFiles;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+/*
+ * School Quest: PathFinderComparison
+ * This class is a tool that compares Jump Point Search with the A Star path finder on every map
+ * in TileMap.loadMaps. It is not part of the game.
+ *
+ * The same SEARCHES searches are run on each map with both path finders (see
+ * MapFiles.pickSearches), without the PathCache. For each, the paths found, the nodes expanded
+ * and the time taken by the last of ROUNDS rounds are printed, with the number of searches where
+ * the two found routes of different lengths. It is run on a desktop JVM from the project
+ * directory, with the raw resource directory if it is not the default:
+ *
+ *     java com.lmweav.schoolquest.utilities.pathfinding.PathFinderComparison app/src/main/res/raw
+ *
+ * The wall-time of the searches alone is measured more carefully by PathFinderBenchmark.
+ *
+ * @author Luke Weaver
+ * @version 1.0.9
+ * @since 2019-10-16
+ */
+public class PathFinderComparison {
+
+    private static final int SEARCHES = 200;
+    private static final int ROUNDS = 20;
+
+    /*---------------------------------------------------------------------------------------------
+    | Constructors
+    ----------------------------------------------------------------------------------------------*/
+
+    private PathFinderComparison() { }
+
+    /*---------------------------------------------------------------------------------------------
+    | Methods
+    ----------------------------------------------------------------------------------------------*/
+
+    public static void main(String[] args) throws IOException {
+        File resourceDir = new File(args.length > 0 ? args[0] : MapFiles.DEFAULT_RESOURCE_DIR);
+
+        for (int id = 0; id < MapFiles.getMapCount(); id++) {
+            PathGrid grid = MapFiles.readGrid(resourceDir, id);
+            int[] searches = MapFiles.pickSearches(grid, SEARCHES, id);
+
+            AStarPathFinder aStar = new AStarPathFinder(grid, MapFiles.MAX_SEARCH_DISTANCE);
+            JumpPointPathFinder jumpPoint = new JumpPointPathFinder(grid,
+                    MapFiles.MAX_SEARCH_DISTANCE);
+
+            Path[] aStarPaths = new Path[searches.length / 4];
+            Path[] jumpPointPaths = new Path[searches.length / 4];
+            long aStarTime = 0;
+            long jumpPointTime = 0;
+            int aStarExpansions = 0;
+            int jumpPointExpansions = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                int expansions = aStar.getExpansions();
+                long startTime = System.nanoTime();
+                for (int i = 0; i < searches.length; i += 4) {
+                    aStarPaths[i / 4] = aStar.search(searches[i], searches[i + 1],
+                            searches[i + 2], searches[i + 3]);
+                }
+                aStarTime = System.nanoTime() - startTime;
+                aStarExpansions = aStar.getExpansions() - expansions;
+
+                expansions = jumpPoint.getExpansions();
+                startTime = System.nanoTime();
+                for (int i = 0; i < searches.length; i += 4) {
+                    jumpPointPaths[i / 4] = jumpPoint.search(searches[i], searches[i + 1],
+                            searches[i + 2], searches[i + 3]);
+                }
+                jumpPointTime = System.nanoTime() - startTime;
+                jumpPointExpansions = jumpPoint.getExpansions() - expansions;
+            }
+
+            int aStarFound = 0;
+            int jumpPointFound = 0;
+            int different = 0;
+            for (int i = 0; i < aStarPaths.length; i++) {
+                if (aStarPaths[i] != null) { aStarFound++; }
+                if (jumpPointPaths[i] != null) { jumpPointFound++; }
+                if (getLength(aStarPaths[i]) != getLength(jumpPointPaths[i])) { different++; }
+            }
+
+            System.out.println(String.format(Locale.UK,
+                    "%s, %d searches: A* %d found, %d expanded, %.3f ms; " +
+                            "JPS %d found, %d expanded, %.3f ms; %d different",
+                    MapFiles.getName(id), aStarPaths.length, aStarFound, aStarExpansions,
+                    aStarTime / 1000000f, jumpPointFound, jumpPointExpansions,
+                    jumpPointTime / 1000000f, different));
+        }
+    }
+
+    private static int getLength(Path path) { return path == null ? -1 : path.getLength(); }
+
+}
@@ -0,0 +1,216 @@
+package com.lmweav.schoolquest.utilities.pathfinding;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+/*
+ * School Quest: SortedListPathFinder
+ * This class is the A Star path finder as it was before its open set was made a binary heap, kept
+ * as the baseline for the PathFinderBenchmark. It is not part of the game.
+ *
+ * The open set is a list that is sorted on every add, and the open and closed sets are searched
+ * with ArrayList.contains. Nodes are objects that are not reset between searches, so the game
+ * made a new path finder for every search, as the benchmark does.
+ *
+ * There are 2 support classes declared here: An implementation of A Star's 'node' and a
+ * sorted list.
+ *
+ * @author Luke Weaver
+ * @version 1.0.9
+ * @since 2019-10-16
+ */
+public class SortedListPathFinder implements PathFinder {
+
+    private ArrayList<Node> closed = new ArrayList<>();
+    private SortedList<Node> open = new SortedList<>();
+
+    private AStarHeuristic heuristic;
+    private PathGrid grid;
+
+    private Node[][] nodes;
+
+    private int maxSearchDistance;
+
+    /*---------------------------------------------------------------------------------------------
+    | Constructors
+    ----------------------------------------------------------------------------------------------*/
+
+    public SortedListPathFinder(PathGrid grid, int maxSearchDistance) {
+        this.heuristic = new ManhattanHeuristic();
+        this.grid = grid;
+        this.maxSearchDistance = maxSearchDistance;
+
+        nodes = new Node[grid.getRows()][grid.getCols()];
+        for (int y = 0; y < grid.getRows(); y++) {
+            for (int x = 0; x < grid.getCols(); x++) {
+                nodes[y][x] = new Node(x, y);
+            }
+        }
+    }
+
+    /*---------------------------------------------------------------------------------------------
+    | Methods
+    ----------------------------------------------------------------------------------------------*/
+
+    @Override
+    public Path findPath(int startX, int startY, int goalX, int goalY) {
+
+        if (goalX < 0 || goalY < 0 || goalX >= grid.getCols() || goalY >= grid.getRows()) {
+            return null;
+        }
+
+
+        nodes[startY][startX].setCost(0);
+        nodes[startY][startX].setDepth();
+
+        closed.clear();
+        open.clear();
+        open.add(nodes[startY][startX]);
+
+        int maxDepth = 0;
+        while ((maxDepth < maxSearchDistance) && (open.size() != 0)) {
+            Node current = open.getFirst();
+            if (current == nodes[goalY][goalX]) { break; }
+
+            open.remove(current);
+            closed.add(current);
+
+            for (int x = -1; x < 2; x++) {
+                for (int y = -1; y < 2; y++) {
+                    if ((x == 0) && (y ==0)) { continue; }
+
+                    if ((x != 0) && (y != 0)) { continue; }
+
+                    int xp = x + current.getX();
+                    int yp = y + current.getY();
+
+
+                    if (isValidLocation(startX, startY, goalX, goalY, xp, yp)) {
+                        float nextStepCost = current.getCost() + 1;
+                        Node neighbour = nodes[yp][xp];
+
+                        if (nextStepCost < neighbour.getCost()) {
+                            open.remove(neighbour);
+                            closed.remove(neighbour);
+                        }
+
+                        if (!open.contains(neighbour) && !closed.contains(neighbour)) {
+                            neighbour.setCost(nextStepCost);
+                            neighbour.setHeuristic(heuristic.getCost(xp, yp, goalX, goalY));
+                            maxDepth = Math.max(maxDepth, neighbour.setParent(current));
+                            open.add(neighbour);
+                        }
+                    }
+                }
+            }
+        }
+
+        if (nodes[goalY][goalX].getParent() == null) { return null; }
+
+        Path path = new Path();
+        Node goal;
+        goal = nodes[goalY][goalX];
+        while (goal != nodes[startY][startX]) {
+            path.prependStep(goal.getX(), goal.getY());
+            goal = goal.getParent();
+        }
+        path.prependStep(startX, startY);
+        return path;
+    }
+
+    private boolean isValidLocation(int startX, int startY, int goalX, int goalY, int x, int y) {
+        boolean invalid = x < 0 || y < 0 || x >= grid.getCols() || y >= grid.getRows();
+
+        if (!invalid && (startX != x || startY != y)) {
+            invalid = grid.isBlocked(x, y) && (goalX != x || goalY != y);
+        }
+
+        return !invalid;
+    }
+}
+
+class SortedList<E extends Comparable<E>> extends ArrayList<E> {
+
+    /*---------------------------------------------------------------------------------------------
+    | Getters and Setters
+    ----------------------------------------------------------------------------------------------*/
+
+    E getFirst() { return get(0); }
+
+    /*---------------------------------------------------------------------------------------------
+    | Methods
+    ----------------------------------------------------------------------------------------------*/
+
+    @Override
+    public boolean add(E o) {
+        boolean result = super.add(o);
+        if (result) { Collections.sort(this); }
+
+        return result;
+    }
+
+}
+
+class Node implements Comparable<Node> {
+
+    private int x;
+    private int y;
+    private int depth;
+    private float cost;
+    private float heuristic;
+
+    private Node parent;
+
+    /*---------------------------------------------------------------------------------------------
+    | Constructors
+    ----------------------------------------------------------------------------------------------*/
+
+    Node(int x, int y) {
+        this.x = x;
+        this.y = y;
+        parent = null;
+    }
+
+    /*---------------------------------------------------------------------------------------------
+    | Getters and Setters
+    ----------------------------------------------------------------------------------------------*/
+
+    public int getX() { return x; }
+
+    public int getY() { return y; }
+
+    float getCost() { return cost; }
+    void setCost(float cost) { this.cost = cost; }
+
+    void setDepth() { this.depth = 0; }
+
+    void setHeuristic(float heuristic) { this.heuristic = heuristic; }
+
+    public Node getParent() { return parent; }
+
+    /*---------------------------------------------------------------------------------------------
+    | Methods
+    ----------------------------------------------------------------------------------------------*/
+
+    int setParent(Node parent) {
+        depth = parent.depth + 1;
+        this.parent = parent;
+
+        return depth;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + ", " + y + ")";
+    }
+
+    @Override
+    public int compareTo(Node o) {
+
+        float f = heuristic + cost;
+        float otherF = o.heuristic + o.cost;
+
+        return Float.compare(f, otherF);
+    }
+
+}